@@ -4,6 +4,7 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import su.nightexpress.excellentjobs.booster.BoosterManager;
+import su.nightexpress.excellentjobs.bulk.BulkManager;
 import su.nightexpress.excellentjobs.api.booster.MultiplierType;
 import su.nightexpress.excellentjobs.job.JobManager;
 import su.nightexpress.excellentjobs.job.impl.Job;
@@ -45,6 +46,14 @@ public class JobsAPI {
         return instance.getBoosterManager();
     }
 
+    /**
+     * @return Manager of operations over all users in the database, e.g. to start a job reset for everyone.
+     */
+    @NotNull
+    public static BulkManager getBulkManager() {
+        return instance.getBulkManager();
+    }
+
     @NotNull
     public static UserManager getUserManager() {
         return instance.getUserManager();
@@ -55,6 +64,15 @@ public class JobsAPI {
         return getUserManager().getOrFetch(player);
     }
 
+    /**
+     * Non-blocking variant of {@link #getUserData(Player)}.
+     * @return User data, or null if it's not loaded.
+     */
+    @Nullable
+    public static JobUser getUserDataIfLoaded(@NotNull Player player) {
+        return getUserManager().getIfLoaded(player);
+    }
+
     @Nullable
     public static Job getJobById(@NotNull String id) {
         return getJobManager().getJobById(id);
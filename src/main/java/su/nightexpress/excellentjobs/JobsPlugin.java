@@ -8,6 +8,7 @@ import su.nightexpress.excellentjobs.hook.work.EvenMoreFishWork;
 import su.nightexpress.excellentjobs.hook.work.MythicMobsWork;
 import su.nightexpress.excellentjobs.job.work.Work;
 import su.nightexpress.excellentjobs.booster.BoosterManager;
+import su.nightexpress.excellentjobs.bulk.BulkManager;
 import su.nightexpress.excellentjobs.command.impl.BaseCommands;
 import su.nightexpress.excellentjobs.config.Config;
 import su.nightexpress.excellentjobs.config.Keys;
@@ -20,6 +21,7 @@ import su.nightexpress.excellentjobs.hook.impl.PlaceholderHook;
 import su.nightexpress.excellentjobs.job.JobManager;
 import su.nightexpress.excellentjobs.job.work.WorkRegistry;
 import su.nightexpress.excellentjobs.stats.StatsManager;
+import su.nightexpress.excellentjobs.sync.SyncManager;
 import su.nightexpress.excellentjobs.user.UserManager;
 import su.nightexpress.excellentjobs.zone.ZoneManager;
 import su.nightexpress.nightcore.NightPlugin;
@@ -35,11 +37,13 @@ public class JobsPlugin extends NightPlugin implements ImprovedCommands {
 
     private DataHandler dataHandler;
     private UserManager userManager;
+    private SyncManager syncManager;
 
     private BoosterManager  boosterManager;
     private JobManager      jobManager;
     private ZoneManager     zoneManager;
     private StatsManager    statsManager;
+    private BulkManager     bulkManager;
 
     @Override
     @NotNull
@@ -68,6 +72,9 @@ public class JobsPlugin extends NightPlugin implements ImprovedCommands {
         this.dataHandler = new DataHandler(this);
         this.dataHandler.setup();
 
+        this.syncManager = new SyncManager(this);
+        this.syncManager.setup();
+
         this.userManager = new UserManager(this, this.dataHandler);
         this.userManager.setup();
 
@@ -89,6 +96,9 @@ public class JobsPlugin extends NightPlugin implements ImprovedCommands {
             this.boosterManager.setup();
         }
 
+        this.bulkManager = new BulkManager(this);
+        this.bulkManager.setup();
+
         if (Config.ABUSE_TRACK_PLAYER_BLOCKS.get()) {
             PlayerBlockTracker.initialize();
             PlayerBlockTracker.BLOCK_FILTERS.add(block -> true);
@@ -104,12 +114,15 @@ public class JobsPlugin extends NightPlugin implements ImprovedCommands {
         if (Plugins.hasPlaceholderAPI()) {
             PlaceholderHook.shutdown();
         }
+        if (this.bulkManager != null) this.bulkManager.shutdown();
         if (this.boosterManager != null) this.boosterManager.shutdown();
         if (this.zoneManager != null) this.zoneManager.shutdown();
         if (this.statsManager != null) this.statsManager.shutdown();
         if (this.jobManager != null) this.jobManager.shutdown();
 
         this.userManager.shutdown();
+        if (this.statsManager != null) this.statsManager.saveShutdownSnapshot();
+        this.syncManager.shutdown();
         this.dataHandler.shutdown();
 
         WorkRegistry.clear();
@@ -144,6 +157,11 @@ public class JobsPlugin extends NightPlugin implements ImprovedCommands {
         return this.userManager;
     }
 
+    @NotNull
+    public SyncManager getSyncManager() {
+        return this.syncManager;
+    }
+
     @Nullable
     public BoosterManager getBoosterManager() {
         return this.boosterManager;
@@ -163,4 +181,9 @@ public class JobsPlugin extends NightPlugin implements ImprovedCommands {
     public StatsManager getStatsManager() {
         return this.statsManager;
     }
-}
\ No newline at end of file
+
+    @NotNull
+    public BulkManager getBulkManager() {
+        return this.bulkManager;
+    }
+}
@@ -113,6 +113,7 @@ public class Placeholders extends su.nightexpress.nightcore.util.Placeholders {
     public static final String BLOCK_LIST_FALLBACK_MATERIAL = "%blocklist_fallback_material%";
     public static final String BLOCK_LIST_RESET_TIME        = "%blocklist_reset_time%";
     public static final String BLOCK_LIST_DROP_ITEMS        = "%blocklist_drop_items%";
+    public static final String BLOCK_LIST_RESET_MODE        = "%blocklist_reset_mode%";
 
     public static final String BOOSTER_TIME_LEFT         = "%booster_timeleft%";
 
@@ -230,5 +231,6 @@ public class Placeholders extends su.nightexpress.nightcore.util.Placeholders {
             String yesNo = Lang.getYesOrNo(blockList.isDropItems());
             return blockList.isDropItems() ? Lang.goodEntry(yesNo) : Lang.badEntry(yesNo);
         })
+        .add(BLOCK_LIST_RESET_MODE, blockList -> Lang.goodEntry(StringUtil.capitalizeFully(blockList.getResetMode().name())))
     );
 }
@@ -84,7 +84,8 @@ public class BoosterManager extends AbstractManager<JobsPlugin> {
 
     private void tickPersonal() {
         Players.getOnline().forEach(player -> {
-            JobUser user = plugin.getUserManager().getOrFetch(player);
+            JobUser user = plugin.getUserManager().getIfLoaded(player);
+            if (user == null) return;
 
             user.getBoosterMap().forEach((jobId, booster) -> {
                 if (!booster.isExpired()) return;
@@ -129,8 +130,8 @@ public class BoosterManager extends AbstractManager<JobsPlugin> {
     }
 
     public double getPersonalBoost(@NotNull Player player, @NotNull Job job, @NotNull MultiplierType type) {
-        JobUser user = plugin.getUserManager().getOrFetch(player);
-        return this.getBoosterValue(user.getBooster(job), type);
+        JobUser user = plugin.getUserManager().getIfLoaded(player);
+        return this.getBoosterValue(user == null ? null : user.getBooster(job), type);
     }
 
     public double getTotalBoostPercent(@NotNull Player player, @NotNull Job job, @NotNull MultiplierType multiplierType) {
@@ -160,8 +161,8 @@ public class BoosterManager extends AbstractManager<JobsPlugin> {
     public long getBoosterExpireDate(@NotNull Player player, @NotNull Job job, @NotNull BoosterType type) {
         return switch (type) {
             case PERSONAL -> {
-                JobUser user = plugin.getUserManager().getOrFetch(player);
-                Booster booster = user.getBooster(job);
+                JobUser user = plugin.getUserManager().getIfLoaded(player);
+                Booster booster = user == null ? null : user.getBooster(job);
                 yield booster == null ? 0L : booster.getExpireDate();
             }
             case GLOBAL -> this.hasGlobalBoost() ? this.globalBooster.getExpireDate() : 0L;
@@ -189,13 +190,22 @@ public class BoosterManager extends AbstractManager<JobsPlugin> {
     }
 
     public boolean setGlobalBooster(@NotNull Booster booster) {
-        this.globalBooster = booster;
-        this.notifyGlobalBooster(booster);
+        this.applyGlobalBooster(booster);
+        this.plugin.getSyncManager().publishGlobalBooster(booster);
         return true;
     }
 
     public void removeGlobalBooster() {
-        this.globalBooster = null;
+        this.applyGlobalBooster(null);
+        this.plugin.getSyncManager().publishGlobalBooster(null);
+    }
+
+    /**
+     * Sets global booster without notifying other servers, used for changes received from them.
+     */
+    public void applyGlobalBooster(@Nullable Booster booster) {
+        this.globalBooster = booster;
+        if (booster != null) this.notifyGlobalBooster(booster);
     }
 
     public void notifyGlobalBooster(@NotNull Booster booster) {
@@ -0,0 +1,518 @@
+package su.nightexpress.excellentjobs.bulk;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import su.nightexpress.excellentjobs.JobsPlugin;
+import su.nightexpress.excellentjobs.bulk.command.BulkCommands;
+import su.nightexpress.excellentjobs.bulk.impl.*;
+import su.nightexpress.excellentjobs.bulk.listener.BulkListener;
+import su.nightexpress.excellentjobs.config.Config;
+import su.nightexpress.excellentjobs.data.DataHandler;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.data.impl.JobProgress;
+import su.nightexpress.excellentjobs.job.impl.Job;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+import su.nightexpress.excellentjobs.stats.StatsManager;
+import su.nightexpress.excellentjobs.user.JobUser;
+import su.nightexpress.nightcore.config.FileConfig;
+import su.nightexpress.nightcore.manager.AbstractManager;
+import su.nightexpress.nightcore.util.NumberUtil;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Runs operations over all users in the database: users are read in pages ordered by id, pages are processed by a pool of workers
+ * and each page is written back in a single transaction. Progress is stored in a file, so an interrupted run can be resumed.
+ * Users loaded on this server are processed in memory on the main thread and saved the usual way.
+ */
+public class BulkManager extends AbstractManager<JobsPlugin> {
+
+    public static final String FILE_NAME = "bulk.yml";
+
+    private static final int  WRITE_ATTEMPTS    = 3;
+    private static final long SAVE_INTERVAL     = 5_000L;
+    private static final long REPORT_INTERVAL   = 10_000L;
+    private static final long MAIN_TASK_TIMEOUT = 30L;
+    private static final long SHUTDOWN_TIMEOUT  = 30L;
+
+    private final Set<UUID> pendingRewards;
+
+    private volatile BulkTask        task;
+    private volatile ExecutorService executor;
+
+    private long lastSave;
+    private long lastReport;
+
+    public BulkManager(@NotNull JobsPlugin plugin) {
+        super(plugin);
+        this.pendingRewards = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    protected void onLoad() {
+        FileConfig config = this.getConfig();
+        config.getStringList("Pending_Rewards").forEach(string -> {
+            try {
+                this.pendingRewards.add(UUID.fromString(string));
+            }
+            catch (IllegalArgumentException ignored) {}
+        });
+
+        String operationId = config.getString("Task.Operation");
+        if (operationId != null) {
+            this.plugin.warn("Bulk operation '" + operationId + "' was interrupted after " + config.getLong("Task.Processed") + " users. Use '/jobs admin bulk resume' to continue it.");
+        }
+
+        BulkCommands.load(this.plugin, this);
+        this.addListener(new BulkListener(this.plugin, this));
+    }
+
+    @Override
+    protected void onShutdown() {
+        BulkTask task = this.task;
+        if (task != null) {
+            task.cancel();
+            this.awaitPages();
+            this.saveState(task);
+        }
+        else this.savePending();
+
+        BulkCommands.unload(this.plugin);
+    }
+
+    /**
+     * Waits for pages in progress, so the saved cursor covers them and they are not applied again on resume.
+     */
+    private void awaitPages() {
+        ExecutorService executor = this.executor;
+        if (executor == null) return;
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                this.plugin.warn("Bulk operation pages were not completed in " + SHUTDOWN_TIMEOUT + " seconds. They will be processed again on resume.");
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @NotNull
+    private FileConfig getConfig() {
+        return new FileConfig(new File(this.plugin.getDataFolder(), FILE_NAME));
+    }
+
+    /**
+     * Writes progress of the task, so it can be resumed. Users waiting for level rewards are written along with it.
+     */
+    private synchronized void saveState(@NotNull BulkTask task) {
+        FileConfig config = this.getConfig();
+        config.remove("Task");
+        if (task.getOperation().isResumable()) {
+            config.set("Task.Operation", task.getOperation().getId());
+            config.set("Task.Cursor", task.getCursor());
+            config.set("Task.Processed", task.getProcessed());
+            config.set("Task.Changed", task.getChanged());
+            config.set("Task.Failed", task.getFailed());
+            config.set("Task.Applied", task.getAppliedAhead().stream().map(UUID::toString).toList());
+        }
+        this.writePending(config);
+        this.lastSave = System.currentTimeMillis();
+    }
+
+    private synchronized void clearState() {
+        FileConfig config = this.getConfig();
+        config.remove("Task");
+        this.writePending(config);
+    }
+
+    private synchronized void savePending() {
+        this.writePending(this.getConfig());
+    }
+
+    private void writePending(@NotNull FileConfig config) {
+        config.set("Pending_Rewards", this.pendingRewards.stream().map(UUID::toString).toList());
+        config.saveChanges();
+    }
+
+    /**
+     * @return Current task, or null if no operation is running.
+     */
+    @Nullable
+    public BulkTask getTask() {
+        return this.task;
+    }
+
+    /**
+     * @return Operation id of an interrupted run that can be resumed, or null if there is none.
+     */
+    @Nullable
+    public String getInterruptedId() {
+        return this.task == null ? this.getConfig().getString("Task.Operation") : null;
+    }
+
+    /**
+     * Creates an operation from its id, e.g. 'reset:miner'.
+     * @return Operation, or null if there is no such operation or its job is invalid.
+     */
+    @Nullable
+    public BulkOperation createOperation(@NotNull String id) {
+        String[] split = id.split(":", 2);
+        String type = split[0].toLowerCase();
+        String argument = split.length > 1 ? split[1] : null;
+
+        StatsManager statsManager = this.plugin.getStatsManager();
+
+        return switch (type) {
+            case ResetJobOperation.ID -> {
+                Job job = argument == null ? null : this.plugin.getJobManager().getJobById(argument);
+                yield job == null ? null : new ResetJobOperation(job);
+            }
+            case RemoveJobOperation.ID -> argument == null ? null : new RemoveJobOperation(argument, () -> {
+                if (statsManager != null) statsManager.reconcileEmployees();
+            });
+            case GrantRewardsOperation.ID -> new GrantRewardsOperation(this.plugin.getJobManager(), this.pendingRewards::add);
+            case RecountEmployeesOperation.ID -> new RecountEmployeesOperation(this.plugin.getJobManager());
+            default -> null;
+        };
+    }
+
+    /**
+     * Starts the operation over all users.
+     * @param listener Called with the task on progress reports and once it's completed, from a bulk thread.
+     * @return Future completed with the task once all users were processed, or null if another operation is running.
+     */
+    @Nullable
+    public CompletableFuture<BulkTask> start(@NotNull BulkOperation operation, @Nullable Consumer<BulkTask> listener) {
+        return this.start(new BulkTask(operation, "", 0L, 0L, 0L), listener);
+    }
+
+    /**
+     * Continues an interrupted run from the last processed user.
+     * @return Future completed with the task once all users were processed, or null if there is nothing to resume or another operation is running.
+     */
+    @Nullable
+    public CompletableFuture<BulkTask> resume(@Nullable Consumer<BulkTask> listener) {
+        if (this.task != null) return null;
+
+        FileConfig config = this.getConfig();
+        String operationId = config.getString("Task.Operation");
+        if (operationId == null) return null;
+
+        BulkOperation operation = this.createOperation(operationId);
+        if (operation == null) {
+            this.plugin.warn("Could not resume bulk operation '" + operationId + "': Invalid operation or job.");
+            return null;
+        }
+
+        Set<UUID> applied = new HashSet<>();
+        config.getStringList("Task.Applied").forEach(string -> {
+            try {
+                applied.add(UUID.fromString(string));
+            }
+            catch (IllegalArgumentException ignored) {}
+        });
+
+        String cursor = config.getString("Task.Cursor", "");
+        return this.start(new BulkTask(operation, cursor, config.getLong("Task.Processed"), config.getLong("Task.Changed"), config.getLong("Task.Failed"), applied), listener);
+    }
+
+    /**
+     * Stops the current run after pages in progress. It can be resumed later.
+     * @return True if an operation was running.
+     */
+    public boolean cancel() {
+        BulkTask task = this.task;
+        if (task == null) return false;
+
+        task.cancel();
+        return true;
+    }
+
+    @Nullable
+    private synchronized CompletableFuture<BulkTask> start(@NotNull BulkTask task, @Nullable Consumer<BulkTask> listener) {
+        if (this.task != null) return null;
+
+        this.task = task;
+        this.saveState(task);
+
+        CompletableFuture<BulkTask> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                this.run(task, listener);
+                future.complete(task);
+            }
+            catch (Exception exception) {
+                this.saveState(task);
+                this.plugin.error("Bulk operation '" + task.getOperation().getId() + "' failed! Use '/jobs admin bulk resume' to continue it.");
+                exception.printStackTrace();
+                future.completeExceptionally(exception);
+            }
+            finally {
+                this.task = null;
+            }
+        }, "ExcellentJobs-Bulk");
+        thread.setDaemon(true);
+        thread.start();
+
+        return future;
+    }
+
+    private void run(@NotNull BulkTask task, @Nullable Consumer<BulkTask> listener) throws Exception {
+        BulkOperation operation = task.getOperation();
+        DataHandler dataHandler = this.plugin.getDataHandler();
+
+        this.plugin.info("Bulk operation '" + operation.getId() + "' started.");
+
+        // Loaded users are changed in memory, so their next save does not overwrite the result.
+        CompletableFuture<Set<UUID>> loadedFuture = new CompletableFuture<>();
+        this.plugin.runTask(scheduled -> {
+            try {
+                loadedFuture.complete(this.applyLoaded(task));
+            }
+            catch (RuntimeException exception) {
+                loadedFuture.completeExceptionally(exception);
+            }
+        });
+        Set<UUID> loadedIds = loadedFuture.get(MAIN_TASK_TIMEOUT, TimeUnit.SECONDS);
+        this.saveState(task);
+
+        int pageSize = Math.max(1, Config.DATA_BULK_PAGE_SIZE.get());
+        int workers = Math.max(1, Config.DATA_BULK_WORKERS.get());
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        this.executor = executor;
+        Semaphore permits = new Semaphore(workers * 2);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            String cursor = task.getCursor();
+            int pageIndex = 0;
+
+            while (!task.isCancelled()) {
+                permits.acquire();
+
+                List<BulkUser> page;
+                try {
+                    page = dataHandler.readBulkPage(cursor, pageSize);
+                }
+                catch (SQLException exception) {
+                    permits.release();
+                    throw exception;
+                }
+
+                if (page.isEmpty()) {
+                    permits.release();
+                    break;
+                }
+
+                int index = pageIndex++;
+                String lastId = page.get(page.size() - 1).getId().toString();
+                cursor = lastId;
+
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            this.processPage(task, page, loadedIds);
+                            task.completePage(index, lastId);
+                            this.report(task, listener, false);
+                        }
+                        finally {
+                            permits.release();
+                        }
+                        return null;
+                    }));
+                }
+                catch (RejectedExecutionException exception) {
+                    // Executor is shut down on plugin disable.
+                    permits.release();
+                    if (task.isCancelled()) break;
+                    throw exception;
+                }
+                this.checkPages(futures);
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+            this.executor = null;
+        }
+
+        if (task.isCancelled()) {
+            this.saveState(task);
+            this.plugin.info("Bulk operation '" + operation.getId() + "' stopped after " + task.getProcessed() + " users.");
+            return;
+        }
+
+        operation.complete();
+        this.clearState();
+        this.report(task, listener, true);
+    }
+
+    /**
+     * Removes completed pages and stops the run if any of them failed.
+     */
+    private void checkPages(@NotNull List<Future<?>> futures) throws Exception {
+        Iterator<Future<?>> iterator = futures.iterator();
+        while (iterator.hasNext()) {
+            Future<?> future = iterator.next();
+            if (!future.isDone()) continue;
+
+            future.get();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Applies the operation to loaded users that were not processed yet: users behind the cursor of a resumed run were
+     * processed by its pages, and users applied in memory by it are stored along with the cursor.
+     * @return Ids of users the pages must skip.
+     */
+    @NotNull
+    private Set<UUID> applyLoaded(@NotNull BulkTask task) {
+        BulkOperation operation = task.getOperation();
+        StatsManager statsManager = this.plugin.getStatsManager();
+        Map<UUID, Set<String>> removed = new HashMap<>();
+        Set<UUID> loadedIds = new HashSet<>();
+
+        for (JobUser user : this.plugin.getUserManager().getLoaded()) {
+            loadedIds.add(user.getId());
+            if (task.isBehindCursor(user.getId()) || task.isApplied(user.getId())) continue;
+
+            task.addApplied(user.getId());
+            BulkUser bulkUser = new BulkUser(user);
+            if (operation.apply(bulkUser)) {
+                if (!bulkUser.getRemovedJobs().isEmpty()) {
+                    user.setDataChanged(true);
+                    removed.put(user.getId(), bulkUser.getRemovedJobs());
+                }
+                this.plugin.getUserManager().save(user);
+                if (statsManager != null) statsManager.updateLeaderboards(user);
+                task.addChanged(1);
+            }
+            task.addProcessed(1);
+        }
+
+        if (!removed.isEmpty()) {
+            this.plugin.runTaskAsync(scheduled -> {
+                try {
+                    this.plugin.getDataHandler().deleteBulkProgress(removed);
+                }
+                catch (SQLException exception) {
+                    exception.printStackTrace();
+                }
+            });
+        }
+
+        loadedIds.addAll(task.getAppliedAhead());
+        return loadedIds;
+    }
+
+    private void processPage(@NotNull BulkTask task, @NotNull List<BulkUser> page, @NotNull Set<UUID> loadedIds) throws SQLException {
+        BulkOperation operation = task.getOperation();
+        DataHandler dataHandler = this.plugin.getDataHandler();
+
+        List<BulkUser> users = new ArrayList<>(page);
+        users.removeIf(user -> loadedIds.contains(user.getId()));
+        task.addProcessed(users.size());
+
+        for (int attempt = 1; attempt <= WRITE_ATTEMPTS && !users.isEmpty(); attempt++) {
+            List<BulkUser> changed = new ArrayList<>();
+            for (BulkUser user : users) {
+                try {
+                    if (operation.apply(user)) changed.add(user);
+                }
+                catch (RuntimeException exception) {
+                    this.plugin.warn("Bulk operation '" + operation.getId() + "' failed for user " + user.getId() + ": " + exception.getMessage());
+                    task.addFailed(1);
+                }
+            }
+            if (changed.isEmpty()) return;
+
+            Set<UUID> conflicts = dataHandler.writeBulkUsers(changed);
+            changed.removeIf(user -> conflicts.contains(user.getId()));
+            changed.forEach(this::publish);
+            task.addChanged(changed.size());
+
+            if (conflicts.isEmpty()) return;
+
+            // Rows were written by another server meanwhile, read them again and apply on top.
+            if (attempt == WRITE_ATTEMPTS) {
+                this.plugin.warn("Bulk operation '" + operation.getId() + "' could not write " + conflicts.size() + " users changed by another server.");
+                task.addFailed(conflicts.size());
+                return;
+            }
+            users = dataHandler.readBulkUsers(conflicts);
+        }
+    }
+
+    /**
+     * Updates local leaderboards and notifies other servers about the written user.
+     */
+    private void publish(@NotNull BulkUser user) {
+        StatsManager statsManager = this.plugin.getStatsManager();
+        Set<String> jobIds = new HashSet<>(user.getRemovedJobs());
+
+        user.getDecodedJobs().forEach((jobId, data) -> {
+            if (!data.isChanged()) return;
+
+            jobIds.add(jobId);
+            if (statsManager != null) statsManager.updateLevelBoard(toProgress(user, data));
+            this.plugin.getSyncManager().publishLevel(user.getId(), user.getName(), data);
+        });
+
+        if (statsManager != null) {
+            user.getRemovedJobs().forEach(jobId -> statsManager.updateLevelBoard(new JobProgress(user.getId(), user.getName(), jobId, JobState.INACTIVE, 0, 0, 0L)));
+        }
+
+        this.plugin.getSyncManager().publishUser(user.getId(), jobIds, false);
+    }
+
+    @NotNull
+    private static JobProgress toProgress(@NotNull BulkUser user, @NotNull JobData data) {
+        return new JobProgress(user.getId(), user.getName(), data.getJob().getId(), data.getState(), data.getLevel(), data.getXP(), data.getLevelDate());
+    }
+
+    private void report(@NotNull BulkTask task, @Nullable Consumer<BulkTask> listener, boolean done) {
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            if (!done && now - this.lastSave >= SAVE_INTERVAL && task.pollDirty()) {
+                this.saveState(task);
+            }
+            if (!done && now - this.lastReport < REPORT_INTERVAL) return;
+            this.lastReport = now;
+        }
+
+        String state = done ? "completed" : "in progress";
+        this.plugin.info("Bulk operation '" + task.getOperation().getId() + "' " + state + ": " + task.getProcessed() + " processed, "
+            + task.getChanged() + " changed, " + task.getFailed() + " failed, " + NumberUtil.format((now - task.getStartDate()) / 1000D) + " s.");
+
+        if (listener != null) listener.accept(task);
+    }
+
+    /**
+     * Gives level rewards the player was queued for by a bulk operation while offline.
+     */
+    public void grantPendingRewards(@NotNull Player player, @NotNull JobUser user) {
+        if (!this.pendingRewards.remove(player.getUniqueId())) return;
+
+        boolean granted = false;
+        for (JobData data : user.getDatas()) {
+            if (data.getState() == JobState.INACTIVE) continue;
+
+            granted |= this.plugin.getJobManager().grantMissedRewards(player, data);
+        }
+
+        if (granted) this.plugin.getUserManager().save(user);
+        this.plugin.runTaskAsync(scheduled -> this.savePending());
+    }
+}
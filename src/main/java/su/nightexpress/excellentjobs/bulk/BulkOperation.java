@@ -0,0 +1,35 @@
+package su.nightexpress.excellentjobs.bulk;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.bulk.impl.BulkUser;
+
+/**
+ * Operation applied to every user in the database by {@link BulkManager}.
+ */
+public interface BulkOperation {
+
+    /**
+     * @return Operation id with its argument, e.g. 'reset:miner'. Stored to resume an interrupted run.
+     */
+    @NotNull String getId();
+
+    /**
+     * Applies the operation to a user. Called from worker threads for stored users, and on the main thread for users loaded on this server.
+     * @return True if job data was changed and must be written.
+     */
+    boolean apply(@NotNull BulkUser user);
+
+    /**
+     * @return True if an interrupted run can continue from the last processed user instead of starting over.
+     */
+    default boolean isResumable() {
+        return true;
+    }
+
+    /**
+     * Called once all users were processed.
+     */
+    default void complete() {
+
+    }
+}
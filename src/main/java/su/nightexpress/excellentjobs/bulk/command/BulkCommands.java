@@ -0,0 +1,130 @@
+package su.nightexpress.excellentjobs.bulk.command;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.JobsPlugin;
+import su.nightexpress.excellentjobs.Placeholders;
+import su.nightexpress.excellentjobs.bulk.BulkManager;
+import su.nightexpress.excellentjobs.bulk.BulkOperation;
+import su.nightexpress.excellentjobs.bulk.impl.*;
+import su.nightexpress.excellentjobs.command.CommandArguments;
+import su.nightexpress.excellentjobs.config.Lang;
+import su.nightexpress.excellentjobs.config.Perms;
+import su.nightexpress.nightcore.command.experimental.CommandContext;
+import su.nightexpress.nightcore.command.experimental.argument.ArgumentTypes;
+import su.nightexpress.nightcore.command.experimental.argument.ParsedArguments;
+import su.nightexpress.nightcore.command.experimental.node.ChainedNode;
+import su.nightexpress.nightcore.language.entry.LangText;
+import su.nightexpress.nightcore.util.Lists;
+import su.nightexpress.nightcore.util.NumberUtil;
+
+import java.util.concurrent.CompletableFuture;
+
+public class BulkCommands {
+
+    private static final String ALIAS_ADMIN = "admin";
+
+    private static final String STATUS = "status";
+    private static final String RESUME = "resume";
+    private static final String CANCEL = "cancel";
+
+    public static void load(@NotNull JobsPlugin plugin, @NotNull BulkManager manager) {
+        ChainedNode root = plugin.getRootNode();
+
+        root.addChildren(ChainedNode.builder(plugin, ALIAS_ADMIN)
+            .description(Lang.COMMAND_ADMIN_DESC)
+            .permission(Perms.COMMAND_ADMIN)
+            .addDirect("bulk", builder -> builder
+                .description(Lang.COMMAND_ADMIN_BULK_DESC)
+                .withArgument(ArgumentTypes.string(CommandArguments.OPERATION)
+                    .required()
+                    .localized(Lang.COMMAND_ARGUMENT_NAME_OPERATION)
+                    .withSamples(tabContext -> Lists.newList(ResetJobOperation.ID, RemoveJobOperation.ID, GrantRewardsOperation.ID,
+                        RecountEmployeesOperation.ID, STATUS, RESUME, CANCEL)))
+                .withArgument(ArgumentTypes.string(CommandArguments.JOB)
+                    .localized(Lang.COMMAND_ARGUMENT_NAME_JOB)
+                    .withSamples(tabContext -> plugin.getJobManager().getJobIds()))
+                .executes((context, arguments) -> runBulk(plugin, manager, context, arguments))
+            )
+        );
+    }
+
+    public static void unload(@NotNull JobsPlugin plugin) {
+        ChainedNode root = plugin.getRootNode();
+
+        root.removeChildren(ALIAS_ADMIN);
+    }
+
+    private static boolean runBulk(@NotNull JobsPlugin plugin, @NotNull BulkManager manager, @NotNull CommandContext context, @NotNull ParsedArguments arguments) {
+        String operationName = arguments.getStringArgument(CommandArguments.OPERATION).toLowerCase();
+
+        switch (operationName) {
+            case STATUS -> {
+                BulkTask task = manager.getTask();
+                if (task == null) {
+                    context.send(Lang.ERROR_BULK_NOTHING, replacer -> replacer.replace(Placeholders.GENERIC_TYPE, STATUS));
+                    return false;
+                }
+                sendProgress(context, Lang.COMMAND_ADMIN_BULK_STATUS, task);
+                return true;
+            }
+            case CANCEL -> {
+                BulkTask task = manager.getTask();
+                if (task == null || !manager.cancel()) {
+                    context.send(Lang.ERROR_BULK_NOTHING, replacer -> replacer.replace(Placeholders.GENERIC_TYPE, CANCEL));
+                    return false;
+                }
+                context.send(Lang.COMMAND_ADMIN_BULK_CANCEL, replacer -> replacer.replace(Placeholders.GENERIC_NAME, task.getOperation().getId()));
+                return true;
+            }
+            case RESUME -> {
+                if (isRunning(manager, context)) return false;
+
+                String operationId = manager.getInterruptedId();
+                CompletableFuture<BulkTask> future = operationId == null ? null : manager.resume(null);
+                if (future == null) {
+                    context.send(Lang.ERROR_BULK_NOTHING, replacer -> replacer.replace(Placeholders.GENERIC_TYPE, RESUME));
+                    return false;
+                }
+
+                context.send(Lang.COMMAND_ADMIN_BULK_START, replacer -> replacer.replace(Placeholders.GENERIC_NAME, operationId));
+                future.thenAccept(task -> sendProgress(context, Lang.COMMAND_ADMIN_BULK_DONE, task));
+                return true;
+            }
+        }
+
+        if (isRunning(manager, context)) return false;
+
+        String jobId = arguments.getStringArgument(CommandArguments.JOB, "");
+        String operationId = jobId.isEmpty() ? operationName : operationName + ":" + jobId;
+
+        BulkOperation operation = manager.createOperation(operationId);
+        if (operation == null) {
+            context.send(Lang.ERROR_COMMAND_INVALID_OPERATION_ARGUMENT, replacer -> replacer.replace(Placeholders.GENERIC_VALUE, operationId));
+            return false;
+        }
+
+        CompletableFuture<BulkTask> future = manager.start(operation, null);
+        if (future == null) return false;
+
+        context.send(Lang.COMMAND_ADMIN_BULK_START, replacer -> replacer.replace(Placeholders.GENERIC_NAME, operation.getId()));
+        future.thenAccept(task -> sendProgress(context, Lang.COMMAND_ADMIN_BULK_DONE, task));
+        return true;
+    }
+
+    private static boolean isRunning(@NotNull BulkManager manager, @NotNull CommandContext context) {
+        BulkTask task = manager.getTask();
+        if (task == null) return false;
+
+        context.send(Lang.ERROR_BULK_RUNNING, replacer -> replacer.replace(Placeholders.GENERIC_NAME, task.getOperation().getId()));
+        return true;
+    }
+
+    private static void sendProgress(@NotNull CommandContext context, @NotNull LangText text, @NotNull BulkTask task) {
+        context.send(text, replacer -> replacer
+            .replace(Placeholders.GENERIC_NAME, task.getOperation().getId())
+            .replace(Placeholders.GENERIC_AMOUNT, NumberUtil.format(task.getProcessed()))
+            .replace(Placeholders.GENERIC_CURRENT, NumberUtil.format(task.getChanged()))
+            .replace(Placeholders.GENERIC_MAX, NumberUtil.format(task.getFailed()))
+        );
+    }
+}
@@ -0,0 +1,146 @@
+package su.nightexpress.excellentjobs.bulk.impl;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.bulk.BulkOperation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a bulk operation run. Pages are processed in parallel, so the cursor moves only past pages
+ * that are completed along with all pages before them.
+ */
+public class BulkTask {
+
+    private final BulkOperation operation;
+    private final long          startDate;
+    private final AtomicLong    processed;
+    private final AtomicLong    changed;
+    private final AtomicLong    failed;
+
+    private final Map<Integer, String> completedPages;
+    private final Set<UUID>            appliedLoaded;
+
+    private String  cursor;
+    private int     nextPage;
+    private boolean dirty;
+
+    private volatile boolean cancelled;
+
+    public BulkTask(@NotNull BulkOperation operation, @NotNull String cursor, long processed, long changed, long failed) {
+        this(operation, cursor, processed, changed, failed, Collections.emptySet());
+    }
+
+    public BulkTask(@NotNull BulkOperation operation, @NotNull String cursor, long processed, long changed, long failed, @NotNull Set<UUID> appliedLoaded) {
+        this.operation = operation;
+        this.startDate = System.currentTimeMillis();
+        this.cursor = cursor;
+        this.processed = new AtomicLong(processed);
+        this.changed = new AtomicLong(changed);
+        this.failed = new AtomicLong(failed);
+        this.completedPages = new TreeMap<>();
+        this.appliedLoaded = ConcurrentHashMap.newKeySet();
+        this.appliedLoaded.addAll(appliedLoaded);
+    }
+
+    @NotNull
+    public BulkOperation getOperation() {
+        return this.operation;
+    }
+
+    public long getStartDate() {
+        return this.startDate;
+    }
+
+    /**
+     * @return Id of the last user processed along with all users before it, or empty string if none yet.
+     */
+    @NotNull
+    public synchronized String getCursor() {
+        return this.cursor;
+    }
+
+    /**
+     * Marks the page as completed and moves the cursor past all pages completed in order.
+     */
+    public synchronized void completePage(int index, @NotNull String lastId) {
+        this.completedPages.put(index, lastId);
+        while (this.completedPages.containsKey(this.nextPage)) {
+            this.cursor = this.completedPages.remove(this.nextPage);
+            this.nextPage++;
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * @return True if the user was processed in memory while loaded, so it must be skipped by pages.
+     */
+    public boolean isApplied(@NotNull UUID id) {
+        return this.appliedLoaded.contains(id);
+    }
+
+    public void addApplied(@NotNull UUID id) {
+        this.appliedLoaded.add(id);
+    }
+
+    /**
+     * @return Ids of users processed in memory that are not yet behind the cursor.
+     */
+    @NotNull
+    public synchronized Set<UUID> getAppliedAhead() {
+        Set<UUID> ids = new HashSet<>();
+        this.appliedLoaded.forEach(id -> {
+            if (this.cursor.isEmpty() || id.toString().compareTo(this.cursor) > 0) ids.add(id);
+        });
+        return ids;
+    }
+
+    /**
+     * @return True if the user is behind the cursor, so it was already processed by an earlier run.
+     */
+    public synchronized boolean isBehindCursor(@NotNull UUID id) {
+        return !this.cursor.isEmpty() && id.toString().compareTo(this.cursor) <= 0;
+    }
+
+    /**
+     * @return True if the cursor was moved since the last call.
+     */
+    public synchronized boolean pollDirty() {
+        boolean dirty = this.dirty;
+        this.dirty = false;
+        return dirty;
+    }
+
+    public long getProcessed() {
+        return this.processed.get();
+    }
+
+    public void addProcessed(long amount) {
+        this.processed.addAndGet(amount);
+    }
+
+    public long getChanged() {
+        return this.changed.get();
+    }
+
+    public void addChanged(long amount) {
+        this.changed.addAndGet(amount);
+    }
+
+    public long getFailed() {
+        return this.failed.get();
+    }
+
+    public void addFailed(long amount) {
+        this.failed.addAndGet(amount);
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+}
@@ -0,0 +1,157 @@
+package su.nightexpress.excellentjobs.bulk.impl;
+
+import com.google.gson.JsonElement;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import su.nightexpress.excellentjobs.data.DataHandler;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.data.serialize.CompactJson;
+import su.nightexpress.excellentjobs.job.impl.Job;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+import su.nightexpress.excellentjobs.user.JobUser;
+import su.nightexpress.nightcore.util.StringUtil;
+
+import java.util.*;
+
+/**
+ * Job data of a single user processed by a bulk operation. Stored data is decoded only for jobs the operation asks for,
+ * data of other jobs is written back as it was read.
+ */
+public class BulkUser {
+
+    private final UUID   id;
+    private final String name;
+    private final long   version;
+    private final Player player;
+
+    private final Map<String, JsonElement> storedJobs;
+    private final Map<String, JobData>     decodedJobs;
+    private final Set<String>              removedJobs;
+
+    /**
+     * Wraps data read from the database. Jobs are decoded on first access.
+     */
+    public BulkUser(@NotNull UUID id, @NotNull String name, long version, @NotNull Map<String, JsonElement> storedJobs) {
+        this.id = id;
+        this.name = name;
+        this.version = version;
+        this.player = null;
+        this.storedJobs = storedJobs;
+        this.decodedJobs = new HashMap<>();
+        this.removedJobs = new HashSet<>();
+    }
+
+    /**
+     * Wraps data of a user loaded on this server. Changes are applied to the user directly.
+     */
+    public BulkUser(@NotNull JobUser user) {
+        this.id = user.getId();
+        this.name = user.getName();
+        this.version = user.getVersion();
+        this.player = user.getPlayer();
+        this.storedJobs = new HashMap<>();
+        this.decodedJobs = user.getDataMap();
+        this.removedJobs = new HashSet<>();
+    }
+
+    @NotNull
+    public UUID getId() {
+        return this.id;
+    }
+
+    @NotNull
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return Row version the data was read with.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return Player, if the user is loaded and online on this server.
+     */
+    @Nullable
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * @return Ids of all jobs the user has data for, including jobs that are not loaded on this server.
+     */
+    @NotNull
+    public Set<String> getJobIds() {
+        Set<String> jobIds = new HashSet<>(this.storedJobs.keySet());
+        jobIds.addAll(this.decodedJobs.keySet());
+        return jobIds;
+    }
+
+    /**
+     * @return Job data, or null if the user has no data for the job.
+     */
+    @Nullable
+    public JobData getData(@NotNull Job job) {
+        JobData data = this.decodedJobs.get(job.getId());
+        if (data != null) return data;
+
+        JsonElement element = this.storedJobs.get(job.getId());
+        if (element == null) return null;
+
+        data = DataHandler.GSON.fromJson(element, JobData.class);
+        if (data == null) return null;
+
+        data.setChanged(false);
+        this.decodedJobs.put(job.getId(), data);
+        return data;
+    }
+
+    /**
+     * @return State of the job read without decoding its data, or INACTIVE if the user has no data for it.
+     */
+    @NotNull
+    public JobState getState(@NotNull String jobId) {
+        JobData data = this.decodedJobs.get(jobId);
+        if (data != null) return data.getState();
+
+        JsonElement element = this.storedJobs.get(jobId);
+        if (element == null || !element.isJsonObject()) return JobState.INACTIVE;
+
+        String state = CompactJson.getString(element.getAsJsonObject(), "s", "state");
+        return state == null ? JobState.INACTIVE : StringUtil.getEnum(state, JobState.class).orElse(JobState.INACTIVE);
+    }
+
+    /**
+     * Removes data of the job, which may be not loaded on this server.
+     * @return True if the user had data for the job.
+     */
+    public boolean removeJob(@NotNull String jobId) {
+        boolean stored = this.storedJobs.keySet().removeIf(key -> key.equalsIgnoreCase(jobId));
+        boolean decoded = this.decodedJobs.remove(jobId) != null;
+        if (!stored && !decoded) return false;
+
+        this.removedJobs.add(jobId);
+        return true;
+    }
+
+    /**
+     * @return Data of jobs that were not decoded, by job id.
+     */
+    @NotNull
+    public Map<String, JsonElement> getStoredJobs() {
+        return this.storedJobs;
+    }
+
+    @NotNull
+    public Map<String, JobData> getDecodedJobs() {
+        return this.decodedJobs;
+    }
+
+    @NotNull
+    public Set<String> getRemovedJobs() {
+        return this.removedJobs;
+    }
+}
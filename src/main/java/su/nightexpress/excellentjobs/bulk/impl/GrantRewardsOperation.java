@@ -0,0 +1,65 @@
+package su.nightexpress.excellentjobs.bulk.impl;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.bulk.BulkOperation;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.job.JobManager;
+import su.nightexpress.excellentjobs.job.impl.Job;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Gives level rewards players did not get for levels they have already passed, e.g. rewards added to the config later.
+ * Rewards need an online player, so users that are not online on this server are only queued to get them on next join.
+ */
+public class GrantRewardsOperation implements BulkOperation {
+
+    public static final String ID = "rewards";
+
+    private final JobManager     jobManager;
+    private final Consumer<UUID> queue;
+
+    public GrantRewardsOperation(@NotNull JobManager jobManager, @NotNull Consumer<UUID> queue) {
+        this.jobManager = jobManager;
+        this.queue = queue;
+    }
+
+    @Override
+    @NotNull
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean apply(@NotNull BulkUser user) {
+        Player player = user.getPlayer();
+        boolean granted = false;
+
+        for (Job job : this.jobManager.getJobs()) {
+            if (user.getState(job.getId()) == JobState.INACTIVE) continue;
+
+            JobData data = user.getData(job);
+            if (data == null) continue;
+
+            if (player != null) {
+                granted |= this.jobManager.grantMissedRewards(player, data);
+            }
+            else if (hasMissedRewards(data)) {
+                this.queue.accept(user.getId());
+                return false;
+            }
+        }
+
+        return granted;
+    }
+
+    private static boolean hasMissedRewards(@NotNull JobData data) {
+        for (int level = 1; level <= data.getLevel(); level++) {
+            if (!data.isLevelRewardObtained(level) && !data.getJob().getRewards().getRewards(level).isEmpty()) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package su.nightexpress.excellentjobs.bulk.impl;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.bulk.BulkOperation;
+import su.nightexpress.excellentjobs.job.JobManager;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts active job states of all users and replaces employee counters of jobs with the result.
+ */
+public class RecountEmployeesOperation implements BulkOperation {
+
+    public static final String ID = "employees";
+
+    private final JobManager                                jobManager;
+    private final Map<String, Map<JobState, AtomicInteger>> counts;
+
+    public RecountEmployeesOperation(@NotNull JobManager jobManager) {
+        this.jobManager = jobManager;
+        this.counts = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    @NotNull
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean isResumable() {
+        // Counts of processed users are not stored.
+        return false;
+    }
+
+    @Override
+    public boolean apply(@NotNull BulkUser user) {
+        user.getJobIds().forEach(jobId -> {
+            JobState state = user.getState(jobId);
+            if (state == JobState.INACTIVE) return;
+
+            this.counts.computeIfAbsent(jobId.toLowerCase(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(state, k -> new AtomicInteger()).incrementAndGet();
+        });
+        return false;
+    }
+
+    @Override
+    public void complete() {
+        this.jobManager.getJobs().forEach(job -> {
+            Map<JobState, AtomicInteger> jobCounts = this.counts.getOrDefault(job.getId(), Map.of());
+            for (JobState state : JobState.values()) {
+                if (state == JobState.INACTIVE) continue;
+
+                AtomicInteger count = jobCounts.get(state);
+                job.setEmployeesAmount(state, count == null ? 0 : count.get());
+            }
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package su.nightexpress.excellentjobs.bulk.impl;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.bulk.BulkOperation;
+
+/**
+ * Removes data of the job from all users. Works for jobs that are no longer in the config, since their data is not decoded.
+ */
+public class RemoveJobOperation implements BulkOperation {
+
+    public static final String ID = "remove";
+
+    private final String jobId;
+    private final Runnable onComplete;
+
+    /**
+     * @param onComplete Called when all users were processed, e.g. to recount employees of the job.
+     */
+    public RemoveJobOperation(@NotNull String jobId, @NotNull Runnable onComplete) {
+        this.jobId = jobId.toLowerCase();
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    @NotNull
+    public String getId() {
+        return ID + ":" + this.jobId;
+    }
+
+    @Override
+    public boolean apply(@NotNull BulkUser user) {
+        return user.removeJob(this.jobId);
+    }
+
+    @Override
+    public void complete() {
+        this.onComplete.run();
+    }
+}
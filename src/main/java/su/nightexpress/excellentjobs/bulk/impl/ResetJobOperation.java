@@ -0,0 +1,35 @@
+package su.nightexpress.excellentjobs.bulk.impl;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.bulk.BulkOperation;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.job.impl.Job;
+
+/**
+ * Resets level, XP and special order of the job, the same way the reset command does.
+ */
+public class ResetJobOperation implements BulkOperation {
+
+    public static final String ID = "reset";
+
+    private final Job job;
+
+    public ResetJobOperation(@NotNull Job job) {
+        this.job = job;
+    }
+
+    @Override
+    @NotNull
+    public String getId() {
+        return ID + ":" + this.job.getId();
+    }
+
+    @Override
+    public boolean apply(@NotNull BulkUser user) {
+        JobData data = user.getData(this.job);
+        if (data == null || data.isDefault()) return false;
+
+        data.reset();
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package su.nightexpress.excellentjobs.bulk.listener;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.JobsPlugin;
+import su.nightexpress.excellentjobs.bulk.BulkManager;
+import su.nightexpress.excellentjobs.user.JobUser;
+import su.nightexpress.nightcore.manager.AbstractListener;
+
+public class BulkListener extends AbstractListener<JobsPlugin> {
+
+    private final BulkManager manager;
+
+    public BulkListener(@NotNull JobsPlugin plugin, @NotNull BulkManager manager) {
+        super(plugin);
+        this.manager = manager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        JobUser user = this.plugin.getUserManager().getIfLoaded(player);
+        if (user == null) return;
+
+        this.manager.grantPendingRewards(player, user);
+    }
+}
@@ -26,6 +26,7 @@ public class CommandArguments {
     public static final String PAGE              = "page";
     public static final String ACTION            = "action";
     public static final String AMOUNT            = "amount";
+    public static final String OPERATION         = "operation";
 
     @NotNull
     public static ArgumentBuilder<Currency> forCurrency(@NotNull JobsPlugin plugin, @NotNull String name) {
@@ -10,9 +10,12 @@ import su.nightexpress.excellentjobs.api.ModifyAction;
 import su.nightexpress.excellentjobs.config.Config;
 import su.nightexpress.excellentjobs.config.Lang;
 import su.nightexpress.excellentjobs.config.Perms;
+import su.nightexpress.excellentjobs.data.DataBenchmark;
 import su.nightexpress.excellentjobs.data.impl.JobData;
 import su.nightexpress.excellentjobs.job.impl.Job;
 import su.nightexpress.excellentjobs.job.impl.JobState;
+import su.nightexpress.excellentjobs.user.FlushMetrics;
+import su.nightexpress.excellentjobs.user.LoadMetrics;
 import su.nightexpress.nightcore.command.experimental.CommandContext;
 import su.nightexpress.nightcore.command.experimental.argument.ArgumentTypes;
 import su.nightexpress.nightcore.command.experimental.argument.ParsedArguments;
@@ -20,6 +23,9 @@ import su.nightexpress.nightcore.command.experimental.impl.ReloadCommand;
 import su.nightexpress.nightcore.command.experimental.node.DirectNode;
 import su.nightexpress.nightcore.language.entry.LangText;
 import su.nightexpress.nightcore.util.Lists;
+import su.nightexpress.nightcore.util.NumberUtil;
+
+import java.util.List;
 
 public class BaseCommands {
 
@@ -28,6 +34,12 @@ public class BaseCommands {
 
         root.addChildren(ReloadCommand.builder(plugin, Perms.COMMAND_RELOAD));
 
+        root.addChildren(DirectNode.builder(plugin, "benchmark")
+            .description(Lang.COMMAND_BENCHMARK_DESC)
+            .permission(Perms.COMMAND_BENCHMARK)
+            .executes((context, arguments) -> runBenchmark(plugin, context))
+        );
+
         var menuNode = DirectNode.builder(plugin, "menu")
             .playerOnly()
             .description(Lang.COMMAND_MENU_DESC)
@@ -116,6 +128,37 @@ public class BaseCommands {
         );
     }
 
+    private static boolean runBenchmark(@NotNull JobsPlugin plugin, @NotNull CommandContext context) {
+        // Job data is copied here, as loaded users are changed on the main thread while the benchmark runs.
+        List<DataBenchmark.Sample> samples = DataBenchmark.copyUsers(plugin.getUserManager().getLoaded());
+
+        plugin.runTaskAsync(task -> {
+            DataBenchmark.Result result = DataBenchmark.run(samples, 50);
+
+            plugin.info("User data benchmark (" + result.users() + " users):");
+            plugin.info("Pretty JSON: " + result.getPrettyBytesPerUser() + " bytes/user, compact JSON: " + result.getCompactBytesPerUser() + " bytes/user, stored: " + result.getEncodedBytesPerUser() + " bytes/user.");
+            plugin.info("Encode: " + result.getEncodeMicrosPerUser() + " us/user, decode: " + result.getDecodeMicrosPerUser() + " us/user.");
+
+            FlushMetrics metrics = plugin.getUserManager().getFlushMetrics();
+            plugin.info("Save flushes: " + metrics.getFlushes() + " (" + metrics.getUsers() + " users), avg. " + NumberUtil.format(metrics.getAverageUsers()) + " users/flush, "
+                + "latency avg. " + NumberUtil.format(metrics.getAverageMillis()) + " ms, max. " + NumberUtil.format(metrics.getMaxMillis()) + " ms, "
+                + "last " + metrics.getLastUsers() + " users in " + NumberUtil.format(metrics.getLastMillis()) + " ms.");
+
+            LoadMetrics loadMetrics = plugin.getUserManager().getLoadMetrics();
+            plugin.info("Blocking fetches on main thread: " + loadMetrics.getBlockingFetches() + ", users not loaded on login: " + loadMetrics.getLoginFailures() + ".");
+
+            context.send(Lang.COMMAND_BENCHMARK_DONE, replacer -> replacer.replace(Placeholders.GENERIC_AMOUNT, NumberUtil.format(result.users())));
+        });
+        return true;
+    }
+
+    /**
+     * @return True if the player is not online on this server, so a single job can be changed in the database without loading the whole user.
+     */
+    private static boolean isOffline(@NotNull JobsPlugin plugin, @NotNull String playerName) {
+        return plugin.getServer().getPlayerExact(playerName) == null;
+    }
+
     private static boolean joinJob(@NotNull JobsPlugin plugin, @NotNull CommandContext context, @NotNull ParsedArguments arguments) {
         Job job = arguments.getArgument(CommandArguments.JOB, Job.class);
         Player player = context.getPlayerOrThrow();
@@ -152,6 +195,22 @@ public class BaseCommands {
         Job job = arguments.getArgument(CommandArguments.JOB, Job.class);
         String playerName = arguments.getStringArgument(CommandArguments.PLAYER, context.getSender().getName());
 
+        if (isOffline(plugin, playerName)) {
+            plugin.getUserManager().updateJobAsync(playerName, job, JobData::reset).thenAccept(update -> {
+                if (update == null) {
+                    context.errorBadPlayer();
+                    return;
+                }
+
+                if (!context.getSender().getName().equalsIgnoreCase(update.userName())) {
+                    context.send(Lang.COMMAND_RESET_DONE, replacer -> replacer
+                        .replace(update.data().replaceAllPlaceholders())
+                        .replace(Placeholders.PLAYER_NAME, update.userName()));
+                }
+            });
+            return true;
+        }
+
         plugin.getUserManager().manageUser(playerName, user -> {
             if (user == null) {
                 context.errorBadPlayer();
@@ -181,6 +240,26 @@ public class BaseCommands {
         JobState state = arguments.getArgument(CommandArguments.STATE, JobState.class);
         String playerName = arguments.getStringArgument(CommandArguments.PLAYER);
 
+        if (isOffline(plugin, playerName)) {
+            plugin.getUserManager().updateJobAsync(playerName, job, data -> {
+                data.setState(state);
+                data.normalize();
+            }).thenAccept(update -> {
+                if (update == null) {
+                    context.errorBadPlayer();
+                    return;
+                }
+
+                job.moveEmployee(update.previousState(), state);
+
+                context.send(Lang.COMMAND_SET_STATE_DONE, replacer -> replacer
+                    .replace(Placeholders.GENERIC_STATE, Lang.JOB_STATE.getLocalized(state))
+                    .replace(Placeholders.PLAYER_NAME, update.userName())
+                    .replace(job.replacePlaceholders()));
+            });
+            return true;
+        }
+
         plugin.getUserManager().manageUser(playerName, user -> {
             if (user == null) {
                 context.errorBadPlayer();
@@ -188,6 +267,7 @@ public class BaseCommands {
             }
 
             JobData jobData = user.getData(job);
+            job.moveEmployee(jobData.getState(), state);
             jobData.setState(state);
             jobData.normalize();
             plugin.getUserManager().save(user);
@@ -228,6 +308,35 @@ public class BaseCommands {
 
         if (amount == 0) return false;
 
+        LangText doneMsg = switch (mode) {
+            case ADD -> Lang.COMMAND_LEVEL_ADD_DONE;
+            case REMOVE -> Lang.COMMAND_LEVEL_REMOVE_DONE;
+            case SET -> Lang.COMMAND_LEVEL_SET_DONE;
+        };
+        LangText notifyMsg = switch (mode) {
+            case ADD -> Lang.COMMAND_LEVEL_ADD_NOTIFY;
+            case REMOVE -> Lang.COMMAND_LEVEL_REMOVE_NOTIFY;
+            case SET -> Lang.COMMAND_LEVEL_SET_NOTIFY;
+        };
+
+        if (isOffline(plugin, playerName)) {
+            plugin.getUserManager().updateJobAsync(playerName, job, data -> {
+                data.setLevel(mode.modify(data.getLevel(), amount));
+                data.normalize();
+            }).thenAccept(update -> {
+                if (update == null) {
+                    context.errorBadPlayer();
+                    return;
+                }
+
+                context.send(doneMsg, replacer -> replacer
+                    .replace(update.data().replaceAllPlaceholders())
+                    .replace(Placeholders.PLAYER_NAME, update.userName())
+                    .replace(Placeholders.GENERIC_AMOUNT, amount));
+            });
+            return true;
+        }
+
         plugin.getUserManager().manageUser(playerName, user -> {
             if (user == null) {
                 context.errorBadPlayer();
@@ -250,27 +359,6 @@ public class BaseCommands {
 
             plugin.getUserManager().save(user);
 
-            LangText doneMsg;
-            LangText notifyMsg;
-
-            switch (mode) {
-                case ADD -> {
-                    doneMsg = Lang.COMMAND_LEVEL_ADD_DONE;
-                    notifyMsg = Lang.COMMAND_LEVEL_ADD_NOTIFY;
-                }
-                case REMOVE -> {
-                    doneMsg = Lang.COMMAND_LEVEL_REMOVE_DONE;
-                    notifyMsg = Lang.COMMAND_LEVEL_REMOVE_NOTIFY;
-                }
-                case SET -> {
-                    doneMsg = Lang.COMMAND_LEVEL_SET_DONE;
-                    notifyMsg = Lang.COMMAND_LEVEL_SET_NOTIFY;
-                }
-                default -> {
-                    return;
-                }
-            }
-
             context.send(doneMsg, replacer -> replacer
                 .replace(data.replaceAllPlaceholders())
                 .replace(Placeholders.PLAYER_NAME, user.getName())
@@ -296,6 +384,35 @@ public class BaseCommands {
             return false;
         }
 
+        LangText doneMsg = switch (mode) {
+            case ADD -> Lang.COMMAND_XP_ADD_DONE;
+            case REMOVE -> Lang.COMMAND_XP_REMOVE_DONE;
+            case SET -> Lang.COMMAND_XP_SET_DONE;
+        };
+        LangText notifyMsg = switch (mode) {
+            case ADD -> Lang.COMMAND_XP_ADD_NOTIFY;
+            case REMOVE -> Lang.COMMAND_XP_REMOVE_NOTIFY;
+            case SET -> Lang.COMMAND_XP_SET_NOTIFY;
+        };
+
+        if (isOffline(plugin, playerName)) {
+            plugin.getUserManager().updateJobAsync(playerName, job, data -> {
+                data.setXP(mode.modify(data.getXP(), amount));
+                data.normalize();
+            }).thenAccept(update -> {
+                if (update == null) {
+                    context.errorBadPlayer();
+                    return;
+                }
+
+                context.send(doneMsg, replacer -> replacer
+                    .replace(update.data().replaceAllPlaceholders())
+                    .replace(Placeholders.PLAYER_NAME, update.userName())
+                    .replace(Placeholders.GENERIC_AMOUNT, amount));
+            });
+            return true;
+        }
+
         plugin.getUserManager().manageUser(playerName, user -> {
             if (user == null) {
                 context.errorBadPlayer();
@@ -318,27 +435,6 @@ public class BaseCommands {
 
             plugin.getUserManager().save(user);
 
-            LangText doneMsg;
-            LangText notifyMsg;
-
-            switch (mode) {
-                case ADD -> {
-                    doneMsg = Lang.COMMAND_XP_ADD_DONE;
-                    notifyMsg = Lang.COMMAND_XP_ADD_NOTIFY;
-                }
-                case REMOVE -> {
-                    doneMsg = Lang.COMMAND_XP_REMOVE_DONE;
-                    notifyMsg = Lang.COMMAND_XP_REMOVE_NOTIFY;
-                }
-                case SET -> {
-                    doneMsg = Lang.COMMAND_XP_SET_DONE;
-                    notifyMsg = Lang.COMMAND_XP_SET_NOTIFY;
-                }
-                default -> {
-                    return;
-                }
-            }
-
             context.send(doneMsg, replacer -> replacer
                 .replace(data.replaceAllPlaceholders())
                 .replace(Placeholders.PLAYER_NAME, user.getName())
@@ -9,6 +9,8 @@ import org.jetbrains.annotations.NotNull;
 import su.nightexpress.excellentjobs.Placeholders;
 import su.nightexpress.excellentjobs.job.impl.OrderReward;
 import su.nightexpress.excellentjobs.job.work.WorkId;
+import su.nightexpress.excellentjobs.sync.bus.BusType;
+import su.nightexpress.excellentjobs.user.LoginFailurePolicy;
 import su.nightexpress.excellentjobs.util.JobUtils;
 import su.nightexpress.nightcore.config.ConfigValue;
 import su.nightexpress.nightcore.util.*;
@@ -64,6 +66,91 @@ public class Config {
         "Allowed values: " + StringUtil.inlineEnum(BarStyle.class, ", ")
     );
 
+    public static final ConfigValue<Integer> DATA_COMPRESSION_THRESHOLD = ConfigValue.create("Data.Compression_Threshold",
+        1024,
+        "Sets min. length (in characters) of user data to store it compressed in the database.",
+        "Set to '-1' to never compress. Existing data is converted on next save."
+    );
+
+    public static final ConfigValue<Integer> DATA_SAVE_FLUSH_INTERVAL = ConfigValue.create("Data.Save.Flush_Interval",
+        1,
+        "Sets how often (in seconds) pending user saves are written to the database.",
+        "Saves made within this window are written together in a single transaction.",
+        "[Default is 1]"
+    );
+
+    public static final ConfigValue<Integer> DATA_SAVE_BATCH_SIZE = ConfigValue.create("Data.Save.Batch_Size",
+        100,
+        "Sets max. amount of users written by a single database statement when saves are flushed.",
+        "[Default is 100]"
+    );
+
+    public static final ConfigValue<Boolean> DATA_PROGRESS_TABLE = ConfigValue.create("Data.Progress_Table",
+        false,
+        "When enabled, job progress is stored in a separate table, one row per player and job,",
+        "so a change in a single job writes one small row instead of all player's jobs.",
+        "Existing data is moved into the table on startup. When disabled again, it's moved back into users table.",
+        "[Default is false]"
+    );
+
+    public static final ConfigValue<LoginFailurePolicy> DATA_LOGIN_FAILURE_POLICY = ConfigValue.create("Data.Login.Failure_Policy",
+        LoginFailurePolicy.class, LoginFailurePolicy.KICK,
+        "Sets what happens when player's data could not be loaded before the player joins.",
+        "KICK - Deny login, so data is never fetched on the main thread or created empty over existing data.",
+        "ALLOW - Let the player in. Data is fetched on first access, blocking the server for a moment.",
+        "[Default is KICK]"
+    );
+
+    public static final ConfigValue<String> DATA_LOGIN_FAILURE_MESSAGE = ConfigValue.create("Data.Login.Failure_Message",
+        LIGHT_RED.enclose("Could not load your jobs data. Please try again in a moment."),
+        "Sets kick message for the KICK failure policy."
+    );
+
+    public static final ConfigValue<Integer> DATA_BULK_PAGE_SIZE = ConfigValue.create("Data.Bulk.Page_Size",
+        500,
+        "Sets amount of users read and written at once by bulk admin operations ('/jobs admin bulk').",
+        "Each page is written back in a single transaction.",
+        "[Default is 500]"
+    );
+
+    public static final ConfigValue<Integer> DATA_BULK_WORKERS = ConfigValue.create("Data.Bulk.Workers",
+        4,
+        "Sets amount of threads processing pages of bulk admin operations in parallel.",
+        "[Default is 4]"
+    );
+
+    public static final ConfigValue<BusType> SYNC_BUS_TYPE = ConfigValue.create("Sync.Bus.Type",
+        BusType.class, BusType.NONE,
+        "Sets how servers sharing the database notify each other about changes in user data, global booster and leaderboards.",
+        "When the bus is connected, changes are applied right away and periodic data sync is skipped.",
+        "NONE - Disabled, periodic sync only.",
+        "LOOPBACK - In-process bus, for single-server setups and tests.",
+        "SOCKET - TCP bus through a broker. One of the servers can host it (see 'Host_Broker').",
+        "[Default is NONE]"
+    );
+
+    public static final ConfigValue<String> SYNC_BUS_HOST = ConfigValue.create("Sync.Bus.Host",
+        "127.0.0.1",
+        "Sets address of the bus broker for the SOCKET bus."
+    );
+
+    public static final ConfigValue<Integer> SYNC_BUS_PORT = ConfigValue.create("Sync.Bus.Port",
+        25590,
+        "Sets port of the bus broker for the SOCKET bus."
+    );
+
+    public static final ConfigValue<Boolean> SYNC_BUS_HOST_BROKER = ConfigValue.create("Sync.Bus.Host_Broker",
+        false,
+        "When enabled, this server runs the bus broker on the address and port above.",
+        "Enable it on one server only. Other servers connect to it."
+    );
+
+    public static final ConfigValue<String> SYNC_BUS_SECRET = ConfigValue.create("Sync.Bus.Secret",
+        "",
+        "Sets secret shared by all servers on the bus. Every message is signed with it, unsigned messages are rejected.",
+        "Must be the same on all servers. Required for the SOCKET bus, use a long random string."
+    );
+
     public static final ConfigValue<String> PLACEHOLDERS_JOBS_DELIMITER = ConfigValue.create("Placeholders.Jobs.Delimiter",
         ", ",
         "Sets delimiter for placeholders listing job name(s)."
@@ -157,6 +244,13 @@ public class Config {
         "Sets how often (in seconds) plugin will attempt to regnerate blocks in job zones."
     );
 
+    public static final ConfigValue<Integer> ZONES_MINE_RESET_BLOCKS_PER_TICK = ConfigValue.create("Zones.MineReset.Blocks_Per_Tick",
+        2000,
+        "Sets how many blocks per tick (in total for all zones) can be processed by block lists in MINE reset mode.",
+        "Larger values will reset mines faster, but may cause lag spikes on big mines.",
+        "[Default is 2000]"
+    );
+
     public static final ConfigValue<Material> ZONES_HIGHLIGHT_BLOCK_CORNER = ConfigValue.create("Zones.Highlighting.CornerBlock",
         Material.class,
         Material.WHITE_STAINED_GLASS,
@@ -267,7 +361,46 @@ public class Config {
         "When disabled, all job statistics including top stats will be unavailable.");
 
     public static final ConfigValue<Integer> STATISTIC_UPDATE_INTERVAL = ConfigValue.create("Statistic.Update_Interval", 600,
-        "Sets how often (in seconds) statistic will be fetched and updated.");
+        "Sets how often (in seconds) leaderboards will be refreshed with progress of online players.",
+        "Leaderboards are loaded once on startup and then updated on level changes, so this is only a safety net.");
+
+    public static final ConfigValue<Integer> STATISTIC_LEADERBOARD_SIZE = ConfigValue.create("Statistic.Leaderboard_Size", 100,
+        "Sets how many top entries of each leaderboard are kept ready for placeholders, menus and '/jobs top' command.");
+
+    public static final ConfigValue<Integer> STATISTIC_EMPLOYEES_RECONCILE_INTERVAL = ConfigValue.create("Statistic.Employees_Reconcile_Interval", 3600,
+        "Sets how often (in seconds) job employee counters will be recounted from the database.",
+        "Counters are updated instantly on job join and leave, so this only fixes changes made outside of the plugin.");
+
+    public static final ConfigValue<Integer> STATISTIC_HISTORY_DAYS = ConfigValue.create("Statistic.History_Days", 30,
+        "Sets how many days of daily stats are loaded for each player on login. At least 30 days are always loaded for monthly leaderboards.",
+        "Older days are fetched when stats menu needs them. All-time stats are summed by the database and always available.");
+
+    public static final ConfigValue<Integer> STATISTIC_SNAPSHOT_INTERVAL = ConfigValue.create("Statistic.Snapshot_Interval", 300,
+        "Sets how often (in seconds) leaderboards and employee counters will be written to a snapshot file.",
+        "Snapshot is also written on shutdown and used on next startup if the database has not changed since then.");
+
+    public static final ConfigValue<Integer> STATISTIC_SAVE_INTERVAL = ConfigValue.create("Statistic.Save_Interval", 60,
+        "Sets how often (in seconds) collected stats will be written to the database in a single batch.",
+        "Stats are also saved when player leaves the server.");
+
+    public static final ConfigValue<Integer> STATISTIC_RETENTION_DAILY_DAYS = ConfigValue.create("Statistic.Retention.Daily_Days", 90,
+        "Sets how many days stats are stored with daily resolution.",
+        "Older days are rolled up into weekly totals. Can not be lower than History_Days or 30 days.",
+        "Set to -1 to keep daily stats forever.");
+
+    public static final ConfigValue<Integer> STATISTIC_RETENTION_WEEKLY_WEEKS = ConfigValue.create("Statistic.Retention.Weekly_Weeks", 52,
+        "Sets how many weeks weekly totals are stored. Older weeks are rolled up into monthly totals.",
+        "Set to -1 to keep weekly totals forever.");
+
+    public static final ConfigValue<Integer> STATISTIC_RETENTION_MONTHLY_MONTHS = ConfigValue.create("Statistic.Retention.Monthly_Months", 24,
+        "Sets how many months monthly totals are stored. Older months are folded into all-time totals.",
+        "Set to -1 to keep monthly totals forever.");
+
+    public static final ConfigValue<Integer> STATISTIC_RETENTION_INTERVAL = ConfigValue.create("Statistic.Retention.Interval", 900,
+        "Sets how often (in seconds) old stats will be compacted in background.");
+
+    public static final ConfigValue<Integer> STATISTIC_RETENTION_ROWS_PER_RUN = ConfigValue.create("Statistic.Retention.Rows_Per_Run", 10000,
+        "Sets max. amount of database rows compacted per run, so a large backlog is processed over several runs.");
 
     public static final ConfigValue<Integer> STATISTIC_ENTRIES_PER_PAGE = ConfigValue.create("Statistic.Entries_Per_Page", 10,
         "Sets how many entries per leaderboard page will be displated.");
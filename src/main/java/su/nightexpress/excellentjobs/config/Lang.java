@@ -28,6 +28,7 @@ public class Lang extends CoreLang {
     public static final LangString COMMAND_ARGUMENT_NAME_DURATION       = LangString.of("Command.Argument.Name.Duration", "duration");
     public static final LangString COMMAND_ARGUMENT_NAME_PAGE           = LangString.of("Command.Argument.Name.Page", "page");
     public static final LangString COMMAND_ARGUMENT_NAME_ACTION         = LangString.of("Command.Argument.Name.Action", "action");
+    public static final LangString COMMAND_ARGUMENT_NAME_OPERATION      = LangString.of("Command.Argument.Name.Operation", "operation");
 
     public static final LangString COMMAND_ZONE_DESC        = LangString.of("Command.Zone.Desc", "Zone commands.");
     public static final LangString COMMAND_ZONE_CREATE_DESC = LangString.of("Command.Zone.Create.Desc", "Create a new zone from selection.");
@@ -44,6 +45,9 @@ public class Lang extends CoreLang {
     public static final LangString COMMAND_SET_STATE_DESC  = LangString.of("Command.SetState.Desc", "Set player's job state.");
     public static final LangString COMMAND_TOP_DESC        = LangString.of("Command.Top.Desc", "List most levelled players.");
     public static final LangString COMMAND_STATS_DESC      = LangString.of("Command.Stats.Desc", "View job stats.");
+    public static final LangString COMMAND_BENCHMARK_DESC  = LangString.of("Command.Benchmark.Desc", "Measure user data encoding and saving.");
+    public static final LangString COMMAND_ADMIN_DESC      = LangString.of("Command.Admin.Desc", "Admin tools.");
+    public static final LangString COMMAND_ADMIN_BULK_DESC = LangString.of("Command.Admin.Bulk.Desc", "Run an operation on all players' data.");
 
     public static final LangString COMMAND_BOOSTS_DESC           = LangString.of("Command.Boosters.Desc", "View all current boosters.");
     public static final LangString COMMAND_BOOSTER_DESC          = LangString.of("Command.Booster.Desc", "Booster management.");
@@ -121,6 +125,23 @@ public class Lang extends CoreLang {
     );
 
 
+    public static final LangText COMMAND_BENCHMARK_DONE = LangText.of("Command.Benchmark.Done",
+        LIGHT_GRAY.wrap("Benchmark completed for " + LIGHT_YELLOW.wrap(GENERIC_AMOUNT) + " loaded user(s). See console for results."));
+
+    public static final LangText COMMAND_ADMIN_BULK_START = LangText.of("Command.Admin.Bulk.Start",
+        LIGHT_GRAY.wrap("Started " + LIGHT_YELLOW.wrap(GENERIC_NAME) + " operation on all players. Progress is logged to console."));
+
+    public static final LangText COMMAND_ADMIN_BULK_STATUS = LangText.of("Command.Admin.Bulk.Status",
+        LIGHT_GRAY.wrap("Operation " + LIGHT_YELLOW.wrap(GENERIC_NAME) + ": " + LIGHT_YELLOW.wrap(GENERIC_AMOUNT) + " processed, "
+            + LIGHT_GREEN.wrap(GENERIC_CURRENT) + " changed, " + LIGHT_RED.wrap(GENERIC_MAX) + " failed."));
+
+    public static final LangText COMMAND_ADMIN_BULK_DONE = LangText.of("Command.Admin.Bulk.Done",
+        LIGHT_GRAY.wrap("Operation " + LIGHT_YELLOW.wrap(GENERIC_NAME) + " completed: " + LIGHT_YELLOW.wrap(GENERIC_AMOUNT) + " processed, "
+            + LIGHT_GREEN.wrap(GENERIC_CURRENT) + " changed, " + LIGHT_RED.wrap(GENERIC_MAX) + " failed."));
+
+    public static final LangText COMMAND_ADMIN_BULK_CANCEL = LangText.of("Command.Admin.Bulk.Cancel",
+        LIGHT_GRAY.wrap("Operation " + LIGHT_YELLOW.wrap(GENERIC_NAME) + " will stop after current pages. Use " + LIGHT_YELLOW.wrap("resume") + " to continue it."));
+
     public static final LangText COMMAND_SET_STATE_DONE = LangText.of("Command.SetState.Done",
         LIGHT_GRAY.wrap("Set " + LIGHT_YELLOW.wrap(GENERIC_STATE) + " state for " + LIGHT_YELLOW.wrap(PLAYER_NAME) + "'s " + LIGHT_YELLOW.wrap(JOB_NAME) + " job!"));
 
@@ -439,6 +460,15 @@ public class Lang extends CoreLang {
     public static final LangText ERROR_COMMAND_INVALID_ACTION_ARGUMENT = LangText.of("Error.Command.Argument.InvalidAction",
         LIGHT_GRAY.wrap(LIGHT_RED.wrap(GENERIC_VALUE) + " is not a valid action!"));
 
+    public static final LangText ERROR_COMMAND_INVALID_OPERATION_ARGUMENT = LangText.of("Error.Command.Argument.InvalidOperation",
+        LIGHT_GRAY.wrap(LIGHT_RED.wrap(GENERIC_VALUE) + " is not a valid operation!"));
+
+    public static final LangText ERROR_BULK_RUNNING = LangText.of("Error.Bulk.Running",
+        LIGHT_GRAY.wrap("Operation " + LIGHT_RED.wrap(GENERIC_NAME) + " is already running!"));
+
+    public static final LangText ERROR_BULK_NOTHING = LangText.of("Error.Bulk.Nothing",
+        LIGHT_GRAY.wrap("There is no bulk operation to " + LIGHT_RED.wrap(GENERIC_TYPE) + "."));
+
     public static final LangText ERROR_INVALID_BOOSTER = LangText.of("Error.InvalidBooster",
         LIGHT_RED.wrap("Invalid booster!"));
 
@@ -722,4 +752,15 @@ public class Lang extends CoreLang {
         .emptyLine()
         .click("toggle")
         .build();
+
+    public static final LangItem EDITOR_ZONE_BLOCK_LIST_RESET_MODE = LangItem.builder("Editor.Zone.BlockList.ResetMode")
+        .name("Reset Mode")
+        .text(LIGHT_YELLOW.wrap("BLOCK") + ": Broken blocks are replaced", "with fallback material and restored", "one by one after reset time.")
+        .emptyLine()
+        .text(LIGHT_YELLOW.wrap("MINE") + ": The whole zone is refilled", "with block list materials on schedule", "or when depleted.")
+        .emptyLine()
+        .textRaw(BLOCK_LIST_RESET_MODE)
+        .emptyLine()
+        .click("toggle")
+        .build();
 }
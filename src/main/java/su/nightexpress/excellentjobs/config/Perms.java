@@ -36,6 +36,8 @@ public class Perms {
     public static final UniPermission COMMAND_SET_STATE    = new UniPermission(PREFIX_COMMAND + "setstate");
     public static final UniPermission COMMAND_TOP          = new UniPermission(PREFIX_COMMAND + "top");
     public static final UniPermission COMMAND_RELOAD       = new UniPermission(PREFIX_COMMAND + "reload");
+    public static final UniPermission COMMAND_BENCHMARK    = new UniPermission(PREFIX_COMMAND + "benchmark");
+    public static final UniPermission COMMAND_ADMIN        = new UniPermission(PREFIX_COMMAND + "admin");
     public static final UniPermission COMMAND_ZONE         = new UniPermission(PREFIX_COMMAND + "zone");
     public static final UniPermission COMMAND_ZONE_CREATE  = new UniPermission(PREFIX_COMMAND + "zone.create");
     public static final UniPermission COMMAND_ZONE_WAND    = new UniPermission(PREFIX_COMMAND + "zone.wand");
@@ -52,6 +54,8 @@ public class Perms {
 
         COMMAND.addChildren(
             COMMAND_RELOAD,
+            COMMAND_BENCHMARK,
+            COMMAND_ADMIN,
             COMMAND_JOIN,
             COMMAND_LEAVE,
             COMMAND_MENU,
@@ -0,0 +1,211 @@
+package su.nightexpress.excellentjobs.data;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.bulk.impl.BulkUser;
+import su.nightexpress.excellentjobs.config.Config;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.data.impl.ProgressRecord;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Reads users in pages ordered by id and writes back job data changed by bulk operations, one transaction per page.
+ * Pages are read by a key cursor, so a run can be continued from the last processed id.
+ */
+public class BulkStorage {
+
+    private final DataHandler     dataHandler;
+    private final ProgressStorage progressStorage;
+
+    public BulkStorage(@NotNull DataHandler dataHandler, @NotNull ProgressStorage progressStorage) {
+        this.dataHandler = dataHandler;
+        this.progressStorage = progressStorage;
+    }
+
+    @NotNull
+    private Connection getConnection() throws SQLException {
+        return this.dataHandler.getConnector().getConnection();
+    }
+
+    @NotNull
+    private static String getSelectSql(@NotNull String usersTable, @NotNull String idColumn, @NotNull String nameColumn) {
+        return "SELECT " + idColumn + ", " + nameColumn + ", " + DataHandler.COLUMN_VERSION.getName() + ", " + DataHandler.COLUMN_DATA.getName()
+            + " FROM " + usersTable;
+    }
+
+    /**
+     * @param after Id of the last processed user, or empty string to read from the start.
+     * @return Up to the given amount of users with ids after the given one, in id order.
+     */
+    @NotNull
+    public List<BulkUser> readPage(@NotNull String usersTable, @NotNull String idColumn, @NotNull String nameColumn, boolean progressTable,
+                                   @NotNull String after, int limit) throws SQLException {
+        String sql = getSelectSql(usersTable, idColumn, nameColumn) + " WHERE " + idColumn + " > ? ORDER BY " + idColumn + " LIMIT ?";
+
+        try (Connection connection = this.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setFetchSize(limit);
+            statement.setString(1, after);
+            statement.setInt(2, limit);
+
+            return this.read(connection, statement, progressTable);
+        }
+    }
+
+    /**
+     * Reads the given users again, e.g. after their rows were written by another server.
+     */
+    @NotNull
+    public List<BulkUser> readUsers(@NotNull String usersTable, @NotNull String idColumn, @NotNull String nameColumn, boolean progressTable,
+                                    @NotNull Collection<UUID> ids) throws SQLException {
+        if (ids.isEmpty()) return new ArrayList<>();
+
+        String sql = getSelectSql(usersTable, idColumn, nameColumn) + " WHERE " + idColumn + " IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+
+        try (Connection connection = this.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (UUID id : ids) {
+                statement.setString(index++, id.toString());
+            }
+
+            return this.read(connection, statement, progressTable);
+        }
+    }
+
+    @NotNull
+    private List<BulkUser> read(@NotNull Connection connection, @NotNull PreparedStatement statement, boolean progressTable) throws SQLException {
+        List<BulkUser> users = new ArrayList<>();
+
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                UUID id = UUID.fromString(resultSet.getString(1));
+                Map<String, JsonElement> jobs = new HashMap<>();
+
+                String json = DataCodec.decode(resultSet.getString(4));
+                if (json != null && !json.isBlank()) {
+                    JsonElement element = JsonParser.parseString(json);
+                    if (element.isJsonObject()) {
+                        element.getAsJsonObject().entrySet().forEach(entry -> jobs.put(entry.getKey(), entry.getValue()));
+                    }
+                }
+
+                users.add(new BulkUser(id, resultSet.getString(2), resultSet.getLong(3), jobs));
+            }
+        }
+
+        if (progressTable && !users.isEmpty()) {
+            Map<UUID, BulkUser> userMap = new HashMap<>();
+            users.forEach(user -> userMap.put(user.getId(), user));
+
+            // Rows of the progress table override data left in the column.
+            this.progressStorage.load(connection, userMap.keySet()).forEach((id, payloads) -> {
+                BulkUser user = userMap.get(id);
+                if (user == null) return;
+
+                payloads.forEach((jobId, payload) -> user.getStoredJobs().put(jobId, JsonParser.parseString(payload)));
+            });
+        }
+
+        return users;
+    }
+
+    /**
+     * Writes job data of the given users in a single transaction. Each row is written only if its version is still the one it was read with.
+     * @return Ids of users whose rows were changed by another server meanwhile and were not written.
+     */
+    @NotNull
+    public Set<UUID> write(@NotNull String usersTable, @NotNull String idColumn, boolean progressTable, @NotNull List<BulkUser> users) throws SQLException {
+        Set<UUID> conflicts = new HashSet<>();
+        if (users.isEmpty()) return conflicts;
+
+        long now = System.currentTimeMillis();
+        int threshold = Config.DATA_COMPRESSION_THRESHOLD.get();
+        String versionColumn = DataHandler.COLUMN_VERSION.getName();
+        String sql = "UPDATE " + usersTable + " SET " + (progressTable ? "" : DataHandler.COLUMN_DATA.getName() + " = ?, ")
+            + DataHandler.COLUMN_UPDATED.getName() + " = ?, " + versionColumn + " = " + versionColumn + " + 1"
+            + " WHERE " + idColumn + " = ? AND " + versionColumn + " = ?";
+
+        try (Connection connection = this.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                int[] results;
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (BulkUser user : users) {
+                        int index = 1;
+                        if (!progressTable) statement.setString(index++, DataCodec.encode(encodeJobs(user).toString(), threshold));
+                        statement.setLong(index++, now);
+                        statement.setString(index++, user.getId().toString());
+                        statement.setLong(index, user.getVersion());
+                        statement.addBatch();
+                    }
+                    results = statement.executeBatch();
+                }
+
+                for (int index = 0; index < results.length; index++) {
+                    if (results[index] == 0) conflicts.add(users.get(index).getId());
+                }
+
+                if (progressTable) {
+                    List<ProgressRecord> records = new ArrayList<>();
+                    Map<UUID, Set<String>> removed = new HashMap<>();
+                    users.forEach(user -> {
+                        if (conflicts.contains(user.getId())) return;
+
+                        user.getDecodedJobs().forEach((jobId, data) -> {
+                            if (!data.isChanged()) return;
+
+                            String json = DataHandler.GSON.toJson(data, JobData.class);
+                            records.add(new ProgressRecord(user.getId(), jobId, data.getState(), data.getLevel(), data.getXP(), data.getLevelDate(), json, now));
+                        });
+                        if (!user.getRemovedJobs().isEmpty()) removed.put(user.getId(), user.getRemovedJobs());
+                    });
+
+                    this.progressStorage.save(connection, records);
+                    this.progressStorage.delete(connection, removed);
+                }
+
+                connection.commit();
+            }
+            catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+
+        return conflicts;
+    }
+
+    /**
+     * Deletes progress rows of jobs removed from users loaded on this server, as their saves write only rows of jobs they have.
+     */
+    public void deleteProgress(@NotNull Map<UUID, ? extends Collection<String>> jobIds) throws SQLException {
+        if (jobIds.isEmpty()) return;
+
+        try (Connection connection = this.getConnection()) {
+            this.progressStorage.delete(connection, jobIds);
+        }
+    }
+
+    /**
+     * @return Job data of the user as stored in the data column. Jobs player never joined are skipped.
+     */
+    @NotNull
+    private static JsonObject encodeJobs(@NotNull BulkUser user) {
+        JsonObject object = new JsonObject();
+        user.getStoredJobs().forEach((jobId, element) -> {
+            if (!user.getDecodedJobs().containsKey(jobId)) object.add(jobId, element);
+        });
+        user.getDecodedJobs().forEach((jobId, data) -> {
+            if (!data.isDefault()) object.add(jobId, DataHandler.GSON.toJsonTree(data, JobData.class));
+        });
+        return object;
+    }
+}
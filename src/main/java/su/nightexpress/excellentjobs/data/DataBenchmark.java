@@ -0,0 +1,121 @@
+package su.nightexpress.excellentjobs.data;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.data.impl.UserSettings;
+import su.nightexpress.excellentjobs.user.JobUser;
+
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Measures size and speed of user data encoding on real user data.
+ */
+public class DataBenchmark {
+
+    private static final Type DATA_TYPE = new TypeToken<Map<String, JobData>>(){}.getType();
+
+    /**
+     * Copy of a user with encoded jobs cache and ids of jobs changed since the last save, as they were when the copy was taken.
+     */
+    public record Sample(@NotNull JobUser user, @NotNull Map<String, String> encodedJobs, @NotNull Set<String> changedJobs) {}
+
+    public record Result(int users, long prettyBytes, long compactBytes, long encodedBytes, long encodeNanos, long decodeNanos) {
+
+        public long getPrettyBytesPerUser() {
+            return this.users == 0 ? 0L : this.prettyBytes / this.users;
+        }
+
+        public long getCompactBytesPerUser() {
+            return this.users == 0 ? 0L : this.compactBytes / this.users;
+        }
+
+        public long getEncodedBytesPerUser() {
+            return this.users == 0 ? 0L : this.encodedBytes / this.users;
+        }
+
+        public long getEncodeMicrosPerUser() {
+            return this.users == 0 ? 0L : this.encodeNanos / this.users / 1000L;
+        }
+
+        public long getDecodeMicrosPerUser() {
+            return this.users == 0 ? 0L : this.decodeNanos / this.users / 1000L;
+        }
+    }
+
+    /**
+     * Copies job data of the given users, so it can be encoded off the main thread while the users are changed. Must be called on the main thread.
+     */
+    @NotNull
+    public static List<Sample> copyUsers(@NotNull Collection<JobUser> users) {
+        List<Sample> samples = new ArrayList<>();
+
+        users.forEach(user -> {
+            Map<String, JobData> dataMap = DataHandler.GSON.fromJson(DataHandler.GSON.toJson(user.getDataMap(), DATA_TYPE), DATA_TYPE);
+            if (dataMap == null) return;
+
+            Set<String> changedJobs = new HashSet<>();
+            user.getDataMap().forEach((jobId, data) -> {
+                if (data.isChanged()) changedJobs.add(jobId);
+            });
+
+            JobUser copy = new JobUser(user.getId(), user.getName(), user.getLastOnline(), user.getDateCreated(), dataMap, new HashMap<>(), new HashMap<>(), new UserSettings());
+            samples.add(new Sample(copy, new HashMap<>(user.getEncodedJobs()), changedJobs));
+        });
+
+        return samples;
+    }
+
+    /**
+     * Encodes job data of the given copies with the save encoder several times and decodes it, first runs are used to warm up
+     * and are not measured. Before each run, the encoded jobs cache and changed jobs are reset to the state of the copied user,
+     * so only jobs changed since the last save are serialized again, as on a real save.
+     * Pretty printed JSON of all jobs is measured for comparison with the old format.
+     */
+    @NotNull
+    public static Result run(@NotNull List<Sample> samples, int iterations) {
+        Gson pretty = DataHandler.GSON.newBuilder().setPrettyPrinting().create();
+        int warmup = Math.max(1, iterations / 5);
+
+        long prettyBytes = 0L;
+        long compactBytes = 0L;
+        long encodedBytes = 0L;
+        long encodeNanos = 0L;
+        long decodeNanos = 0L;
+
+        for (int run = 0; run < warmup + iterations; run++) {
+            boolean measured = run >= warmup;
+
+            for (Sample sample : samples) {
+                JobUser user = sample.user();
+                Map<String, JobData> dataMap = user.getDataMap();
+
+                user.getEncodedJobs().clear();
+                user.getEncodedJobs().putAll(sample.encodedJobs());
+                dataMap.forEach((jobId, data) -> data.setChanged(sample.changedJobs().contains(jobId)));
+
+                long start = System.nanoTime();
+                String encoded = DataHandler.encodeJobData(user);
+                long encodedAt = System.nanoTime();
+                DataHandler.GSON.fromJson(DataCodec.decode(encoded), DATA_TYPE);
+                long end = System.nanoTime();
+
+                if (!measured) continue;
+
+                encodeNanos += encodedAt - start;
+                decodeNanos += end - encodedAt;
+
+                if (run == warmup) {
+                    prettyBytes += pretty.toJson(dataMap).length();
+                    compactBytes += DataCodec.decode(encoded).length();
+                    encodedBytes += encoded.length();
+                }
+            }
+        }
+
+        int count = samples.size();
+        return new Result(count, prettyBytes, compactBytes, encodedBytes, encodeNanos / Math.max(1, iterations), decodeNanos / Math.max(1, iterations));
+    }
+}
@@ -0,0 +1,98 @@
+package su.nightexpress.excellentjobs.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned encoding of user data columns. Encoded values start with a format marker, values without it are legacy JSON,
+ * so old rows are read as is and get the new format on next save.
+ */
+public class DataCodec {
+
+    private static final char MARKER = '~';
+
+    /** Compact JSON with short keys. */
+    public static final char FORMAT_JSON    = '1';
+    /** Compact JSON, deflated and encoded as Base64 to fit text columns. */
+    public static final char FORMAT_DEFLATE = '2';
+
+    /**
+     * @param threshold Min. JSON length to compress it, or a negative value to never compress.
+     */
+    @NotNull
+    public static String encode(@NotNull String json, int threshold) {
+        if (threshold >= 0 && json.length() >= threshold) {
+            String compressed = MARKER + String.valueOf(FORMAT_DEFLATE) + Base64.getEncoder().encodeToString(deflate(json.getBytes(StandardCharsets.UTF_8)));
+            if (compressed.length() < json.length()) return compressed;
+        }
+        return MARKER + String.valueOf(FORMAT_JSON) + json;
+    }
+
+    /**
+     * @return JSON of the encoded value, or the value itself if it's in legacy format.
+     */
+    @Nullable
+    public static String decode(@Nullable String value) {
+        if (value == null || value.length() < 2 || value.charAt(0) != MARKER) return value;
+
+        char format = value.charAt(1);
+        String payload = value.substring(2);
+
+        return switch (format) {
+            case FORMAT_JSON -> payload;
+            case FORMAT_DEFLATE -> new String(inflate(Base64.getDecoder().decode(payload)), StandardCharsets.UTF_8);
+            default -> throw new IllegalStateException("Unknown data format: " + format);
+        };
+    }
+
+    @NotNull
+    private static byte[] deflate(@NotNull byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    @NotNull
+    private static byte[] inflate(@NotNull byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed data.");
+                }
+                output.write(buffer, 0, count);
+            }
+            return output.toByteArray();
+        }
+        catch (DataFormatException exception) {
+            throw new IllegalStateException("Malformed compressed data.", exception);
+        }
+        finally {
+            inflater.end();
+        }
+    }
+}
@@ -2,30 +2,44 @@ package su.nightexpress.excellentjobs.data;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import su.nightexpress.excellentjobs.JobsPlugin;
 import su.nightexpress.excellentjobs.booster.impl.Booster;
+import su.nightexpress.excellentjobs.bulk.impl.BulkUser;
+import su.nightexpress.excellentjobs.config.Config;
 import su.nightexpress.excellentjobs.data.impl.*;
 import su.nightexpress.excellentjobs.data.serialize.*;
+import su.nightexpress.excellentjobs.job.impl.Job;
+import su.nightexpress.excellentjobs.job.impl.JobState;
 import su.nightexpress.excellentjobs.stats.impl.DayStats;
 import su.nightexpress.excellentjobs.stats.impl.JobStats;
+import su.nightexpress.excellentjobs.stats.impl.StatsType;
+import su.nightexpress.excellentjobs.sync.SyncManager;
 import su.nightexpress.excellentjobs.user.JobUser;
 import su.nightexpress.nightcore.db.AbstractUserDataManager;
 import su.nightexpress.nightcore.db.sql.column.Column;
 import su.nightexpress.nightcore.db.sql.column.ColumnType;
 import su.nightexpress.nightcore.db.sql.query.impl.SelectQuery;
 import su.nightexpress.nightcore.db.sql.query.type.ValuedQuery;
-import su.nightexpress.nightcore.db.sql.util.WhereOperator;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class DataHandler extends AbstractUserDataManager<JobsPlugin, JobUser> {
 
-    public static final Gson GSON = new GsonBuilder().setPrettyPrinting()
+    public static final Gson GSON = new GsonBuilder()
         .registerTypeAdapter(UserSettings.class, new UserSettingsSerializer())
         .registerTypeAdapter(JobData.class, new JobDataSerializer())
         .registerTypeAdapter(JobLimitData.class, new JobLimitSerializer())
@@ -41,62 +55,247 @@ public class DataHandler extends AbstractUserDataManager<JobsPlugin, JobUser> {
     static final Column COLUMN_BOOSTS   = Column.of("boosts", ColumnType.STRING);
     static final Column COLUMN_SETTINGS = Column.of("settings", ColumnType.STRING);
     static final Column COLUMN_STATS    = Column.of("stats", ColumnType.STRING);
+    static final Column COLUMN_UPDATED  = Column.of("updatedAt", ColumnType.LONG);
+    static final Column COLUMN_VERSION  = Column.of("version", ColumnType.LONG);
+
+    private static final int SYNC_CHUNK = 500;
+
+    /**
+     * Max. attempts of a single job update when the row is written by another server meanwhile.
+     */
+    private static final int UPDATE_ATTEMPTS = 3;
+
+    private final StatsStorage    statsStorage;
+    private final ProgressStorage progressStorage;
+    private final BulkStorage     bulkStorage;
+
+    private boolean progressTable;
+    private boolean mysql;
 
     public DataHandler(@NotNull JobsPlugin plugin) {
         super(plugin);
+        this.statsStorage = new StatsStorage(plugin, this, this.getTablePrefix() + "_stats");
+        this.progressStorage = new ProgressStorage(plugin, this, this.getTablePrefix() + "_progress");
+        this.bulkStorage = new BulkStorage(this, this.progressStorage);
+    }
+
+    @NotNull
+    public StatsStorage getStatsStorage() {
+        return this.statsStorage;
     }
 
     @Override
     @NotNull
     protected Function<ResultSet, JobUser> createUserFunction() {
         return resultSet -> {
-            try {
-                UUID uuid = UUID.fromString(resultSet.getString(COLUMN_USER_ID.getName()));
-                String name = resultSet.getString(COLUMN_USER_NAME.getName());
-                long dateCreated = resultSet.getLong(COLUMN_USER_DATE_CREATED.getName());
-                long lastOnline = resultSet.getLong(COLUMN_USER_LAST_ONLINE.getName());
+            JobUser user = this.readUser(resultSet);
+            if (user == null) return null;
 
-                Map<String, JobData> jobDataMap = GSON.fromJson(resultSet.getString(COLUMN_DATA.getName()), new TypeToken<Map<String, JobData>>(){}.getType());
-                jobDataMap.values().removeIf(Objects::isNull);
+            if (this.progressTable) {
+                try {
+                    // Same connection as the user row, single user loads do not take a second one from the pool.
+                    Connection connection = resultSet.getStatement().getConnection();
+                    this.applyProgress(user, this.progressStorage.load(connection, Collections.singleton(user.getId())).get(user.getId()));
+                }
+                catch (SQLException exception) {
+                    this.plugin.error("Could not load job progress of " + user.getId() + "!");
+                    exception.printStackTrace();
+                }
+            }
 
-                Map<String, Booster> boosters = GSON.fromJson(resultSet.getString(COLUMN_BOOSTS.getName()), new TypeToken<Map<String, Booster>>(){}.getType());
-                if (boosters == null) boosters = new HashMap<>();
+            this.completeUser(user);
+            return user;
+        };
+    }
 
-                Map<String, JobStats> statsMap = new HashMap<>(); // Lazy load
+    /**
+     * Reads the user row with job data left in the data column. Rows of the progress table are applied on top of it by the caller,
+     * then the user is completed by {@link #completeUser(JobUser)}.
+     */
+    @Nullable
+    private JobUser readUser(@NotNull ResultSet resultSet) {
+        try {
+            UUID uuid = UUID.fromString(resultSet.getString(COLUMN_USER_ID.getName()));
+            String name = resultSet.getString(COLUMN_USER_NAME.getName());
+            long dateCreated = resultSet.getLong(COLUMN_USER_DATE_CREATED.getName());
+            long lastOnline = resultSet.getLong(COLUMN_USER_LAST_ONLINE.getName());
 
-                //UserSettings settings = GSON.fromJson(resultSet.getString(COLUMN_SETTINGS.getName()), new TypeToken<UserSettings>(){}.getType());
-                //if (settings == null) settings = new UserSettings();
+            Map<String, JobData> jobDataMap = GSON.fromJson(DataCodec.decode(resultSet.getString(COLUMN_DATA.getName())), new TypeToken<Map<String, JobData>>(){}.getType());
+            if (jobDataMap == null) jobDataMap = new HashMap<>();
 
-                JobUser user = new JobUser(uuid, name, dateCreated, lastOnline, jobDataMap, boosters, statsMap, new UserSettings());
+            Map<String, Booster> boosters = GSON.fromJson(DataCodec.decode(resultSet.getString(COLUMN_BOOSTS.getName())), new TypeToken<Map<String, Booster>>(){}.getType());
+            if (boosters == null) boosters = new HashMap<>();
 
-                // Update missing jobs.
-                plugin.getJobManager().getJobs().forEach(user::getData);
+            Map<String, JobStats> statsMap = new HashMap<>(); // Lazy load
 
-                return user;
-            }
-            catch (SQLException exception) {
-                exception.printStackTrace();
-                return null;
-            }
-        };
+            //UserSettings settings = GSON.fromJson(resultSet.getString(COLUMN_SETTINGS.getName()), new TypeToken<UserSettings>(){}.getType());
+            //if (settings == null) settings = new UserSettings();
+
+            JobUser user = new JobUser(uuid, name, dateCreated, lastOnline, jobDataMap, boosters, statsMap, new UserSettings());
+            user.setLastUpdate(resultSet.getLong(COLUMN_UPDATED.getName()));
+            user.setVersion(resultSet.getLong(COLUMN_VERSION.getName()));
+            user.setStored(true);
+            return user;
+        }
+        catch (SQLException exception) {
+            exception.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Rows of the progress table override data left in the column.
+     */
+    private void applyProgress(@NotNull JobUser user, @Nullable Map<String, String> payloads) {
+        if (payloads == null || payloads.isEmpty()) return;
+
+        StringBuilder builder = new StringBuilder("{");
+        payloads.forEach((jobId, payload) -> {
+            if (builder.length() > 1) builder.append(',');
+            builder.append(GSON.toJson(jobId)).append(':').append(payload);
+        });
+
+        Map<String, JobData> progress = GSON.fromJson(builder.append('}').toString(), new TypeToken<Map<String, JobData>>(){}.getType());
+        if (progress != null) user.getDataMap().putAll(progress);
     }
 
+    private void completeUser(@NotNull JobUser user) {
+        user.getDataMap().values().removeIf(Objects::isNull);
+
+        // Update missing jobs.
+        this.plugin.getJobManager().getJobs().forEach(user::getData);
+        user.clearChanges();
+        user.getDataMap().forEach((jobId, data) -> user.getSyncedJobs().put(jobId, encodeJob(user, jobId, data)));
+    }
+
+    /**
+     * Fetches only rows of loaded users written by other servers since they were loaded or merged and merges them section by section.
+     * Skipped while changes are delivered by the bus.
+     */
     @Override
     public void onSynchronize() {
+        // Rows changed while the bus was down are found by catch up on reconnect, by comparing versions.
+        if (this.plugin.getSyncManager().isConnected()) return;
+
+        this.synchronizeChanged();
+    }
+
+    /**
+     * Fetches rows changed since the last sync regardless of the bus, after it was (re)connected.
+     */
+    public void catchUp() {
+        this.synchronizeChanged();
+    }
+
+    /**
+     * Rows are compared by version, which is increased by the database on each write, so clocks of servers are never compared.
+     */
+    private synchronized void synchronizeChanged() {
+        Map<UUID, JobUser> users = new HashMap<>();
         this.plugin.getUserManager().getLoaded().forEach(user -> {
             if (user.isAutoSavePlanned() || !user.isAutoSyncReady()) return;
 
-            JobUser fetched = this.getUser(user.getId());
-            if (fetched == null) return;
+            users.put(user.getId(), user);
+        });
+
+        if (users.isEmpty()) return;
+
+        List<UUID> ids = new ArrayList<>(users.keySet());
+        for (int index = 0; index < ids.size(); index += SYNC_CHUNK) {
+            List<UUID> changed = new ArrayList<>();
+            this.fetchVersions(ids.subList(index, Math.min(ids.size(), index + SYNC_CHUNK))).forEach((id, version) -> {
+                if (version > users.get(id).getVersion()) changed.add(id);
+            });
+            if (changed.isEmpty()) continue;
 
-            user.getBoosterMap().clear();
-            user.getDataMap().clear();
+            this.fetchUsers(changed).forEach(fetched -> {
+                JobUser user = users.get(fetched.getId());
+                // Rows written by this server, or already applied, keep the known version.
+                if (user == null || fetched.getVersion() <= user.getVersion()) return;
+
+                DataMerger.merge(user, fetched);
+                if (user.hasChanges()) this.plugin.getUserManager().save(user);
+            });
+        }
+    }
 
-            user.getBoosterMap().putAll(fetched.getBoosterMap());
-            user.getDataMap().putAll(fetched.getDataMap());
+    /**
+     * Fetches the user row and applies the given sections of it, after another server notified that it was written.
+     */
+    public void refreshUser(@NotNull JobUser user, @NotNull Set<String> jobIds, boolean boosters) {
+        this.fetchUsers(Collections.singletonList(user.getId())).forEach(fetched -> {
+            if (fetched.getVersion() <= user.getVersion()) return;
+
+            DataMerger.merge(user, fetched, jobIds, boosters);
+            if (user.hasChanges()) this.plugin.getUserManager().save(user);
         });
     }
 
+    /**
+     * @return Map of user ids to versions of their rows, selecting only id and version columns.
+     */
+    @NotNull
+    private Map<UUID, Long> fetchVersions(@NotNull List<UUID> ids) {
+        Map<UUID, Long> versions = new HashMap<>();
+        String sql = "SELECT " + COLUMN_USER_ID.getName() + ", " + COLUMN_VERSION.getName() + " FROM " + this.tableUsers
+            + " WHERE " + COLUMN_USER_ID.getName() + " IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+
+        try (Connection connection = this.getConnector().getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (UUID id : ids) {
+                statement.setString(index++, id.toString());
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    versions.put(UUID.fromString(resultSet.getString(1)), resultSet.getLong(2));
+                }
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not synchronize user data!");
+            exception.printStackTrace();
+            versions.clear();
+        }
+
+        return versions;
+    }
+
+    @NotNull
+    private List<JobUser> fetchUsers(@NotNull List<UUID> ids) {
+        List<JobUser> users = new ArrayList<>();
+        String sql = "SELECT * FROM " + this.tableUsers + " WHERE " + COLUMN_USER_ID.getName()
+            + " IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+
+        try (Connection connection = this.getConnector().getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (UUID id : ids) {
+                statement.setString(index++, id.toString());
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    JobUser user = this.readUser(resultSet);
+                    if (user != null) users.add(user);
+                }
+            }
+
+            // Progress of all fetched users in one query on the same connection, read after their rows.
+            if (this.progressTable && !users.isEmpty()) {
+                Map<UUID, Map<String, String>> payloads = this.progressStorage.load(connection, users.stream().map(JobUser::getId).toList());
+                users.forEach(user -> this.applyProgress(user, payloads.get(user.getId())));
+            }
+            users.forEach(this::completeUser);
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not synchronize user data!");
+            exception.printStackTrace();
+            users.clear();
+        }
+
+        return users;
+    }
+
     @Override
     @NotNull
     protected GsonBuilder registerAdapters(@NotNull GsonBuilder builder) {
@@ -110,6 +309,59 @@ public class DataHandler extends AbstractUserDataManager<JobsPlugin, JobUser> {
         this.dropColumn(this.tableUsers, "boosters");
         this.addColumn(this.tableUsers, COLUMN_STATS, "{}");
         this.addColumn(this.tableUsers, COLUMN_BOOSTS, "{}");
+        this.addColumn(this.tableUsers, COLUMN_UPDATED, "0");
+        this.addColumn(this.tableUsers, COLUMN_VERSION, "0");
+        this.createUpdatedIndex();
+
+        this.statsStorage.createTable();
+        this.statsStorage.migrate(this.tableUsers, COLUMN_USER_ID.getName(), COLUMN_STATS.getName());
+
+        try (Connection connection = this.getConnector().getConnection()) {
+            this.mysql = !connection.getMetaData().getDatabaseProductName().toLowerCase().contains("sqlite");
+        }
+        catch (SQLException exception) {
+            exception.printStackTrace();
+        }
+
+        this.progressTable = Config.DATA_PROGRESS_TABLE.get();
+        this.progressStorage.createTable();
+        if (this.progressTable) {
+            this.progressStorage.migrate(this.tableUsers, COLUMN_USER_ID.getName(), COLUMN_DATA.getName(), COLUMN_VERSION.getName());
+        }
+        else {
+            this.progressStorage.restore(this.tableUsers, COLUMN_USER_ID.getName(), COLUMN_DATA.getName(),
+                COLUMN_VERSION.getName(), COLUMN_UPDATED.getName(), Config.DATA_COMPRESSION_THRESHOLD.get());
+        }
+    }
+
+    /**
+     * Indexes the write date, so changed rows and the version marker are read without scanning the users table.
+     */
+    private void createUpdatedIndex() {
+        String index = this.tableUsers + "_updated";
+        String column = COLUMN_UPDATED.getName();
+
+        try (Connection connection = this.getConnector().getConnection(); Statement statement = connection.createStatement()) {
+            if (connection.getMetaData().getDatabaseProductName().toLowerCase().contains("sqlite")) {
+                statement.executeUpdate("CREATE INDEX IF NOT EXISTS " + index + " ON " + this.tableUsers + " (" + column + ")");
+                return;
+            }
+
+            try (ResultSet resultSet = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, this.tableUsers, false, false)) {
+                while (resultSet.next()) {
+                    if (index.equalsIgnoreCase(resultSet.getString("INDEX_NAME"))) return;
+                }
+            }
+            statement.executeUpdate("CREATE INDEX " + index + " ON " + this.tableUsers + " (" + column + ")");
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not create index on '" + column + "' column!");
+            exception.printStackTrace();
+        }
+    }
+
+    public boolean isProgressTable() {
+        return this.progressTable;
     }
 
     @Override
@@ -118,6 +370,8 @@ public class DataHandler extends AbstractUserDataManager<JobsPlugin, JobUser> {
         columns.add(COLUMN_SETTINGS);
         columns.add(COLUMN_BOOSTS);
         columns.add(COLUMN_STATS);
+        columns.add(COLUMN_UPDATED);
+        columns.add(COLUMN_VERSION);
     }
 
     @Override
@@ -125,24 +379,742 @@ public class DataHandler extends AbstractUserDataManager<JobsPlugin, JobUser> {
         query.column(COLUMN_DATA);
         query.column(COLUMN_SETTINGS);
         query.column(COLUMN_BOOSTS);
+        query.column(COLUMN_UPDATED);
+        query.column(COLUMN_VERSION);
         //query.column(COLUMN_STATS);
     }
 
     @Override
     protected void addUpsertQueryData(@NotNull ValuedQuery<?, JobUser> query) {
-        query.setValue(COLUMN_DATA, user -> GSON.toJson(user.getDataMap()));
-        query.setValue(COLUMN_BOOSTS, user -> GSON.toJson(user.getBoosterMap()));
-        query.setValue(COLUMN_SETTINGS, user -> GSON.toJson(user.getSettings()));
-        query.setValue(COLUMN_STATS, user -> GSON.toJson(user.getStatsMap()));
+        query.setValue(COLUMN_DATA, user -> {
+            // Progress rows can not be written in the transaction of this query, so full data is kept in the column
+            // and moved into rows by the next save, along with clearing the column.
+            String data = encodeJobData(user);
+            if (this.progressTable) user.setDataChanged(true);
+            user.getSyncedJobs().putAll(user.getEncodedJobs());
+            return data;
+        });
+        query.setValue(COLUMN_BOOSTS, user -> {
+            user.setBoostersChanged(false);
+            return encode(user.getBoosterMap());
+        });
+        query.setValue(COLUMN_SETTINGS, user -> encode(user.getSettings()));
+        query.setValue(COLUMN_STATS, user -> "{}"); // Stats are stored in a separate table.
+        query.setValue(COLUMN_UPDATED, user -> {
+            long now = System.currentTimeMillis();
+            user.setLastUpdate(now);
+            return String.valueOf(now);
+        });
+        query.setValue(COLUMN_VERSION, user -> {
+            long version = user.getVersion() + 1;
+            user.setVersion(version);
+            return String.valueOf(version);
+        });
+    }
+
+    @NotNull
+    public static String encode(@NotNull Object object) {
+        return DataCodec.encode(GSON.toJson(object), Config.DATA_COMPRESSION_THRESHOLD.get());
+    }
+
+    /**
+     * Encodes job data of the user, serializing again only jobs changed since the last encoding.
+     */
+    @NotNull
+    public static String encodeJobData(@NotNull JobUser user) {
+        user.setDataChanged(false);
+
+        StringBuilder builder = new StringBuilder("{");
+
+        user.getDataMap().forEach((jobId, data) -> {
+            String json = encodeJob(user, jobId, data);
+            if (json.isEmpty()) return;
+
+            if (builder.length() > 1) builder.append(',');
+            builder.append(GSON.toJson(jobId)).append(':').append(json);
+        });
+        user.getEncodedJobs().keySet().retainAll(user.getDataMap().keySet());
+
+        return DataCodec.encode(builder.append('}').toString(), Config.DATA_COMPRESSION_THRESHOLD.get());
+    }
+
+    /**
+     * @return JSON of the job data, serialized again only if it was changed, or empty string if player never joined the job.
+     */
+    @NotNull
+    private static String encodeJob(@NotNull JobUser user, @NotNull String jobId, @NotNull JobData data) {
+        Map<String, String> encodedJobs = user.getEncodedJobs();
+        String json = encodedJobs.get(jobId);
+        if (json == null || data.isChanged()) {
+            data.setChanged(false);
+            json = data.isDefault() ? "" : GSON.toJson(data, JobData.class);
+            encodedJobs.put(jobId, json);
+        }
+        return json;
+    }
+
+    /**
+     * Writes users in full. With the progress table enabled, user rows are updated, or inserted if missing, in a single transaction
+     * along with progress rows of all jobs, so progress rows are never left without their user rows.
+     * @return Users that were written.
+     */
+    @NotNull
+    public List<JobUser> saveUsers(@NotNull List<JobUser> users) {
+        if (!this.progressTable) {
+            users.forEach(this::saveUser);
+            return users;
+        }
+        if (users.isEmpty()) return users;
+
+        long now = System.currentTimeMillis();
+        List<UserChanges> pending = new ArrayList<>();
+        List<ProgressRecord> records = new ArrayList<>();
+
+        users.forEach(user -> {
+            boolean boosters = user.isBoostersChanged();
+            user.setBoostersChanged(false);
+
+            List<JobData> written = new ArrayList<>();
+            List<ProgressRecord> userRecords = this.collectProgress(user, true, written);
+            Map<String, String> jobs = new HashMap<>();
+            userRecords.forEach(record -> jobs.put(record.jobId(), user.getEncodedJobs().getOrDefault(record.jobId(), "")));
+
+            List<String> values = List.of(user.getName(), String.valueOf(user.getLastOnline()), DataCodec.encode("{}", -1),
+                encode(user.getBoosterMap()), encode(user.getSettings()), "{}", String.valueOf(now), String.valueOf(user.getVersion() + 1));
+
+            pending.add(new UserChanges(user, user.getVersion(), values, true, boosters, userRecords, jobs, written));
+            records.addAll(userRecords);
+        });
+
+        List<String> columns = List.of(COLUMN_USER_NAME.getName(), COLUMN_USER_LAST_ONLINE.getName(), COLUMN_DATA.getName(),
+            COLUMN_BOOSTS.getName(), COLUMN_SETTINGS.getName(), COLUMN_STATS.getName(), COLUMN_UPDATED.getName(), COLUMN_VERSION.getName());
+
+        String updateSql = "UPDATE " + this.tableUsers + " SET " + String.join(" = ?, ", columns) + " = ? WHERE " + COLUMN_USER_ID.getName() + " = ?";
+        String insertSql = "INSERT INTO " + this.tableUsers + " (" + COLUMN_USER_ID.getName() + ", " + COLUMN_USER_DATE_CREATED.getName() + ", "
+            + String.join(", ", columns) + ") VALUES (" + String.join(", ", Collections.nCopies(columns.size() + 2, "?")) + ")";
+
+        try (Connection connection = this.getConnector().getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement update = connection.prepareStatement(updateSql); PreparedStatement insert = connection.prepareStatement(insertSql)) {
+                for (UserChanges changes : pending) {
+                    String userId = changes.user().getId().toString();
+                    int index = 1;
+                    for (String value : changes.values()) {
+                        update.setString(index++, value);
+                    }
+                    update.setString(index, userId);
+                    if (update.executeUpdate() > 0) continue;
+
+                    // Row was deleted meanwhile, or it was never inserted.
+                    insert.setString(1, userId);
+                    insert.setLong(2, changes.user().getDateCreated());
+                    index = 3;
+                    for (String value : changes.values()) {
+                        insert.setString(index++, value);
+                    }
+                    insert.executeUpdate();
+                }
+
+                this.progressStorage.save(connection, records);
+                connection.commit();
+            }
+            catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not save data of " + pending.size() + " users!");
+            exception.printStackTrace();
+
+            // Nothing was written, so write the same users in full on next flush.
+            pending.forEach(changes -> {
+                restoreChanges(changes);
+                this.plugin.getUserManager().retrySave(changes.user());
+            });
+            return Collections.emptyList();
+        }
+
+        pending.forEach(changes -> {
+            JobUser user = changes.user();
+            user.setVersion(changes.version() + 1);
+            user.setLastUpdate(now);
+            user.getSyncedJobs().putAll(changes.jobs());
+        });
+        return users;
+    }
+
+    @NotNull
+    private List<ProgressRecord> collectProgress(@NotNull JobUser user, boolean writeAll, @NotNull List<JobData> written) {
+        user.setDataChanged(false);
+
+        long now = System.currentTimeMillis();
+        List<ProgressRecord> records = new ArrayList<>();
+
+        user.getDataMap().forEach((jobId, data) -> {
+            boolean changed = data.isChanged();
+            String json = encodeJob(user, jobId, data);
+            if (!changed && (!writeAll || json.isEmpty())) return;
+
+            // Job reset to default still needs its row updated.
+            if (json.isEmpty()) json = GSON.toJson(data, JobData.class);
+
+            records.add(new ProgressRecord(user.getId(), jobId, data.getState(), data.getLevel(), data.getXP(), data.getLevelDate(), json, now));
+            written.add(data);
+        });
+        user.getEncodedJobs().keySet().retainAll(user.getDataMap().keySet());
+
+        return records;
+    }
+
+    /**
+     * Changed columns of a user, along with progress rows and JSON of jobs written with them.
+     */
+    private record UserChanges(@NotNull JobUser user, long version, @NotNull List<String> values, boolean all, boolean boosters,
+                               @NotNull List<ProgressRecord> records, @NotNull Map<String, String> jobs, @NotNull List<JobData> written) {}
+
+    /**
+     * Writes only columns of the data changed since the last save in a single transaction. Users with the same changed columns
+     * are grouped into batches of the given size: multi-row statements on MySQL and prepared batches on SQLite.
+     * Each row is written only if its version is still the one the user data is based on. Otherwise, the row is fetched again,
+     * local changes are merged into it and the user is queued to be saved again. Users whose write failed are queued again as well.
+     * Users that have no row yet are skipped, they are inserted in full.
+     * @return Users that must be saved in full.
+     */
+    @NotNull
+    public List<JobUser> saveChanges(@NotNull Collection<JobUser> users, int batchSize) {
+        long now = System.currentTimeMillis();
+        List<JobUser> fullSave = new ArrayList<>();
+        List<UserChanges> pending = new ArrayList<>();
+        Map<List<String>, List<UserChanges>> groups = new HashMap<>();
+
+        users.forEach(user -> {
+            boolean dataChanged = user.isDataChanged();
+            boolean boostersChanged = user.isBoostersChanged();
+            if (!dataChanged && !boostersChanged) return;
+
+            if (!user.isStored()) {
+                fullSave.add(user);
+                return;
+            }
+
+            // All jobs are written when the job set was changed as a whole, e.g. a job was removed or progress rows could not be written.
+            boolean all = user.isDataMapChanged();
+
+            List<String> columns = new ArrayList<>();
+            List<String> values = new ArrayList<>();
+            List<ProgressRecord> records = new ArrayList<>();
+            List<JobData> written = new ArrayList<>();
+            Map<String, String> jobs = new HashMap<>();
+
+            columns.add(COLUMN_UPDATED.getName());
+            values.add(String.valueOf(now));
+            if (dataChanged) {
+                if (this.progressTable) {
+                    records.addAll(this.collectProgress(user, all, written));
+                    records.forEach(record -> jobs.put(record.jobId(), user.getEncodedJobs().getOrDefault(record.jobId(), "")));
+                    if (all) {
+                        // Data left in the column when progress rows could not be written is replaced by the rows.
+                        columns.add(COLUMN_DATA.getName());
+                        values.add(DataCodec.encode("{}", -1));
+                    }
+                }
+                else {
+                    user.getDatas().stream().filter(JobData::isChanged).forEach(written::add);
+                    columns.add(COLUMN_DATA.getName());
+                    values.add(encodeJobData(user));
+                    jobs.putAll(user.getEncodedJobs());
+                }
+            }
+            if (boostersChanged) {
+                user.setBoostersChanged(false);
+                columns.add(COLUMN_BOOSTS.getName());
+                values.add(encode(user.getBoosterMap()));
+            }
+
+            UserChanges changes = new UserChanges(user, user.getVersion(), values, all, boostersChanged, records, jobs, written);
+            pending.add(changes);
+            groups.computeIfAbsent(columns, k -> new ArrayList<>()).add(changes);
+        });
+
+        if (pending.isEmpty()) return fullSave;
+
+        Set<UUID> conflicts = new HashSet<>();
+
+        try (Connection connection = this.getConnector().getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                for (var entry : groups.entrySet()) {
+                    List<UserChanges> changes = entry.getValue();
+                    for (int index = 0; index < changes.size(); index += batchSize) {
+                        List<UserChanges> batch = changes.subList(index, Math.min(changes.size(), index + batchSize));
+                        if (this.mysql) {
+                            conflicts.addAll(this.updateRows(connection, entry.getKey(), batch, now));
+                        }
+                        else conflicts.addAll(this.updateBatch(connection, entry.getKey(), batch));
+                    }
+                }
+
+                // Progress rows are written only along with their user rows, so rows of other servers are never overwritten.
+                List<ProgressRecord> records = new ArrayList<>();
+                pending.forEach(changes -> {
+                    if (!conflicts.contains(changes.user().getId())) records.addAll(changes.records());
+                });
+                this.progressStorage.save(connection, records);
+
+                connection.commit();
+            }
+            catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not save data of " + pending.size() + " users!");
+            exception.printStackTrace();
+
+            // Nothing was written, so write the same changes on next flush.
+            pending.forEach(changes -> {
+                restoreChanges(changes);
+                this.plugin.getUserManager().retrySave(changes.user());
+            });
+            return fullSave;
+        }
+
+        SyncManager sync = this.plugin.getSyncManager();
+        List<JobUser> conflicted = new ArrayList<>();
+        pending.forEach(changes -> {
+            JobUser user = changes.user();
+            if (conflicts.contains(user.getId())) {
+                restoreChanges(changes);
+                conflicted.add(user);
+                return;
+            }
+
+            user.setVersion(changes.version() + 1);
+            user.setLastUpdate(now);
+            user.getSyncedJobs().putAll(changes.jobs());
+
+            Set<String> jobIds = new HashSet<>();
+            if (changes.all()) jobIds.addAll(user.getDataMap().keySet());
+            changes.written().forEach(data -> {
+                jobIds.add(data.getJob().getId());
+                sync.publishLevel(user, data);
+            });
+            sync.publishUser(user, jobIds, changes.boosters());
+        });
+
+        if (!conflicted.isEmpty()) {
+            this.resolveConflicts(conflicted);
+        }
+        return fullSave;
+    }
+
+    private static void restoreChanges(@NotNull UserChanges changes) {
+        changes.written().forEach(data -> data.setChanged(true));
+        if (changes.all()) changes.user().setDataChanged(true);
+        if (changes.boosters()) changes.user().setBoostersChanged(true);
+    }
+
+    /**
+     * Fetches rows written by other servers, merges local changes into them and queues users to be saved again.
+     * Users that could not be fetched are queued too: in full if their row is missing, otherwise to try again on next flush.
+     */
+    private void resolveConflicts(@NotNull List<JobUser> users) {
+        Map<UUID, JobUser> userMap = new HashMap<>();
+        users.forEach(user -> userMap.put(user.getId(), user));
+
+        List<UUID> ids = new ArrayList<>(userMap.keySet());
+        for (int index = 0; index < ids.size(); index += SYNC_CHUNK) {
+            this.fetchUsers(ids.subList(index, Math.min(ids.size(), index + SYNC_CHUNK))).forEach(fetched -> {
+                JobUser user = userMap.remove(fetched.getId());
+                if (user == null) return;
+
+                DataMerger.merge(user, fetched);
+                this.plugin.getUserManager().save(user);
+            });
+        }
+
+        userMap.values().forEach(user -> {
+            if (this.exists(user.getId())) {
+                this.plugin.getUserManager().retrySave(user);
+                return;
+            }
+
+            // Row was deleted meanwhile, insert it again with all data.
+            user.setStored(false);
+            user.setDataChanged(true);
+            this.plugin.getUserManager().retrySave(user);
+        });
+
+        this.plugin.debug("Merged concurrent changes of " + users.size() + " users.");
+    }
+
+    /**
+     * @return False only if the user row is known to be missing. Errors count as an existing row, so the user is not inserted over it.
+     */
+    private boolean exists(@NotNull UUID userId) {
+        String sql = "SELECT 1 FROM " + this.tableUsers + " WHERE " + COLUMN_USER_ID.getName() + " = ?";
+
+        try (Connection connection = this.getConnector().getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, userId.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+        catch (SQLException exception) {
+            exception.printStackTrace();
+            return true;
+        }
     }
 
+    /**
+     * Updates rows of several users with a single statement using CASE expressions. As the amount of updated rows does not tell
+     * which rows were skipped, they are read again if some rows were not updated.
+     * @return Ids of users whose rows were changed by another server.
+     */
     @NotNull
-    public Map<String, JobStats> getStats(@NotNull UUID playerId) {
-        var map = this.selectFirst(this.tableUsers, DataQueries.STATS_LOADER, query -> {
-            query.column(COLUMN_STATS).where(COLUMN_USER_ID, WhereOperator.EQUAL, playerId.toString());
+    private Set<UUID> updateRows(@NotNull Connection connection, @NotNull List<String> columns, @NotNull List<UserChanges> batch, long now) throws SQLException {
+        String idColumn = COLUMN_USER_ID.getName();
+        String versionColumn = COLUMN_VERSION.getName();
+        String cases = String.join(" ", Collections.nCopies(batch.size(), "WHEN ? THEN ?"));
+        String ids = String.join(", ", Collections.nCopies(batch.size(), "?"));
+
+        List<String> sets = new ArrayList<>();
+        columns.forEach(column -> sets.add(column + " = CASE " + idColumn + " " + cases + " END"));
+        sets.add(versionColumn + " = " + versionColumn + " + 1");
+
+        String sql = "UPDATE " + this.tableUsers + " SET " + String.join(", ", sets)
+            + " WHERE " + idColumn + " IN (" + ids + ") AND " + versionColumn + " = CASE " + idColumn + " " + cases + " END";
+
+        int updated;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (int column = 0; column < columns.size(); column++) {
+                for (UserChanges changes : batch) {
+                    statement.setString(index++, changes.user().getId().toString());
+                    statement.setString(index++, changes.values().get(column));
+                }
+            }
+            for (UserChanges changes : batch) {
+                statement.setString(index++, changes.user().getId().toString());
+            }
+            for (UserChanges changes : batch) {
+                statement.setString(index++, changes.user().getId().toString());
+                statement.setLong(index++, changes.version());
+            }
+            updated = statement.executeUpdate();
+        }
+
+        Set<UUID> conflicts = new HashSet<>();
+        if (updated >= batch.size()) return conflicts;
+
+        Map<UUID, Long> versions = new HashMap<>();
+        String selectSql = "SELECT " + idColumn + ", " + versionColumn + ", " + COLUMN_UPDATED.getName() + " FROM " + this.tableUsers
+            + " WHERE " + idColumn + " IN (" + ids + ")";
+
+        try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+            int index = 1;
+            for (UserChanges changes : batch) {
+                statement.setString(index++, changes.user().getId().toString());
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    // Row is ours if it got the expected version along with our write time.
+                    if (resultSet.getLong(3) != now) continue;
+
+                    versions.put(UUID.fromString(resultSet.getString(1)), resultSet.getLong(2));
+                }
+            }
+        }
+
+        batch.forEach(changes -> {
+            UUID id = changes.user().getId();
+            Long version = versions.get(id);
+            if (version == null || version != changes.version() + 1) conflicts.add(id);
         });
+        return conflicts;
+    }
+
+    /**
+     * @return Ids of users whose rows were changed by another server.
+     */
+    @NotNull
+    private Set<UUID> updateBatch(@NotNull Connection connection, @NotNull List<String> columns, @NotNull List<UserChanges> batch) throws SQLException {
+        String versionColumn = COLUMN_VERSION.getName();
+        String sql = "UPDATE " + this.tableUsers + " SET " + String.join(" = ?, ", columns) + " = ?, " + versionColumn + " = " + versionColumn + " + 1"
+            + " WHERE " + COLUMN_USER_ID.getName() + " = ? AND " + versionColumn + " = ?";
+
+        int[] results;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (UserChanges changes : batch) {
+                int index = 1;
+                for (String value : changes.values()) {
+                    statement.setString(index++, value);
+                }
+                statement.setString(index++, changes.user().getId().toString());
+                statement.setLong(index, changes.version());
+                statement.addBatch();
+            }
+            results = statement.executeBatch();
+        }
+
+        Set<UUID> conflicts = new HashSet<>();
+        for (int index = 0; index < results.length; index++) {
+            if (results[index] == 0) conflicts.add(batch.get(index).user().getId());
+        }
+        return conflicts;
+    }
+
+    /**
+     * Changes a single job of the user directly in the database, reading and writing data of that job only instead of loading the whole user.
+     * The row version is increased, so servers having the user loaded merge the change on next save or sync.
+     * Must be called off the main thread.
+     * @param mutator Applied to the stored job data. Called again if the row was written by another server meanwhile.
+     * @return Changed job data, or null if there is no such user or it could not be written.
+     */
+    @Nullable
+    public JobUpdate updateJob(@NotNull String userName, @NotNull Job job, @NotNull Consumer<JobData> mutator) {
+        for (int attempt = 0; attempt < UPDATE_ATTEMPTS; attempt++) {
+            try (Connection connection = this.getConnector().getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+
+                try {
+                    StoredUser stored = this.readUser(connection, userName);
+                    if (stored == null) {
+                        connection.commit();
+                        return null;
+                    }
+
+                    JobData data = this.readJob(connection, stored, job);
+                    JobState previousState = data.getState();
+                    mutator.accept(data);
+
+                    if (this.writeJob(connection, stored, data)) {
+                        connection.commit();
+                        return new JobUpdate(stored.userId(), stored.userName(), previousState, data);
+                    }
+                    connection.rollback();
+                }
+                catch (SQLException | RuntimeException exception) {
+                    connection.rollback();
+                    throw exception;
+                }
+                finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+            catch (SQLException | RuntimeException exception) {
+                this.plugin.error("Could not update '" + job.getId() + "' job data of " + userName + "!");
+                exception.printStackTrace();
+                return null;
+            }
+        }
+
+        this.plugin.warn("Could not update '" + job.getId() + "' job data of " + userName + ": row is being changed by another server.");
+        return null;
+    }
+
+    /**
+     * Version and job data column of a user row, read for a single job update.
+     */
+    private record StoredUser(@NotNull UUID userId, @NotNull String userName, long version, @NotNull JsonObject jobs) {}
+
+    @Nullable
+    private StoredUser readUser(@NotNull Connection connection, @NotNull String userName) throws SQLException {
+        String sql = "SELECT " + COLUMN_USER_ID.getName() + ", " + COLUMN_USER_NAME.getName() + ", " + COLUMN_VERSION.getName() + ", " + COLUMN_DATA.getName()
+            + " FROM " + this.tableUsers + " WHERE " + COLUMN_USER_NAME.getName() + (this.mysql ? " = ?" : " = ? COLLATE NOCASE") + " LIMIT 1";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, userName);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) return null;
+
+                String json = DataCodec.decode(resultSet.getString(4));
+                JsonElement element = json == null || json.isBlank() ? null : JsonParser.parseString(json);
+                JsonObject jobs = element != null && element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+
+                return new StoredUser(UUID.fromString(resultSet.getString(1)), resultSet.getString(2), resultSet.getLong(3), jobs);
+            }
+        }
+    }
+
+    @NotNull
+    private JobData readJob(@NotNull Connection connection, @NotNull StoredUser stored, @NotNull Job job) throws SQLException {
+        JobData data = null;
+
+        String payload = this.progressTable ? this.progressStorage.load(connection, stored.userId(), job.getId()) : null;
+        if (payload != null) {
+            data = GSON.fromJson(payload, JobData.class);
+        }
+        else {
+            JsonElement element = stored.jobs().get(job.getId());
+            if (element != null && element.isJsonObject()) data = GSON.fromJson(element, JobData.class);
+        }
+
+        return data == null ? JobData.create(job) : data;
+    }
+
+    /**
+     * Writes the job data along with the increased row version, only if the row was not written by another server since it was read.
+     * @return True if the job data was written.
+     */
+    private boolean writeJob(@NotNull Connection connection, @NotNull StoredUser stored, @NotNull JobData data) throws SQLException {
+        long now = System.currentTimeMillis();
+        String jobId = data.getJob().getId();
+        String versionColumn = COLUMN_VERSION.getName();
+
+        String value = null;
+        if (!this.progressTable) {
+            if (data.isDefault()) {
+                stored.jobs().remove(jobId);
+            }
+            else stored.jobs().add(jobId, GSON.toJsonTree(data, JobData.class));
+            value = DataCodec.encode(stored.jobs().toString(), Config.DATA_COMPRESSION_THRESHOLD.get());
+        }
+
+        String sql = "UPDATE " + this.tableUsers + " SET " + (value == null ? "" : COLUMN_DATA.getName() + " = ?, ")
+            + COLUMN_UPDATED.getName() + " = ?, " + versionColumn + " = " + versionColumn + " + 1"
+            + " WHERE " + COLUMN_USER_ID.getName() + " = ? AND " + versionColumn + " = ?";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (value != null) statement.setString(index++, value);
+            statement.setLong(index++, now);
+            statement.setString(index++, stored.userId().toString());
+            statement.setLong(index, stored.version());
+            if (statement.executeUpdate() == 0) return false;
+        }
+
+        if (this.progressTable) {
+            String json = GSON.toJson(data, JobData.class);
+            this.progressStorage.save(connection, Collections.singletonList(
+                new ProgressRecord(stored.userId(), jobId, data.getState(), data.getLevel(), data.getXP(), data.getLevelDate(), json, now)));
+        }
+        return true;
+    }
+
+    /**
+     * Reads a page of users for a bulk operation. Must be called off the main thread.
+     * @param after Id of the last processed user, or empty string to read from the start.
+     */
+    @NotNull
+    public List<BulkUser> readBulkPage(@NotNull String after, int limit) throws SQLException {
+        return this.bulkStorage.readPage(this.tableUsers, COLUMN_USER_ID.getName(), COLUMN_USER_NAME.getName(), this.progressTable, after, limit);
+    }
+
+    @NotNull
+    public List<BulkUser> readBulkUsers(@NotNull Collection<UUID> ids) throws SQLException {
+        return this.bulkStorage.readUsers(this.tableUsers, COLUMN_USER_ID.getName(), COLUMN_USER_NAME.getName(), this.progressTable, ids);
+    }
+
+    /**
+     * Writes job data changed by a bulk operation in a single transaction.
+     * @return Ids of users whose rows were changed by another server meanwhile and were not written.
+     */
+    @NotNull
+    public Set<UUID> writeBulkUsers(@NotNull List<BulkUser> users) throws SQLException {
+        return this.bulkStorage.write(this.tableUsers, COLUMN_USER_ID.getName(), this.progressTable, users);
+    }
+
+    /**
+     * Deletes progress rows of jobs removed from loaded users by a bulk operation. Does nothing if the progress table is disabled.
+     */
+    public void deleteBulkProgress(@NotNull Map<UUID, ? extends Collection<String>> jobIds) throws SQLException {
+        if (!this.progressTable) return;
+
+        this.bulkStorage.deleteProgress(jobIds);
+    }
+
+    @NotNull
+    public Map<String, JobStats> getStats(@NotNull UUID playerId, @NotNull LocalDate since) {
+        return this.statsStorage.load(playerId, since);
+    }
+
+    @NotNull
+    public Map<String, Map<String, DayStats>> getStatsHistory(@NotNull UUID playerId, @NotNull LocalDate from, @NotNull LocalDate until) {
+        return this.statsStorage.loadDays(playerId, from, until);
+    }
+
+    public boolean saveStats(@NotNull Collection<StatsRecord> records) {
+        return this.statsStorage.save(records);
+    }
+
+    public void loadStatsTotals(@NotNull StatsType type, @Nullable LocalDate since, @NotNull Consumer<StatsTotal> consumer) {
+        this.statsStorage.loadTotals(type, since, this.tableUsers, COLUMN_USER_ID.getName(), COLUMN_USER_NAME.getName(), consumer);
+    }
+
+    /**
+     * @return Marker that changes when users or stats are written, or 0 if it could not be read.
+     */
+    public long getVersionMarker() {
+        return this.statsStorage.getVersionMarker(this.tableUsers, COLUMN_UPDATED.getName());
+    }
+
+    /**
+     * Reads job progress of all users selecting only id, name and data columns, or from the progress table if it's enabled.
+     */
+    public void loadJobProgress(@NotNull Consumer<JobProgress> consumer) {
+        if (this.progressTable) {
+            this.progressStorage.loadProgress(this.tableUsers, COLUMN_USER_ID.getName(), COLUMN_USER_NAME.getName(), consumer);
+            return;
+        }
+
+        this.select(this.tableUsers, resultSet -> {
+            try {
+                UUID uuid = UUID.fromString(resultSet.getString(COLUMN_USER_ID.getName()));
+                String name = resultSet.getString(COLUMN_USER_NAME.getName());
+
+                DataQueries.readJobProgress(uuid, name, resultSet.getString(COLUMN_DATA.getName()), consumer);
+            }
+            catch (SQLException exception) {
+                exception.printStackTrace();
+            }
+            return null;
+        }, query -> query.column(COLUMN_USER_ID).column(COLUMN_USER_NAME).column(COLUMN_DATA));
+    }
+
+    /**
+     * Counts active job states of all users, except the given ones, selecting only id and data columns.
+     * @return Map of job ids to employee counters.
+     */
+    @NotNull
+    public Map<String, Map<JobState, Integer>> countEmployees(@NotNull Set<UUID> excluded) {
+        if (this.progressTable) return this.progressStorage.countEmployees(excluded);
+
+        Map<String, Map<JobState, Integer>> counts = new HashMap<>();
+
+        this.select(this.tableUsers, resultSet -> {
+            try {
+                UUID uuid = UUID.fromString(resultSet.getString(COLUMN_USER_ID.getName()));
+                if (excluded.contains(uuid)) return null;
+
+                DataQueries.readJobStates(resultSet.getString(COLUMN_DATA.getName()), (jobId, state) -> {
+                    if (state == JobState.INACTIVE) return;
+
+                    counts.computeIfAbsent(jobId, k -> new EnumMap<>(JobState.class)).merge(state, 1, Integer::sum);
+                });
+            }
+            catch (SQLException exception) {
+                exception.printStackTrace();
+            }
+            return null;
+        }, query -> query.column(COLUMN_USER_ID).column(COLUMN_DATA));
 
-        return map == null ? Collections.emptyMap() : map;
+        return counts;
     }
 
 //    @NotNull
@@ -0,0 +1,155 @@
+package su.nightexpress.excellentjobs.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.data.impl.JobLimitData;
+import su.nightexpress.excellentjobs.data.impl.JobOrderData;
+import su.nightexpress.excellentjobs.job.impl.Job;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+import su.nightexpress.excellentjobs.user.JobUser;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Merges local changes of a user into data written by another server. Additive values (XP, daily limits, obtained rewards)
+ * are merged as deltas since the last synced state, other values are taken from the side that changed them.
+ */
+public class DataMerger {
+
+    /**
+     * Applies fetched data to the loaded user. Jobs without local changes are replaced, changed jobs are merged and marked as changed,
+     * so they are written on next save on top of the fetched version.
+     */
+    public static void merge(@NotNull JobUser user, @NotNull JobUser fetched) {
+        merge(user, fetched, null, true);
+    }
+
+    /**
+     * Applies only the given sections of fetched data to the loaded user.
+     * @param jobIds Ids of jobs to apply, or null to apply all jobs.
+     * @param boosters Whether to apply personal boosters.
+     */
+    public static void merge(@NotNull JobUser user, @NotNull JobUser fetched, @Nullable Set<String> jobIds, boolean boosters) {
+        Map<String, String> synced = user.getSyncedJobs();
+        Map<String, String> encoded = user.getEncodedJobs();
+
+        fetched.getDataMap().forEach((jobId, remote) -> {
+            if (jobIds != null && !jobIds.contains(jobId)) return;
+
+            JobData local = user.getDataMap().get(jobId);
+            String baseJson = synced.get(jobId);
+
+            if (local == null || (!local.isChanged() && Objects.equals(encoded.get(jobId), baseJson))) {
+                user.getDataMap().put(jobId, remote);
+            }
+            else {
+                JobData merged = mergeJob(local, remote, parse(remote.getJob(), baseJson));
+                merged.setChanged(true);
+                user.getDataMap().put(jobId, merged);
+            }
+            encoded.remove(jobId);
+
+            // Fetched state is the new base for later merges.
+            synced.put(jobId, fetched.getSyncedJobs().getOrDefault(jobId, ""));
+        });
+
+        if (boosters && !user.isBoostersChanged()) {
+            user.getBoosterMap().keySet().retainAll(fetched.getBoosterMap().keySet());
+            user.getBoosterMap().putAll(fetched.getBoosterMap());
+        }
+
+        // Version of a partial merge is taken only if no other write could be missed, otherwise next save detects a conflict and merges all.
+        if ((jobIds == null && boosters) || fetched.getVersion() == user.getVersion() + 1) {
+            user.setVersion(fetched.getVersion());
+            user.setLastUpdate(fetched.getLastUpdate());
+        }
+    }
+
+    @NotNull
+    private static JobData parse(@NotNull Job job, @Nullable String json) {
+        if (json == null || json.isEmpty()) return JobData.create(job);
+
+        JobData data = DataHandler.GSON.fromJson(json, JobData.class);
+        return data == null ? JobData.create(job) : data;
+    }
+
+    @NotNull
+    private static JobData mergeJob(@NotNull JobData local, @NotNull JobData remote, @NotNull JobData base) {
+        // Player joined the job here, there is nothing to add to.
+        if (base.getLevel() == 0) return local;
+
+        Job job = remote.getJob();
+        JobState state = local.getState() != base.getState() ? local.getState() : remote.getState();
+
+        JobOrderData order = remote.getOrderData();
+        if (!toJson(local.getOrderData()).equals(toJson(base.getOrderData()))) {
+            order = local.getOrderData();
+        }
+
+        long nextOrderDate = local.getNextOrderDate() != base.getNextOrderDate() ? local.getNextOrderDate() : remote.getNextOrderDate();
+
+        Set<Integer> rewards = new HashSet<>(remote.getObtainedLevelRewards());
+        rewards.addAll(local.getObtainedLevelRewards());
+
+        JobLimitData limits = mergeLimits(local.getLimitData(), remote.getLimitData(), base.getLimitData());
+
+        JobData merged = new JobData(job, state, remote.getLevel(), remote.getXP(), limits, order, nextOrderDate, rewards);
+        merged.setLevelDate(remote.getLevelDate());
+
+        long delta = getTotalXP(local) - getTotalXP(base);
+        if (delta > 0) {
+            merged.addXP((int) Math.min(delta, Integer.MAX_VALUE));
+        }
+        else if (delta < 0) {
+            merged.removeXP((int) Math.min(-delta, Integer.MAX_VALUE));
+        }
+
+        return merged;
+    }
+
+    @NotNull
+    private static JobLimitData mergeLimits(@NotNull JobLimitData local, @NotNull JobLimitData remote, @NotNull JobLimitData base) {
+        // Limits were reset on one side only, values of the latest period win.
+        if (local.getExpireDate() != remote.getExpireDate()) {
+            return local.getExpireDate() > remote.getExpireDate() ? copy(local) : copy(remote);
+        }
+
+        boolean samePeriod = local.getExpireDate() == base.getExpireDate();
+        Map<String, Double> currencies = new HashMap<>(remote.getCurrencyEarned());
+        local.getCurrencyEarned().forEach((id, amount) -> {
+            double delta = samePeriod ? amount - base.getCurrencyEarned(id) : amount;
+            if (delta > 0D) currencies.merge(id, delta, Double::sum);
+        });
+
+        double xpDelta = samePeriod ? local.getXPEarned() - base.getXPEarned() : local.getXPEarned();
+        double xpEarned = remote.getXPEarned() + Math.max(0D, xpDelta);
+
+        return new JobLimitData(remote.getJobId(), currencies, xpEarned, remote.getExpireDate());
+    }
+
+    @NotNull
+    private static JobLimitData copy(@NotNull JobLimitData limits) {
+        return new JobLimitData(limits.getJobId(), new HashMap<>(limits.getCurrencyEarned()), limits.getXPEarned(), limits.getExpireDate());
+    }
+
+    /**
+     * @return XP collected on all levels up to the current one.
+     */
+    private static long getTotalXP(@NotNull JobData data) {
+        long total = data.getXP();
+        for (int level = 1; level < data.getLevel(); level++) {
+            total += data.getJob().getXPToLevel(level);
+        }
+        return total;
+    }
+
+    @NotNull
+    private static String toJson(@NotNull JobOrderData orderData) {
+        return DataHandler.GSON.toJson(orderData, JobOrderData.class);
+    }
+}
@@ -1,23 +1,118 @@
 package su.nightexpress.excellentjobs.data;
 
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import su.nightexpress.excellentjobs.data.impl.JobProgress;
+import su.nightexpress.excellentjobs.job.impl.JobState;
 import su.nightexpress.excellentjobs.stats.impl.JobStats;
+import su.nightexpress.nightcore.util.StringUtil;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class DataQueries {
 
     public static final Function<ResultSet, Map<String, JobStats>> STATS_LOADER = resultSet -> {
         try {
-            return DataHandler.GSON.fromJson(resultSet.getString(DataHandler.COLUMN_STATS.getName()), new TypeToken<Map<String, JobStats>>(){}.getType());
+            return DataHandler.GSON.fromJson(DataCodec.decode(resultSet.getString(DataHandler.COLUMN_STATS.getName())), new TypeToken<Map<String, JobStats>>(){}.getType());
         }
         catch (SQLException exception) {
             exception.printStackTrace();
             return Collections.emptyMap();
         }
     };
+
+    /**
+     * Streams job state, level and xp from the user data column without building JobData objects.
+     */
+    public static void readJobProgress(@NotNull UUID userId, @NotNull String userName, @Nullable String value, @NotNull Consumer<JobProgress> consumer) {
+        String json = DataCodec.decode(value);
+        if (json == null || json.isBlank()) return;
+
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) return;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String jobId = reader.nextName();
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                JobState state = JobState.INACTIVE;
+                int level = 0;
+                int xp = 0;
+                long levelDate = 0L;
+
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "s", "state" -> state = StringUtil.getEnum(reader.nextString(), JobState.class).orElse(JobState.INACTIVE);
+                        case "l", "level" -> level = reader.nextInt();
+                        case "x", "xp" -> xp = reader.nextInt();
+                        case "ld", "levelDate" -> levelDate = reader.nextLong();
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
+
+                consumer.accept(new JobProgress(userId, userName, jobId.toLowerCase(), state, level, xp, levelDate));
+            }
+            reader.endObject();
+        }
+        catch (IOException | IllegalArgumentException | IllegalStateException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Streams only job states from the user data column, skipping everything else.
+     */
+    public static void readJobStates(@Nullable String value, @NotNull BiConsumer<String, JobState> consumer) {
+        String json = DataCodec.decode(value);
+        if (json == null || json.isBlank()) return;
+
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) return;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String jobId = reader.nextName();
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                JobState state = JobState.INACTIVE;
+
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (name.equals("s") || name.equals("state")) {
+                        state = StringUtil.getEnum(reader.nextString(), JobState.class).orElse(JobState.INACTIVE);
+                    }
+                    else reader.skipValue();
+                }
+                reader.endObject();
+
+                consumer.accept(jobId.toLowerCase(), state);
+            }
+            reader.endObject();
+        }
+        catch (IOException | IllegalArgumentException | IllegalStateException exception) {
+            exception.printStackTrace();
+        }
+    }
 }
@@ -0,0 +1,507 @@
+package su.nightexpress.excellentjobs.data;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import su.nightexpress.excellentjobs.JobsPlugin;
+import su.nightexpress.excellentjobs.data.impl.JobProgress;
+import su.nightexpress.excellentjobs.data.impl.ProgressRecord;
+import su.nightexpress.excellentjobs.data.serialize.CompactJson;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+import su.nightexpress.nightcore.util.StringUtil;
+
+import java.sql.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Stores job progress in a separate table, one row per user and job, so a change in a single job writes one small row.
+ * State, level and XP are duplicated into indexed columns for leaderboards and employee counters.
+ */
+public class ProgressStorage {
+
+    private static final String COLUMN_USER_ID    = "user_id";
+    private static final String COLUMN_JOB_ID     = "job_id";
+    private static final String COLUMN_STATE      = "state";
+    private static final String COLUMN_LEVEL      = "level";
+    private static final String COLUMN_XP         = "xp";
+    private static final String COLUMN_LEVEL_DATE = "level_date";
+    private static final String COLUMN_PAYLOAD    = "payload";
+    private static final String COLUMN_UPDATED_AT = "updated_at";
+
+    private static final String INACTIVE = "'" + JobState.INACTIVE.name() + "'";
+
+    private static final int COUNT_CHUNK  = 500;
+    private static final int MIGRATE_PAGE = 500;
+
+    private final JobsPlugin  plugin;
+    private final DataHandler dataHandler;
+    private final String      table;
+
+    private boolean mysql;
+
+    public ProgressStorage(@NotNull JobsPlugin plugin, @NotNull DataHandler dataHandler, @NotNull String table) {
+        this.plugin = plugin;
+        this.dataHandler = dataHandler;
+        this.table = table;
+    }
+
+    @NotNull
+    private Connection getConnection() throws SQLException {
+        return this.dataHandler.getConnector().getConnection();
+    }
+
+    public void createTable() {
+        try (Connection connection = this.getConnection(); Statement statement = connection.createStatement()) {
+            this.mysql = !connection.getMetaData().getDatabaseProductName().toLowerCase().contains("sqlite");
+
+            String levelIndex = "(" + COLUMN_JOB_ID + ", " + COLUMN_LEVEL + " DESC, " + COLUMN_XP + " DESC)";
+            String stateIndex = "(" + COLUMN_JOB_ID + ", " + COLUMN_STATE + ")";
+
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + this.table + " ("
+                + COLUMN_USER_ID + " VARCHAR(36) NOT NULL, "
+                + COLUMN_JOB_ID + " VARCHAR(64) NOT NULL, "
+                + COLUMN_STATE + " VARCHAR(16) NOT NULL, "
+                + COLUMN_LEVEL + " INT NOT NULL DEFAULT 0, "
+                + COLUMN_XP + " INT NOT NULL DEFAULT 0, "
+                + COLUMN_LEVEL_DATE + " BIGINT NOT NULL DEFAULT 0, "
+                + COLUMN_PAYLOAD + " TEXT NOT NULL, "
+                + COLUMN_UPDATED_AT + " BIGINT NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (" + COLUMN_USER_ID + ", " + COLUMN_JOB_ID + ")"
+                + (this.mysql ? ", INDEX idx_level " + levelIndex + ", INDEX idx_state " + stateIndex : "")
+                + ")");
+
+            if (!this.mysql) {
+                statement.executeUpdate("CREATE INDEX IF NOT EXISTS " + this.table + "_level ON " + this.table + " " + levelIndex);
+                statement.executeUpdate("CREATE INDEX IF NOT EXISTS " + this.table + "_state ON " + this.table + " " + stateIndex);
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not create progress table '" + this.table + "'!");
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes job progress rows in a single transaction using batched upserts.
+     * @return False if nothing was written.
+     */
+    public boolean save(@NotNull Collection<ProgressRecord> records) {
+        if (records.isEmpty()) return true;
+
+        try (Connection connection = this.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                this.save(connection, records);
+                connection.commit();
+                return true;
+            }
+            catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not save job progress!");
+            exception.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Writes job progress rows using the given connection, leaving transaction handling to the caller.
+     */
+    void save(@NotNull Connection connection, @NotNull Collection<ProgressRecord> records) throws SQLException {
+        this.write(connection, this.getUpsertSql(), records);
+    }
+
+    private void write(@NotNull Connection connection, @NotNull String sql, @NotNull Collection<ProgressRecord> records) throws SQLException {
+        if (records.isEmpty()) return;
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (ProgressRecord record : records) {
+                statement.setString(1, record.userId().toString());
+                statement.setString(2, record.jobId());
+                statement.setString(3, record.state().name());
+                statement.setInt(4, record.level());
+                statement.setInt(5, record.xp());
+                statement.setLong(6, record.levelDate());
+                statement.setString(7, record.payload());
+                statement.setLong(8, record.updatedAt());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @NotNull
+    private String getColumns() {
+        return String.join(", ", COLUMN_USER_ID, COLUMN_JOB_ID, COLUMN_STATE, COLUMN_LEVEL, COLUMN_XP, COLUMN_LEVEL_DATE, COLUMN_PAYLOAD, COLUMN_UPDATED_AT);
+    }
+
+    @NotNull
+    private String getInsertSql() {
+        return "INSERT " + (this.mysql ? "IGNORE" : "OR IGNORE") + " INTO " + this.table + " (" + this.getColumns() + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    @NotNull
+    private String getUpsertSql() {
+        List<String> updates = new ArrayList<>();
+        for (String column : new String[]{COLUMN_STATE, COLUMN_LEVEL, COLUMN_XP, COLUMN_LEVEL_DATE, COLUMN_PAYLOAD, COLUMN_UPDATED_AT}) {
+            updates.add(column + " = " + (this.mysql ? "VALUES(" + column + ")" : "excluded." + column));
+        }
+
+        return "INSERT INTO " + this.table + " (" + this.getColumns() + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?) " + (this.mysql
+            ? "ON DUPLICATE KEY UPDATE "
+            : "ON CONFLICT (" + COLUMN_USER_ID + ", " + COLUMN_JOB_ID + ") DO UPDATE SET ") + String.join(", ", updates);
+    }
+
+    /**
+     * @return Encoded data of a single job of the user, or null if there is no row for it.
+     */
+    @Nullable
+    String load(@NotNull Connection connection, @NotNull UUID userId, @NotNull String jobId) throws SQLException {
+        String sql = "SELECT " + COLUMN_PAYLOAD + " FROM " + this.table + " WHERE " + COLUMN_USER_ID + " = ? AND " + COLUMN_JOB_ID + " = ?";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, userId.toString());
+            statement.setString(2, jobId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * @return Map of user ids to encoded job data by job ids, for the given users.
+     */
+    @NotNull
+    Map<UUID, Map<String, String>> load(@NotNull Connection connection, @NotNull Collection<UUID> userIds) throws SQLException {
+        Map<UUID, Map<String, String>> payloads = new HashMap<>();
+        if (userIds.isEmpty()) return payloads;
+
+        String sql = "SELECT " + COLUMN_USER_ID + ", " + COLUMN_JOB_ID + ", " + COLUMN_PAYLOAD + " FROM " + this.table
+            + " WHERE " + COLUMN_USER_ID + " IN (" + String.join(", ", Collections.nCopies(userIds.size(), "?")) + ")";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (UUID userId : userIds) {
+                statement.setString(index++, userId.toString());
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    UUID userId = UUID.fromString(resultSet.getString(1));
+                    payloads.computeIfAbsent(userId, k -> new HashMap<>()).put(resultSet.getString(2), resultSet.getString(3));
+                }
+            }
+        }
+
+        return payloads;
+    }
+
+    /**
+     * Deletes rows of the given jobs using the given connection, leaving transaction handling to the caller.
+     * @param jobIds Map of user ids to ids of jobs to delete.
+     */
+    void delete(@NotNull Connection connection, @NotNull Map<UUID, ? extends Collection<String>> jobIds) throws SQLException {
+        if (jobIds.isEmpty()) return;
+
+        String sql = "DELETE FROM " + this.table + " WHERE " + COLUMN_USER_ID + " = ? AND " + COLUMN_JOB_ID + " = ?";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (var entry : jobIds.entrySet()) {
+                for (String jobId : entry.getValue()) {
+                    statement.setString(1, entry.getKey().toString());
+                    statement.setString(2, jobId);
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Deletes all rows of the given users using the given connection, leaving transaction handling to the caller.
+     */
+    private void delete(@NotNull Connection connection, @NotNull List<UUID> userIds) throws SQLException {
+        if (userIds.isEmpty()) return;
+
+        String sql = "DELETE FROM " + this.table + " WHERE " + COLUMN_USER_ID + " IN (" + String.join(", ", Collections.nCopies(userIds.size(), "?")) + ")";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (UUID userId : userIds) {
+                statement.setString(index++, userId.toString());
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads progress of all users from indexed columns, best levels of each job first.
+     */
+    public void loadProgress(@NotNull String usersTable, @NotNull String idColumn, @NotNull String nameColumn, @NotNull Consumer<JobProgress> consumer) {
+        String sql = "SELECT p." + COLUMN_USER_ID + ", u." + nameColumn + ", p." + COLUMN_JOB_ID + ", p." + COLUMN_STATE + ", p." + COLUMN_LEVEL
+            + ", p." + COLUMN_XP + ", p." + COLUMN_LEVEL_DATE
+            + " FROM " + this.table + " p JOIN " + usersTable + " u ON u." + idColumn + " = p." + COLUMN_USER_ID
+            + " ORDER BY p." + COLUMN_JOB_ID + ", p." + COLUMN_LEVEL + " DESC, p." + COLUMN_XP + " DESC";
+
+        try (Connection connection = this.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+
+            while (resultSet.next()) {
+                UUID userId = UUID.fromString(resultSet.getString(1));
+                JobState state = StringUtil.getEnum(resultSet.getString(4), JobState.class).orElse(JobState.INACTIVE);
+
+                consumer.accept(new JobProgress(userId, resultSet.getString(2), resultSet.getString(3), state,
+                    resultSet.getInt(5), resultSet.getInt(6), resultSet.getLong(7)));
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not load job progress!");
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Counts active job states of all users grouped by the database, then subtracts stored states of the given users,
+     * so only rows of the excluded users are sent over instead of the whole table.
+     * @return Map of job ids to employee counters.
+     */
+    @NotNull
+    public Map<String, Map<JobState, Integer>> countEmployees(@NotNull Set<UUID> excluded) {
+        Map<String, Map<JobState, Integer>> counts = new HashMap<>();
+        String sql = "SELECT " + COLUMN_JOB_ID + ", " + COLUMN_STATE + ", COUNT(*) FROM " + this.table
+            + " WHERE " + COLUMN_STATE + " <> " + INACTIVE + " GROUP BY " + COLUMN_JOB_ID + ", " + COLUMN_STATE;
+
+        try (Connection connection = this.getConnection()) {
+            try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+                while (resultSet.next()) {
+                    JobState state = StringUtil.getEnum(resultSet.getString(2), JobState.class).orElse(JobState.INACTIVE);
+                    if (state == JobState.INACTIVE) continue;
+
+                    counts.computeIfAbsent(resultSet.getString(1), k -> new EnumMap<>(JobState.class)).merge(state, resultSet.getInt(3), Integer::sum);
+                }
+            }
+
+            List<UUID> ids = new ArrayList<>(excluded);
+            for (int index = 0; index < ids.size(); index += COUNT_CHUNK) {
+                this.subtractStates(connection, ids.subList(index, Math.min(ids.size(), index + COUNT_CHUNK)), counts);
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not count job employees!");
+            exception.printStackTrace();
+        }
+
+        return counts;
+    }
+
+    private void subtractStates(@NotNull Connection connection, @NotNull List<UUID> userIds, @NotNull Map<String, Map<JobState, Integer>> counts) throws SQLException {
+        String sql = "SELECT " + COLUMN_JOB_ID + ", " + COLUMN_STATE + " FROM " + this.table + " WHERE " + COLUMN_STATE + " <> " + INACTIVE
+            + " AND " + COLUMN_USER_ID + " IN (" + String.join(", ", Collections.nCopies(userIds.size(), "?")) + ")";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (UUID userId : userIds) {
+                statement.setString(index++, userId.toString());
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    JobState state = StringUtil.getEnum(resultSet.getString(2), JobState.class).orElse(JobState.INACTIVE);
+                    Map<JobState, Integer> jobCounts = counts.get(resultSet.getString(1));
+                    if (jobCounts == null || state == JobState.INACTIVE) continue;
+
+                    jobCounts.computeIfPresent(state, (key, count) -> Math.max(0, count - 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves job progress from the data column of users table into this table, in pages of users ordered by id.
+     * Rows of each page are inserted in the same transaction that clears the column of their users, only for users not written
+     * meanwhile, and never over existing rows, as they are newer than the column. Jobs players never joined are skipped.
+     */
+    public void migrate(@NotNull String usersTable, @NotNull String idColumn, @NotNull String dataColumn, @NotNull String versionColumn) {
+        String cleared = DataCodec.encode("{}", -1);
+        String selectSql = "SELECT " + idColumn + ", " + dataColumn + ", " + versionColumn + " FROM " + usersTable
+            + " WHERE " + idColumn + " > ? AND " + dataColumn + " IS NOT NULL AND " + dataColumn + " NOT IN ('', '{}', ?)"
+            + " ORDER BY " + idColumn + " LIMIT " + MIGRATE_PAGE;
+        String clearSql = "UPDATE " + usersTable + " SET " + dataColumn + " = ? WHERE " + idColumn + " = ? AND " + versionColumn + " = ?";
+
+        long now = System.currentTimeMillis();
+        String cursor = "";
+        int migrated = 0;
+
+        try (Connection connection = this.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement select = connection.prepareStatement(selectSql); PreparedStatement clear = connection.prepareStatement(clearSql)) {
+                while (true) {
+                    List<String[]> page = new ArrayList<>();
+                    select.setString(1, cursor);
+                    select.setString(2, cleared);
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        while (resultSet.next()) {
+                            page.add(new String[]{resultSet.getString(1), resultSet.getString(2), String.valueOf(resultSet.getLong(3))});
+                        }
+                    }
+                    if (page.isEmpty()) break;
+
+                    List<ProgressRecord> records = new ArrayList<>();
+                    for (String[] row : page) {
+                        cursor = row[0];
+
+                        List<ProgressRecord> userRecords;
+                        try {
+                            userRecords = toRecords(UUID.fromString(row[0]), DataCodec.decode(row[1]), now);
+                        }
+                        catch (RuntimeException exception) {
+                            this.plugin.warn("Could not migrate job progress of " + row[0] + ": " + exception.getMessage());
+                            continue;
+                        }
+
+                        clear.setString(1, cleared);
+                        clear.setString(2, row[0]);
+                        clear.setLong(3, Long.parseLong(row[2]));
+                        if (clear.executeUpdate() != 1) continue;
+
+                        records.addAll(userRecords);
+                        migrated++;
+                    }
+
+                    this.write(connection, this.getInsertSql(), records);
+                    connection.commit();
+                }
+            }
+            catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not migrate job progress into '" + this.table + "' table! It will be continued on next startup.");
+            exception.printStackTrace();
+        }
+
+        if (migrated > 0) {
+            this.plugin.info("Migrated job progress of " + migrated + " users into '" + this.table + "' table.");
+        }
+    }
+
+    @NotNull
+    private static List<ProgressRecord> toRecords(@NotNull UUID userId, @Nullable String json, long now) {
+        List<ProgressRecord> records = new ArrayList<>();
+        if (json == null || json.isBlank()) return records;
+
+        JsonElement element = JsonParser.parseString(json);
+        if (!element.isJsonObject()) return records;
+
+        element.getAsJsonObject().entrySet().forEach(entry -> {
+            if (!entry.getValue().isJsonObject()) return;
+
+            ProgressRecord record = toRecord(userId, entry.getKey().toLowerCase(), entry.getValue().getAsJsonObject(), now);
+            if (record != null) records.add(record);
+        });
+        return records;
+    }
+
+    @Nullable
+    private static ProgressRecord toRecord(@NotNull UUID userId, @NotNull String jobId, @NotNull JsonObject object, long now) {
+        String stateName = CompactJson.getString(object, "s", "state");
+        JobState state = stateName == null ? JobState.INACTIVE : StringUtil.getEnum(stateName, JobState.class).orElse(JobState.INACTIVE);
+        int level = CompactJson.getInt(object, "l", "level", 0);
+        int xp = CompactJson.getInt(object, "x", "xp", 0);
+        long levelDate = CompactJson.getLong(object, "ld", "levelDate", 0L);
+
+        // Jobs player never joined.
+        if (state == JobState.INACTIVE && level == 0 && xp == 0) return null;
+
+        return new ProgressRecord(userId, jobId, state, level, xp, levelDate, object.toString(), now);
+    }
+
+    /**
+     * Moves job progress back into the data column of users table when the progress table is disabled, in pages of users
+     * ordered by id. Rows of each page are deleted in the same transaction that writes the column, and the users are marked
+     * as written, so other servers pick up the restored data.
+     */
+    public void restore(@NotNull String usersTable, @NotNull String idColumn, @NotNull String dataColumn,
+                        @NotNull String versionColumn, @NotNull String updatedColumn, int compressionThreshold) {
+        String selectSql = "SELECT DISTINCT " + COLUMN_USER_ID + " FROM " + this.table + " WHERE " + COLUMN_USER_ID + " > ?"
+            + " ORDER BY " + COLUMN_USER_ID + " LIMIT " + MIGRATE_PAGE;
+        String updateSql = "UPDATE " + usersTable + " SET " + dataColumn + " = ?, " + updatedColumn + " = ?, "
+            + versionColumn + " = " + versionColumn + " + 1 WHERE " + idColumn + " = ?";
+
+        String cursor = "";
+        int restored = 0;
+
+        try (Connection connection = this.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement select = connection.prepareStatement(selectSql); PreparedStatement update = connection.prepareStatement(updateSql)) {
+                while (true) {
+                    List<UUID> userIds = new ArrayList<>();
+                    select.setString(1, cursor);
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        while (resultSet.next()) {
+                            cursor = resultSet.getString(1);
+                            userIds.add(UUID.fromString(cursor));
+                        }
+                    }
+                    if (userIds.isEmpty()) break;
+
+                    long now = System.currentTimeMillis();
+                    for (var entry : this.load(connection, userIds).entrySet()) {
+                        StringBuilder builder = new StringBuilder("{");
+                        entry.getValue().forEach((jobId, payload) -> {
+                            if (builder.length() > 1) builder.append(',');
+                            builder.append(DataHandler.GSON.toJson(jobId)).append(':').append(payload);
+                        });
+
+                        update.setString(1, DataCodec.encode(builder.append('}').toString(), compressionThreshold));
+                        update.setLong(2, now);
+                        update.setString(3, entry.getKey().toString());
+                        update.addBatch();
+                    }
+                    update.executeBatch();
+
+                    this.delete(connection, userIds);
+                    connection.commit();
+                    restored += userIds.size();
+                }
+            }
+            catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not restore job progress into users table! It will be continued on next startup.");
+            exception.printStackTrace();
+        }
+
+        if (restored > 0) {
+            this.plugin.info("Restored job progress of " + restored + " users into '" + usersTable + "' table.");
+        }
+    }
+}
@@ -0,0 +1,564 @@
+package su.nightexpress.excellentjobs.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import su.nightexpress.excellentjobs.JobsPlugin;
+import su.nightexpress.excellentjobs.data.impl.StatsRecord;
+import su.nightexpress.excellentjobs.data.impl.StatsTotal;
+import su.nightexpress.excellentjobs.stats.impl.DayStats;
+import su.nightexpress.excellentjobs.stats.impl.JobStats;
+import su.nightexpress.excellentjobs.stats.impl.StatsPeriod;
+import su.nightexpress.excellentjobs.stats.impl.StatsType;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Stores job statistics in a separate table, one row per user, job, day and counter.
+ * Rows are only ever incremented, so several servers can write to the same table without overwriting each other.
+ */
+public class StatsStorage {
+
+    private static final String COLUMN_USER_ID = "user_id";
+    private static final String COLUMN_JOB_ID  = "job_id";
+    private static final String COLUMN_DAY     = "day";
+    private static final String COLUMN_TYPE    = "type";
+    private static final String COLUMN_NAME    = "name";
+    private static final String COLUMN_OBJECT  = "object";
+    private static final String COLUMN_PERIOD  = "period";
+    private static final String COLUMN_AMOUNT  = "amount";
+    private static final String COLUMN_WRITES  = "writes";
+
+    private static final int MIGRATE_PAGE = 500;
+
+    private static final String KEY_COLUMNS = String.join(", ", COLUMN_USER_ID, COLUMN_JOB_ID, COLUMN_DAY, COLUMN_PERIOD, COLUMN_TYPE, COLUMN_NAME, COLUMN_OBJECT);
+
+    private final JobsPlugin  plugin;
+    private final DataHandler dataHandler;
+    private final String      table;
+    private final String      writesTable;
+
+    private boolean mysql;
+
+    public StatsStorage(@NotNull JobsPlugin plugin, @NotNull DataHandler dataHandler, @NotNull String table) {
+        this.plugin = plugin;
+        this.dataHandler = dataHandler;
+        this.table = table;
+        this.writesTable = table + "_writes";
+    }
+
+    @NotNull
+    private Connection getConnection() throws SQLException {
+        return this.dataHandler.getConnector().getConnection();
+    }
+
+    public void createTable() {
+        try (Connection connection = this.getConnection(); Statement statement = connection.createStatement()) {
+            this.mysql = !connection.getMetaData().getDatabaseProductName().toLowerCase().contains("sqlite");
+
+            statement.executeUpdate(this.getCreateSql(this.table));
+            if (!this.hasColumn(connection, COLUMN_PERIOD)) {
+                this.addPeriodColumn(connection);
+            }
+
+            // Single row counter of stats table transactions, read by the version marker instead of scanning the table.
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + this.writesTable + " (id SMALLINT NOT NULL PRIMARY KEY, " + COLUMN_WRITES + " BIGINT NOT NULL DEFAULT 0)");
+            statement.executeUpdate((this.mysql ? "INSERT IGNORE INTO " : "INSERT OR IGNORE INTO ") + this.writesTable + " (id, " + COLUMN_WRITES + ") VALUES (0, 0)");
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not create stats table '" + this.table + "'!");
+            exception.printStackTrace();
+        }
+    }
+
+    @NotNull
+    private String getCreateSql(@NotNull String table) {
+        return "CREATE TABLE IF NOT EXISTS " + table + " ("
+            + COLUMN_USER_ID + " VARCHAR(36) NOT NULL, "
+            + COLUMN_JOB_ID + " VARCHAR(64) NOT NULL, "
+            + COLUMN_DAY + " BIGINT NOT NULL, "
+            + COLUMN_PERIOD + " SMALLINT NOT NULL DEFAULT 0, "
+            + COLUMN_TYPE + " SMALLINT NOT NULL, "
+            + COLUMN_NAME + " VARCHAR(64) NOT NULL, "
+            + COLUMN_OBJECT + " VARCHAR(128) NOT NULL, "
+            + COLUMN_AMOUNT + " DOUBLE NOT NULL DEFAULT 0, "
+            + "PRIMARY KEY (" + KEY_COLUMNS + "))";
+    }
+
+    private boolean hasColumn(@NotNull Connection connection, @NotNull String column) throws SQLException {
+        try (ResultSet resultSet = connection.getMetaData().getColumns(connection.getCatalog(), null, this.table, null)) {
+            while (resultSet.next()) {
+                if (column.equalsIgnoreCase(resultSet.getString("COLUMN_NAME"))) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the period column to a table created before stats were rolled up, and rebuilds the primary key with it.
+     * Existing rows are daily rows. SQLite can not change the key of a table, so it's copied into a new one.
+     */
+    private void addPeriodColumn(@NotNull Connection connection) throws SQLException {
+        this.plugin.info("Adding period column to stats table '" + this.table + "'...");
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (Statement statement = connection.createStatement()) {
+            if (this.mysql) {
+                statement.executeUpdate("ALTER TABLE " + this.table + " ADD COLUMN " + COLUMN_PERIOD + " SMALLINT NOT NULL DEFAULT 0,"
+                    + " DROP PRIMARY KEY, ADD PRIMARY KEY (" + KEY_COLUMNS + ")");
+            }
+            else {
+                String copy = this.table + "_copy";
+                String columns = String.join(", ", COLUMN_USER_ID, COLUMN_JOB_ID, COLUMN_DAY, COLUMN_TYPE, COLUMN_NAME, COLUMN_OBJECT, COLUMN_AMOUNT);
+
+                statement.executeUpdate("DROP TABLE IF EXISTS " + copy);
+                statement.executeUpdate(this.getCreateSql(copy));
+                statement.executeUpdate("INSERT INTO " + copy + " (" + columns + ", " + COLUMN_PERIOD + ") SELECT " + columns + ", " + StatsPeriod.DAY.getId() + " FROM " + this.table);
+                statement.executeUpdate("DROP TABLE " + this.table);
+                statement.executeUpdate("ALTER TABLE " + copy + " RENAME TO " + this.table);
+            }
+            connection.commit();
+        }
+        catch (SQLException exception) {
+            connection.rollback();
+            throw exception;
+        }
+        finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Writes stats increments in a single transaction using batched upserts.
+     * @return False if nothing was written and increments should be retried later.
+     */
+    public boolean save(@NotNull Collection<StatsRecord> records) {
+        if (records.isEmpty()) return true;
+
+        try (Connection connection = this.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                this.save(connection, records);
+                connection.commit();
+                return true;
+            }
+            catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not save job stats!");
+            exception.printStackTrace();
+            return false;
+        }
+    }
+
+    private void save(@NotNull Connection connection, @NotNull Collection<StatsRecord> records) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(this.getUpsertSql())) {
+            for (StatsRecord record : records) {
+                this.addBatch(statement, record);
+            }
+            statement.executeBatch();
+        }
+        this.countWrite(connection);
+    }
+
+    /**
+     * Increments the write counter in the transaction that changed the stats table.
+     */
+    private void countWrite(@NotNull Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE " + this.writesTable + " SET " + COLUMN_WRITES + " = " + COLUMN_WRITES + " + 1 WHERE id = 0");
+        }
+    }
+
+    @NotNull
+    private String getUpsertSql() {
+        return "INSERT INTO " + this.table + " (" + KEY_COLUMNS + ", " + COLUMN_AMOUNT + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?) " + (this.mysql
+            ? "ON DUPLICATE KEY UPDATE " + COLUMN_AMOUNT + " = " + COLUMN_AMOUNT + " + VALUES(" + COLUMN_AMOUNT + ")"
+            : "ON CONFLICT (" + KEY_COLUMNS + ") DO UPDATE SET " + COLUMN_AMOUNT + " = " + COLUMN_AMOUNT + " + excluded." + COLUMN_AMOUNT);
+    }
+
+    private void addBatch(@NotNull PreparedStatement statement, @NotNull StatsRecord record) throws SQLException {
+        DayStats stats = record.stats();
+
+        for (var entry : stats.getCurrencyEarned().entrySet()) {
+            this.addBatch(statement, record, StatsType.CURRENCY, entry.getKey(), "", entry.getValue());
+        }
+        for (var objectiveEntry : stats.getObjectivesCompleted().entrySet()) {
+            for (var objectEntry : objectiveEntry.getValue().entrySet()) {
+                this.addBatch(statement, record, StatsType.OBJECTIVE, objectiveEntry.getKey(), objectEntry.getKey(), objectEntry.getValue());
+            }
+        }
+        if (stats.getOrdersCompleted() != 0) {
+            this.addBatch(statement, record, StatsType.ORDERS, "", "", stats.getOrdersCompleted());
+        }
+    }
+
+    private void addBatch(@NotNull PreparedStatement statement, @NotNull StatsRecord record,
+                          @NotNull StatsType type, @NotNull String name, @NotNull String object, double amount) throws SQLException {
+        setKey(statement, record.userId().toString(), record.jobId(), record.date().toEpochDay(), StatsPeriod.DAY.getId(), type.getId(), name, object);
+        statement.setDouble(8, amount);
+        statement.addBatch();
+    }
+
+    private static void setKey(@NotNull PreparedStatement statement, @NotNull String userId, @NotNull String jobId, long day,
+                               int period, int type, @NotNull String name, @NotNull String object) throws SQLException {
+        statement.setString(1, userId);
+        statement.setString(2, jobId);
+        statement.setLong(3, day);
+        statement.setInt(4, period);
+        statement.setInt(5, type);
+        statement.setString(6, name);
+        statement.setString(7, object);
+    }
+
+    /**
+     * Loads daily stats since the given date and all-time totals in a single query. Totals are summed by the database.
+     * @return Map of job ids to stats.
+     */
+    @NotNull
+    public Map<String, JobStats> load(@NotNull UUID userId, @NotNull LocalDate since) {
+        Map<String, Map<String, DayStats>> days = new HashMap<>();
+        Map<String, DayStats> totals = new HashMap<>();
+
+        String columns = COLUMN_TYPE + ", " + COLUMN_NAME + ", " + COLUMN_OBJECT;
+        String sql = "SELECT 0 AS total, " + COLUMN_JOB_ID + ", " + COLUMN_DAY + ", " + columns + ", " + COLUMN_AMOUNT
+            + " FROM " + this.table + " WHERE " + COLUMN_USER_ID + " = ? AND " + COLUMN_PERIOD + " = " + StatsPeriod.DAY.getId() + " AND " + COLUMN_DAY + " >= ?"
+            + " UNION ALL "
+            + "SELECT 1 AS total, " + COLUMN_JOB_ID + ", 0, " + columns + ", SUM(" + COLUMN_AMOUNT + ")"
+            + " FROM " + this.table + " WHERE " + COLUMN_USER_ID + " = ?"
+            + " GROUP BY " + COLUMN_JOB_ID + ", " + columns;
+
+        try (Connection connection = this.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, userId.toString());
+            statement.setLong(2, since.toEpochDay());
+            statement.setString(3, userId.toString());
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String jobId = resultSet.getString(COLUMN_JOB_ID);
+
+                    if (resultSet.getInt("total") == 1) {
+                        readRow(resultSet, totals.computeIfAbsent(jobId, k -> new DayStats(0L)));
+                    }
+                    else readRow(resultSet, getDayStats(days, jobId, resultSet.getLong(COLUMN_DAY)));
+                }
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not load job stats of " + userId + "!");
+            exception.printStackTrace();
+            return Collections.emptyMap();
+        }
+
+        Map<String, JobStats> statsMap = new HashMap<>();
+        totals.forEach((jobId, allTime) -> {
+            statsMap.put(jobId, new JobStats(days.getOrDefault(jobId, Collections.emptyMap()), allTime));
+        });
+        return statsMap;
+    }
+
+    /**
+     * Loads daily stats in the given range, used when older history is requested.
+     * @return Map of job ids to daily stats by date.
+     */
+    @NotNull
+    public Map<String, Map<String, DayStats>> loadDays(@NotNull UUID userId, @NotNull LocalDate from, @NotNull LocalDate until) {
+        Map<String, Map<String, DayStats>> days = new HashMap<>();
+
+        String sql = "SELECT " + COLUMN_JOB_ID + ", " + COLUMN_DAY + ", " + COLUMN_TYPE + ", " + COLUMN_NAME + ", " + COLUMN_OBJECT + ", " + COLUMN_AMOUNT
+            + " FROM " + this.table + " WHERE " + COLUMN_USER_ID + " = ? AND " + COLUMN_PERIOD + " = " + StatsPeriod.DAY.getId()
+            + " AND " + COLUMN_DAY + " >= ? AND " + COLUMN_DAY + " < ?";
+
+        try (Connection connection = this.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, userId.toString());
+            statement.setLong(2, from.toEpochDay());
+            statement.setLong(3, until.toEpochDay());
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    readRow(resultSet, getDayStats(days, resultSet.getString(COLUMN_JOB_ID), resultSet.getLong(COLUMN_DAY)));
+                }
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not load job stats history of " + userId + "!");
+            exception.printStackTrace();
+        }
+
+        return days;
+    }
+
+    @NotNull
+    private static DayStats getDayStats(@NotNull Map<String, Map<String, DayStats>> days, @NotNull String jobId, long day) {
+        LocalDate date = LocalDate.ofEpochDay(day);
+        return days.computeIfAbsent(jobId, k -> new HashMap<>()).computeIfAbsent(date.toString(), k -> new DayStats(JobStats.toEpochMillis(date)));
+    }
+
+    private static void readRow(@NotNull ResultSet resultSet, @NotNull DayStats stats) throws SQLException {
+        StatsType type = StatsType.byId(resultSet.getInt(COLUMN_TYPE));
+        if (type == null) return;
+
+        String name = resultSet.getString(COLUMN_NAME);
+        double amount = resultSet.getDouble(COLUMN_AMOUNT);
+
+        switch (type) {
+            case CURRENCY -> stats.addCurrency(name, amount);
+            case OBJECTIVE -> stats.addObjective(name, resultSet.getString(COLUMN_OBJECT), (int) amount);
+            case ORDERS -> stats.addOrders((int) amount);
+        }
+    }
+
+    /**
+     * Sums stats of the given type by user and job. Earnings are also split by currency, objectives are summed together.
+     * @param since Date to sum daily rows from, or null to sum all rows.
+     */
+    public void loadTotals(@NotNull StatsType type, @Nullable LocalDate since,
+                           @NotNull String usersTable, @NotNull String idColumn, @NotNull String nameColumn,
+                           @NotNull Consumer<StatsTotal> consumer) {
+        boolean byName = type != StatsType.OBJECTIVE;
+        String groupColumns = "s." + COLUMN_USER_ID + ", u." + nameColumn + ", s." + COLUMN_JOB_ID + (byName ? ", s." + COLUMN_NAME : "");
+
+        String sql = "SELECT " + groupColumns + (byName ? "" : ", ''") + ", SUM(s." + COLUMN_AMOUNT + ")"
+            + " FROM " + this.table + " s LEFT JOIN " + usersTable + " u ON u." + idColumn + " = s." + COLUMN_USER_ID
+            + " WHERE s." + COLUMN_TYPE + " = ?"
+            + (since == null ? "" : " AND s." + COLUMN_PERIOD + " = " + StatsPeriod.DAY.getId() + " AND s." + COLUMN_DAY + " >= ?")
+            + " GROUP BY " + groupColumns;
+
+        try (Connection connection = this.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, type.getId());
+            if (since != null) statement.setLong(2, since.toEpochDay());
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String userName = resultSet.getString(2);
+                    if (userName == null) continue;
+
+                    UUID userId = UUID.fromString(resultSet.getString(1));
+                    consumer.accept(new StatsTotal(userId, userName, resultSet.getString(3), resultSet.getString(4), resultSet.getDouble(5)));
+                }
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not load job stats totals!");
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads the latest user write date and the stats write counter in a single query. Both only grow when users are added
+     * or saved, or stats are written, and are read from an index and a single row, so the check does not scan the tables.
+     * @return Version marker, or 0 if it could not be read.
+     */
+    public long getVersionMarker(@NotNull String usersTable, @NotNull String updatedColumn) {
+        String sql = "SELECT (SELECT MAX(" + updatedColumn + ") FROM " + usersTable + "),"
+            + " (SELECT " + COLUMN_WRITES + " FROM " + this.writesTable + " WHERE id = 0)";
+
+        try (Connection connection = this.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+
+            if (!resultSet.next()) return 0L;
+
+            long marker = 17L;
+            marker = 31L * marker + resultSet.getLong(1);
+            marker = 31L * marker + resultSet.getLong(2);
+            return marker == 0L ? 1L : marker;
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not read data version marker!");
+            exception.printStackTrace();
+            return 0L;
+        }
+    }
+
+    /**
+     * Rolls old rows up into coarser buckets: days into weeks, weeks into months and months into all-time totals.
+     * @param cutoffs Rows of each period older than its cutoff are moved to the next period.
+     * @param budget Max. amount of rows to move in this run.
+     * @return Amount of rows removed from the table.
+     */
+    public int compact(@NotNull Map<StatsPeriod, LocalDate> cutoffs, int budget) {
+        int removed = 0;
+
+        for (StatsPeriod period : StatsPeriod.values()) {
+            if (period == StatsPeriod.ALL_TIME || removed >= budget) break;
+
+            LocalDate cutoff = cutoffs.get(period);
+            if (cutoff == null) continue;
+
+            StatsPeriod target = StatsPeriod.values()[period.ordinal() + 1];
+            removed += this.compact(period, target, cutoff, budget - removed);
+        }
+
+        return removed;
+    }
+
+    /**
+     * Moves rows of the period older than the cutoff into buckets of the target period in a single transaction.
+     * Each row is deleted before it's added to its bucket, and only rows deleted by this run are added,
+     * so rows compacted at the same time by another server or run are never counted twice.
+     */
+    private int compact(@NotNull StatsPeriod period, @NotNull StatsPeriod target, @NotNull LocalDate cutoff, int limit) {
+        String selectSql = "SELECT " + COLUMN_USER_ID + ", " + COLUMN_JOB_ID + ", " + COLUMN_DAY + ", " + COLUMN_TYPE + ", " + COLUMN_NAME + ", " + COLUMN_OBJECT + ", " + COLUMN_AMOUNT
+            + " FROM " + this.table + " WHERE " + COLUMN_PERIOD + " = ? AND " + COLUMN_DAY + " < ? LIMIT ?" + (this.mysql ? " FOR UPDATE" : "");
+
+        String deleteSql = "DELETE FROM " + this.table + " WHERE " + COLUMN_USER_ID + " = ? AND " + COLUMN_JOB_ID + " = ? AND " + COLUMN_DAY + " = ? AND "
+            + COLUMN_PERIOD + " = ? AND " + COLUMN_TYPE + " = ? AND " + COLUMN_NAME + " = ? AND " + COLUMN_OBJECT + " = ?";
+
+        try (Connection connection = this.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                List<Row> rows = new ArrayList<>();
+
+                try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                    statement.setInt(1, period.getId());
+                    statement.setLong(2, cutoff.toEpochDay());
+                    statement.setInt(3, limit);
+
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            rows.add(new Row(
+                                resultSet.getString(COLUMN_USER_ID), resultSet.getString(COLUMN_JOB_ID), resultSet.getLong(COLUMN_DAY), resultSet.getInt(COLUMN_TYPE),
+                                resultSet.getString(COLUMN_NAME), resultSet.getString(COLUMN_OBJECT), resultSet.getDouble(COLUMN_AMOUNT)
+                            ));
+                        }
+                    }
+                }
+
+                int moved = 0;
+
+                try (PreparedStatement upsert = connection.prepareStatement(this.getUpsertSql());
+                     PreparedStatement delete = connection.prepareStatement(deleteSql)) {
+
+                    for (Row row : rows) {
+                        setKey(delete, row.userId(), row.jobId(), row.day(), period.getId(), row.type(), row.name(), row.object());
+                        if (delete.executeUpdate() != 1) continue;
+
+                        long bucket = target.getBucketStart(LocalDate.ofEpochDay(row.day())).toEpochDay();
+                        setKey(upsert, row.userId(), row.jobId(), bucket, target.getId(), row.type(), row.name(), row.object());
+                        upsert.setDouble(8, row.amount());
+                        upsert.addBatch();
+                        moved++;
+                    }
+
+                    if (moved > 0) {
+                        upsert.executeBatch();
+                        this.countWrite(connection);
+                    }
+                }
+
+                connection.commit();
+                return moved;
+            }
+            catch (SQLException exception) {
+                connection.rollback();
+                throw exception;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException exception) {
+            this.plugin.error("Could not compact job stats!");
+            exception.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Moves stats from the legacy JSON column of the users table into the stats table, in pages of users ordered by id.
+     * Stats of each page are inserted in the same transaction that clears their column, and only for users whose column
+     * was cleared by this run, so an interrupted or concurrent migration never adds the same stats twice.
+     */
+    public void migrate(@NotNull String usersTable, @NotNull String idColumn, @NotNull String statsColumn) {
+        String selectSql = "SELECT " + idColumn + ", " + statsColumn + " FROM " + usersTable
+            + " WHERE " + idColumn + " > ? AND " + statsColumn + " IS NOT NULL AND " + statsColumn + " <> '{}'"
+            + " ORDER BY " + idColumn + " LIMIT " + MIGRATE_PAGE;
+
+        String clearSql = "UPDATE " + usersTable + " SET " + statsColumn + " = '{}' WHERE " + idColumn + " = ? AND " + statsColumn + " <> '{}'";
+
+        String cursor = "";
+        int migrated = 0;
+
+        try (Connection connection = this.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                while (true) {
+                    Map<UUID, Map<String, JobStats>> legacy = new LinkedHashMap<>();
+
+                    try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                        statement.setString(1, cursor);
+
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while (resultSet.next()) {
+                                cursor = resultSet.getString(idColumn);
+                                Map<String, JobStats> statsMap = DataQueries.STATS_LOADER.apply(resultSet);
+                                legacy.put(UUID.fromString(cursor), statsMap == null ? Collections.emptyMap() : statsMap);
+                            }
+                        }
+                    }
+
+                    if (legacy.isEmpty()) break;
+
+                    List<StatsRecord> records = new ArrayList<>();
+
+                    try (PreparedStatement statement = connection.prepareStatement(clearSql)) {
+                        for (var entry : legacy.entrySet()) {
+                            UUID userId = entry.getKey();
+                            statement.setString(1, userId.toString());
+                            // Column was already moved by another server.
+                            if (statement.executeUpdate() != 1) continue;
+
+                            entry.getValue().forEach((jobId, jobStats) -> {
+                                if (jobStats == null) return;
+
+                                jobStats.getDayStatsMap().forEach((date, dayStats) -> {
+                                    if (dayStats == null || dayStats.isEmpty()) return;
+
+                                    records.add(new StatsRecord(userId, jobId.toLowerCase(), LocalDate.parse(date), dayStats));
+                                });
+                            });
+                            migrated++;
+                        }
+                    }
+
+                    this.save(connection, records);
+                    connection.commit();
+                }
+            }
+            catch (SQLException | RuntimeException exception) {
+                connection.rollback();
+                throw exception;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException | RuntimeException exception) {
+            this.plugin.error("Could not migrate job stats into '" + this.table + "' table! It will be continued on next startup.");
+            exception.printStackTrace();
+        }
+
+        if (migrated > 0) {
+            this.plugin.info("Migrated job stats of " + migrated + " users into '" + this.table + "' table.");
+        }
+    }
+
+    private record Row(String userId, String jobId, long day, int type, String name, String object, double amount) {}
+}
@@ -22,9 +22,12 @@ public class JobData  {
     private JobState state;
     private int      level;
     private int      xp;
+    private long     levelDate;
 
     private final Set<Integer>   obtainedLevelRewards;
 
+    private volatile boolean changed;
+
     @NotNull
     public static JobData create(@NotNull Job job) {
         JobLimitData limitData = JobLimitData.create(job);
@@ -244,6 +247,7 @@ public class JobData  {
             this.setLevel(1);
         }
         this.state = state;
+        this.changed = true;
     }
 
     public int getLevel() {
@@ -252,7 +256,24 @@ public class JobData  {
 
 
     public void setLevel(int level) {
-        this.level = Math.max(0, level);
+        level = Math.max(0, level);
+        if (level != this.level) {
+            this.levelDate = System.currentTimeMillis();
+        }
+        this.level = level;
+        this.changed = true;
+    }
+
+    /**
+     * @return Timestamp when the current level was reached. Used to order players with equal level and XP.
+     */
+    public long getLevelDate() {
+        return this.levelDate;
+    }
+
+    public void setLevelDate(long levelDate) {
+        this.levelDate = levelDate;
+        this.changed = true;
     }
 
     public int getMaxLevel() {
@@ -265,6 +286,7 @@ public class JobData  {
 
     public void setXP(int xp) {
         this.xp = xp;
+        this.changed = true;
     }
 
     public int getMaxXP() {
@@ -279,6 +301,27 @@ public class JobData  {
         return this.getXP() + this.getMaxXP();
     }
 
+    /**
+     * @return True if job data, limits or order were modified since they were last written to the database.
+     */
+    public boolean isChanged() {
+        return this.changed || this.limitData.isChanged() || this.orderData.isChanged();
+    }
+
+    public void setChanged(boolean changed) {
+        this.changed = changed;
+        this.limitData.setChanged(changed);
+        this.orderData.setChanged(changed);
+    }
+
+    /**
+     * @return True if player never joined the job, so data is the same as created by {@link #create(Job)}.
+     */
+    public boolean isDefault() {
+        return this.state == JobState.INACTIVE && this.job.getInitialState() == JobState.INACTIVE && this.level == 0 && this.xp == 0
+            && this.limitData.isEmpty() && this.orderData.isEmpty() && this.nextOrderDate == 0L && this.obtainedLevelRewards.isEmpty();
+    }
+
     @NotNull
     public JobLimitData getLimitData() {
         return limitData;
@@ -291,6 +334,7 @@ public class JobData  {
 
     public void setOrderData(@Nullable JobOrderData orderData) {
         this.orderData = orderData == null ? JobOrderData.empty() : orderData;
+        this.changed = true;
     }
 
     public long getNextOrderDate() {
@@ -299,6 +343,7 @@ public class JobData  {
 
     public void setNextOrderDate(long nextOrderDate) {
         this.nextOrderDate = nextOrderDate;
+        this.changed = true;
     }
 
     @NotNull
@@ -311,6 +356,6 @@ public class JobData  {
     }
 
     public void setLevelRewardObtained(int level) {
-        this.obtainedLevelRewards.add(level);
+        if (this.obtainedLevelRewards.add(level)) this.changed = true;
     }
 }
@@ -21,6 +21,8 @@ public class JobLimitData {
     private double xpEarned;
     private long   expireDate;
 
+    private volatile boolean changed;
+
     @NotNull
     public static JobLimitData create(@NotNull Job job) {
         return new JobLimitData(job.getId(), new HashMap<>(), 0, System.currentTimeMillis());
@@ -46,6 +48,7 @@ public class JobLimitData {
 
         this.getCurrencyEarned().clear();
         this.setXPEarned(0D);
+        this.changed = true;
     }
 
     public void addCurrency(@NotNull Currency currency, double amount) {
@@ -56,6 +59,7 @@ public class JobLimitData {
         if (amount <= 0D) return;
 
         this.getCurrencyEarned().put(id.toLowerCase(), this.getCurrencyEarned(id) + amount);
+        this.changed = true;
     }
 
     public void addXP(int amount) {
@@ -77,6 +81,21 @@ public class JobLimitData {
         return jobId;
     }
 
+    /**
+     * @return True if limits were modified since they were last written to the database.
+     */
+    public boolean isChanged() {
+        return this.changed;
+    }
+
+    public void setChanged(boolean changed) {
+        this.changed = changed;
+    }
+
+    public boolean isEmpty() {
+        return this.currencyEarned.isEmpty() && this.xpEarned == 0D;
+    }
+
     public Map<String, Double> getCurrencyEarned() {
         return currencyEarned;
     }
@@ -87,6 +106,7 @@ public class JobLimitData {
 
     public void setXPEarned(double xpEarned) {
         this.xpEarned = xpEarned;
+        this.changed = true;
     }
 
     public long getExpireDate() {
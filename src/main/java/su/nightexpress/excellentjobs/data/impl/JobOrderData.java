@@ -16,6 +16,8 @@ public class JobOrderData {
     private boolean      rewarded;
     private long         expireDate;
 
+    private volatile boolean changed;
+
     @NotNull
     public static JobOrderData empty() {
         return new JobOrderData(new HashMap<>(), new ArrayList<>(), true, 0L);
@@ -58,7 +60,21 @@ public class JobOrderData {
         JobOrderObjective orderObjective = this.getObjectiveMap().get(objective.getId());
         if (orderObjective == null) return false;
 
-        return orderObjective.countObject(object, amount);
+        if (!orderObjective.countObject(object, amount)) return false;
+
+        this.changed = true;
+        return true;
+    }
+
+    /**
+     * @return True if order was modified since it was last written to the database.
+     */
+    public boolean isChanged() {
+        return this.changed;
+    }
+
+    public void setChanged(boolean changed) {
+        this.changed = changed;
     }
 
     @NotNull
@@ -73,6 +89,7 @@ public class JobOrderData {
 
     public void setRewards(@NotNull List<String> rewards) {
         this.rewards = rewards;
+        this.changed = true;
     }
 
     public boolean isRewarded() {
@@ -81,6 +98,7 @@ public class JobOrderData {
 
     public void setRewarded(boolean rewarded) {
         this.rewarded = rewarded;
+        this.changed = true;
     }
 
     public long getExpireDate() {
@@ -89,5 +107,6 @@ public class JobOrderData {
 
     public void setExpireDate(long expireDate) {
         this.expireDate = expireDate;
+        this.changed = true;
     }
 }
@@ -0,0 +1,16 @@
+package su.nightexpress.excellentjobs.data.impl;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+
+import java.util.UUID;
+
+/**
+ * Lightweight view of user's job progress, used to build leaderboards and employee counters without loading full user data.
+ */
+public record JobProgress(@NotNull UUID userId, @NotNull String userName, @NotNull String jobId, @NotNull JobState state, int level, int xp, long levelDate) {
+
+    public boolean isRanked() {
+        return this.state != JobState.INACTIVE || this.level > 1 || this.xp != 0;
+    }
+}
@@ -0,0 +1,13 @@
+package su.nightexpress.excellentjobs.data.impl;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+
+import java.util.UUID;
+
+/**
+ * Job data of a user changed directly in the database, along with the job state it had before the change.
+ */
+public record JobUpdate(@NotNull UUID userId, @NotNull String userName, @NotNull JobState previousState, @NotNull JobData data) {
+
+}
@@ -0,0 +1,15 @@
+package su.nightexpress.excellentjobs.data.impl;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+
+import java.util.UUID;
+
+/**
+ * Progress of a user in a single job, written to the progress table. Payload holds encoded job data,
+ * other values are duplicated into columns so they can be queried and indexed.
+ */
+public record ProgressRecord(@NotNull UUID userId, @NotNull String jobId, @NotNull JobState state, int level, int xp, long levelDate,
+                             @NotNull String payload, long updatedAt) {
+
+}
@@ -0,0 +1,14 @@
+package su.nightexpress.excellentjobs.data.impl;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.stats.impl.DayStats;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Statistics of a user for a single job and day, written to the stats table as increments.
+ */
+public record StatsRecord(@NotNull UUID userId, @NotNull String jobId, @NotNull LocalDate date, @NotNull DayStats stats) {
+
+}
@@ -0,0 +1,13 @@
+package su.nightexpress.excellentjobs.data.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Stats of a user for a job summed by the database, used to seed stats leaderboards.
+ * @param name Currency id for earnings, empty for objectives.
+ */
+public record StatsTotal(@NotNull UUID userId, @NotNull String userName, @NotNull String jobId, @NotNull String name, double amount) {
+
+}
@@ -12,9 +12,9 @@ public class BoosterSerializer implements JsonDeserializer<Booster>, JsonSeriali
     public Booster deserialize(JsonElement element, Type type, JsonDeserializationContext context) throws JsonParseException {
         JsonObject object = element.getAsJsonObject();
 
-        double payBoost = object.get("payBoost").getAsDouble();
-        double xpBoost = object.get("xpBoost").getAsDouble();
-        long expireDate = object.get("expireDate").getAsLong();
+        double payBoost = CompactJson.getDouble(object, "p", "payBoost", 0D);
+        double xpBoost = CompactJson.getDouble(object, "x", "xpBoost", 0D);
+        long expireDate = CompactJson.getLong(object, "e", "expireDate", 0L);
 
         Booster booster = new Booster(expireDate);
         booster.setMultiplier(MultiplierType.INCOME, payBoost);
@@ -26,9 +26,9 @@ public class BoosterSerializer implements JsonDeserializer<Booster>, JsonSeriali
     public JsonElement serialize(Booster booster, Type type, JsonSerializationContext context) {
         JsonObject object = new JsonObject();
 
-        object.addProperty("payBoost", booster.getValue(MultiplierType.INCOME));
-        object.addProperty("xpBoost", booster.getValue(MultiplierType.XP));
-        object.addProperty("expireDate", booster.getExpireDate());
+        object.addProperty("p", booster.getValue(MultiplierType.INCOME));
+        object.addProperty("x", booster.getValue(MultiplierType.XP));
+        object.addProperty("e", booster.getExpireDate());
 
         return object;
     }
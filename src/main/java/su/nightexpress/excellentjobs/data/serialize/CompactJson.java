@@ -0,0 +1,45 @@
+package su.nightexpress.excellentjobs.data.serialize;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Helpers for serializers writing short keys and omitting default values, while still reading legacy long keys.
+ */
+public class CompactJson {
+
+    @Nullable
+    public static JsonElement get(@NotNull JsonObject object, @NotNull String key, @NotNull String legacyKey) {
+        JsonElement element = object.get(key);
+        if (element == null) element = object.get(legacyKey);
+        return element == null || element.isJsonNull() ? null : element;
+    }
+
+    public static int getInt(@NotNull JsonObject object, @NotNull String key, @NotNull String legacyKey, int def) {
+        JsonElement element = get(object, key, legacyKey);
+        return element == null ? def : element.getAsInt();
+    }
+
+    public static long getLong(@NotNull JsonObject object, @NotNull String key, @NotNull String legacyKey, long def) {
+        JsonElement element = get(object, key, legacyKey);
+        return element == null ? def : element.getAsLong();
+    }
+
+    public static double getDouble(@NotNull JsonObject object, @NotNull String key, @NotNull String legacyKey, double def) {
+        JsonElement element = get(object, key, legacyKey);
+        return element == null ? def : element.getAsDouble();
+    }
+
+    public static boolean getBoolean(@NotNull JsonObject object, @NotNull String key, @NotNull String legacyKey, boolean def) {
+        JsonElement element = get(object, key, legacyKey);
+        return element == null ? def : element.getAsBoolean();
+    }
+
+    @Nullable
+    public static String getString(@NotNull JsonObject object, @NotNull String key, @NotNull String legacyKey) {
+        JsonElement element = get(object, key, legacyKey);
+        return element == null ? null : element.getAsString();
+    }
+}
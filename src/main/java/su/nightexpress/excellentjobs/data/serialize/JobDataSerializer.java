@@ -11,6 +11,7 @@ import su.nightexpress.excellentjobs.job.impl.JobState;
 import su.nightexpress.nightcore.util.StringUtil;
 
 import java.lang.reflect.Type;
+import java.util.HashSet;
 import java.util.Set;
 
 public class JobDataSerializer implements JsonDeserializer<JobData>, JsonSerializer<JobData> {
@@ -19,40 +20,47 @@ public class JobDataSerializer implements JsonDeserializer<JobData>, JsonSeriali
     public JobData deserialize(JsonElement json, Type type, JsonDeserializationContext contex) throws JsonParseException {
         JsonObject object = json.getAsJsonObject();
 
-        String jobId = object.get("job").getAsString();
-        String jobState = object.get("state").getAsString();
-        JobState state = StringUtil.getEnum(jobState, JobState.class).orElse(JobState.INACTIVE);
+        String jobId = CompactJson.getString(object, "j", "job");
+        String jobState = CompactJson.getString(object, "s", "state");
+        JobState state = jobState == null ? JobState.INACTIVE : StringUtil.getEnum(jobState, JobState.class).orElse(JobState.INACTIVE);
         //String rankId = object.get("rank").getAsString();
-        int level = object.get("level").getAsInt();
-        int xp = object.get("xp").getAsInt();
+        int level = CompactJson.getInt(object, "l", "level", 0);
+        int xp = CompactJson.getInt(object, "x", "xp", 0);
 
-        Job job = JobsAPI.getJobById(jobId);
+        Job job = jobId == null ? null : JobsAPI.getJobById(jobId);
         if (job == null) return null;
 
-		JobLimitData limitData = contex.deserialize(object.get("dailyLimits"), new TypeToken<JobLimitData>(){}.getType());
-        JobOrderData orderData = contex.deserialize(object.get("orderData"), new TypeToken<JobOrderData>(){}.getType());
+		JobLimitData limitData = contex.deserialize(CompactJson.get(object, "dl", "dailyLimits"), new TypeToken<JobLimitData>(){}.getType());
+        if (limitData == null) limitData = JobLimitData.create(job);
+
+        JobOrderData orderData = contex.deserialize(CompactJson.get(object, "od", "orderData"), new TypeToken<JobOrderData>(){}.getType());
         if (orderData == null) orderData = JobOrderData.empty();
 
-        long nextOrderDate = object.get("nextOrderDate").getAsLong();
+        long nextOrderDate = CompactJson.getLong(object, "no", "nextOrderDate", 0L);
+
+        Set<Integer> obtainedLevelRewards = contex.deserialize(CompactJson.get(object, "lr", "obtainedLevelRewards"), new TypeToken<Set<Integer>>(){}.getType());
+        if (obtainedLevelRewards == null) obtainedLevelRewards = new HashSet<>();
 
-        Set<Integer> obtainedLevelRewards = contex.deserialize(object.get("obtainedLevelRewards"), new TypeToken<Set<Integer>>(){}.getType());
+        JobData data = new JobData(job, state, level, xp, limitData, orderData, nextOrderDate, obtainedLevelRewards);
+        data.setLevelDate(CompactJson.getLong(object, "ld", "levelDate", 0L));
 
-        return new JobData(job, state, level, xp, limitData, orderData, nextOrderDate, obtainedLevelRewards);
+        return data;
     }
 
     @Override
     public JsonElement serialize(JobData data, Type type, JsonSerializationContext contex) {
-
+        // Short keys, values equal to defaults are omitted.
         JsonObject object = new JsonObject();
-        object.addProperty("job", data.getJob().getId());
-        object.addProperty("state", data.getState().name());
+        object.addProperty("j", data.getJob().getId());
+        object.addProperty("s", data.getState().name());
         //object.addProperty("rank", data.getRank().getId());
-        object.addProperty("level", data.getLevel());
-        object.addProperty("xp", data.getXP());
-        object.add("dailyLimits", contex.serialize(data.getLimitData()));
-        object.add("orderData", contex.serialize(data.getOrderData()));
-        object.addProperty("nextOrderDate", data.getNextOrderDate());
-        object.add("obtainedLevelRewards", contex.serialize(data.getObtainedLevelRewards()));
+        object.addProperty("l", data.getLevel());
+        if (data.getXP() != 0) object.addProperty("x", data.getXP());
+        if (data.getLevelDate() != 0L) object.addProperty("ld", data.getLevelDate());
+        if (!data.getLimitData().isEmpty()) object.add("dl", contex.serialize(data.getLimitData()));
+        if (!data.getOrderData().isEmpty()) object.add("od", contex.serialize(data.getOrderData()));
+        if (data.getNextOrderDate() != 0L) object.addProperty("no", data.getNextOrderDate());
+        if (!data.getObtainedLevelRewards().isEmpty()) object.add("lr", contex.serialize(data.getObtainedLevelRewards()));
 
         return object;
     }
@@ -5,6 +5,7 @@ import com.google.gson.reflect.TypeToken;
 import su.nightexpress.excellentjobs.data.impl.JobLimitData;
 
 import java.lang.reflect.Type;
+import java.util.HashMap;
 import java.util.Map;
 
 public class JobLimitSerializer implements JsonSerializer<JobLimitData>, JsonDeserializer<JobLimitData> {
@@ -13,10 +14,12 @@ public class JobLimitSerializer implements JsonSerializer<JobLimitData>, JsonDes
     public JobLimitData deserialize(JsonElement element, Type type, JsonDeserializationContext context) throws JsonParseException {
         JsonObject object = element.getAsJsonObject();
 
-        String job = object.get("jobId").getAsString();
-        Map<String, Double> currencyEarned = context.deserialize(object.get("currencyEarned"), new TypeToken<Map<String, Double>>(){}.getType());
-        int xpEarned = object.get("xpEarned").getAsInt();
-        long since = object.get("expireDate").getAsLong();
+        String job = CompactJson.getString(object, "j", "jobId");
+        Map<String, Double> currencyEarned = context.deserialize(CompactJson.get(object, "c", "currencyEarned"), new TypeToken<Map<String, Double>>(){}.getType());
+        double xpEarned = CompactJson.getDouble(object, "x", "xpEarned", 0D);
+        long since = CompactJson.getLong(object, "e", "expireDate", 0L);
+
+        if (currencyEarned == null) currencyEarned = new HashMap<>();
 
         return new JobLimitData(job, currencyEarned, xpEarned, since);
     }
@@ -25,10 +28,10 @@ public class JobLimitSerializer implements JsonSerializer<JobLimitData>, JsonDes
     public JsonElement serialize(JobLimitData data, Type type, JsonSerializationContext context) {
         JsonObject object = new JsonObject();
 
-        object.addProperty("jobId", data.getJobId());
-        object.add("currencyEarned", context.serialize(data.getCurrencyEarned()));
-        object.addProperty("xpEarned", data.getXPEarned());
-        object.addProperty("expireDate", data.getExpireDate());
+        object.addProperty("j", data.getJobId());
+        if (!data.getCurrencyEarned().isEmpty()) object.add("c", context.serialize(data.getCurrencyEarned()));
+        if (data.getXPEarned() != 0D) object.addProperty("x", data.getXPEarned());
+        object.addProperty("e", data.getExpireDate());
 
         return object;
     }
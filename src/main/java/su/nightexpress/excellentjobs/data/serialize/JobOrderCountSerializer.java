@@ -11,8 +11,8 @@ public class JobOrderCountSerializer implements JsonSerializer<JobOrderCount>, J
     public JobOrderCount deserialize(JsonElement element, Type type, JsonDeserializationContext context) throws JsonParseException {
         JsonObject object = element.getAsJsonObject();
 
-        int current = object.get("current").getAsInt();
-        int required = object.get("required").getAsInt();
+        int current = CompactJson.getInt(object, "c", "current", 0);
+        int required = CompactJson.getInt(object, "r", "required", 0);
 
         return new JobOrderCount(current, required);
     }
@@ -21,8 +21,8 @@ public class JobOrderCountSerializer implements JsonSerializer<JobOrderCount>, J
     public JsonElement serialize(JobOrderCount count, Type type, JsonSerializationContext context) {
         JsonObject object = new JsonObject();
 
-        object.addProperty("current", count.getCurrent());
-        object.addProperty("required", count.getRequired());
+        object.addProperty("c", count.getCurrent());
+        object.addProperty("r", count.getRequired());
 
         return object;
     }
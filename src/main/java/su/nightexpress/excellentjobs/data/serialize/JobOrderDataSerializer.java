@@ -6,6 +6,8 @@ import su.nightexpress.excellentjobs.data.impl.JobOrderData;
 import su.nightexpress.excellentjobs.data.impl.JobOrderObjective;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,10 +17,13 @@ public class JobOrderDataSerializer implements JsonSerializer<JobOrderData>, Jso
     public JobOrderData deserialize(JsonElement element, Type type, JsonDeserializationContext context) throws JsonParseException {
         JsonObject object = element.getAsJsonObject();
 
-        Map<String, JobOrderObjective> objectiveMap = context.deserialize(object.get("objectiveMap"), new TypeToken<Map<String, JobOrderObjective>>(){}.getType());
-        List<String> rewardCommands = context.deserialize(object.get("rewards"), new TypeToken<List<String>>(){}.getType());
-        boolean rewarded = object.get("rewarded").getAsBoolean();
-        long expireDate = object.get("expireDate").getAsLong();
+        Map<String, JobOrderObjective> objectiveMap = context.deserialize(CompactJson.get(object, "o", "objectiveMap"), new TypeToken<Map<String, JobOrderObjective>>(){}.getType());
+        List<String> rewardCommands = context.deserialize(CompactJson.get(object, "r", "rewards"), new TypeToken<List<String>>(){}.getType());
+        boolean rewarded = CompactJson.getBoolean(object, "d", "rewarded", true);
+        long expireDate = CompactJson.getLong(object, "e", "expireDate", 0L);
+
+        if (objectiveMap == null) objectiveMap = new HashMap<>();
+        if (rewardCommands == null) rewardCommands = new ArrayList<>();
 
         return new JobOrderData(objectiveMap, rewardCommands, rewarded, expireDate);
     }
@@ -27,10 +32,10 @@ public class JobOrderDataSerializer implements JsonSerializer<JobOrderData>, Jso
     public JsonElement serialize(JobOrderData orderData, Type type, JsonSerializationContext context) {
         JsonObject object = new JsonObject();
 
-        object.add("objectiveMap", context.serialize(orderData.getObjectiveMap()));
-        object.add("rewards", context.serialize(orderData.getRewards()));
-        object.addProperty("rewarded", orderData.isRewarded());
-        object.addProperty("expireDate", orderData.getExpireDate());
+        object.add("o", context.serialize(orderData.getObjectiveMap()));
+        if (!orderData.getRewards().isEmpty()) object.add("r", context.serialize(orderData.getRewards()));
+        object.addProperty("d", orderData.isRewarded());
+        object.addProperty("e", orderData.getExpireDate());
 
         return object;
     }
@@ -14,8 +14,8 @@ public class JobOrderObjectiveSerializer implements JsonSerializer<JobOrderObjec
     public JobOrderObjective deserialize(JsonElement element, Type type, JsonDeserializationContext context) throws JsonParseException {
         JsonObject object = element.getAsJsonObject();
 
-        String objectiveId = object.get("objectiveId").getAsString();
-        Map<String, JobOrderCount> countMap = context.deserialize(object.get("objectiveCountMap"), new TypeToken<Map<String, JobOrderCount>>(){}.getType());
+        String objectiveId = CompactJson.getString(object, "i", "objectiveId");
+        Map<String, JobOrderCount> countMap = context.deserialize(CompactJson.get(object, "c", "objectiveCountMap"), new TypeToken<Map<String, JobOrderCount>>(){}.getType());
 
         return new JobOrderObjective(objectiveId, countMap);
     }
@@ -24,8 +24,8 @@ public class JobOrderObjectiveSerializer implements JsonSerializer<JobOrderObjec
     public JsonElement serialize(JobOrderObjective objective, Type type, JsonSerializationContext context) {
         JsonObject object = new JsonObject();
 
-        object.addProperty("objectiveId", objective.getObjectiveId());
-        object.add("objectiveCountMap", context.serialize(objective.getObjectCountMap()));
+        object.addProperty("i", objective.getObjectiveId());
+        object.add("c", context.serialize(objective.getObjectCountMap()));
 
         return object;
     }
@@ -3,6 +3,7 @@ package su.nightexpress.excellentjobs.hook.impl;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import su.nightexpress.excellentjobs.JobsAPI;
 import su.nightexpress.excellentjobs.JobsPlugin;
 import su.nightexpress.excellentjobs.api.booster.MultiplierType;
@@ -14,9 +15,11 @@ import su.nightexpress.excellentjobs.job.impl.Job;
 import su.nightexpress.excellentjobs.job.impl.JobState;
 import su.nightexpress.excellentjobs.stats.StatsManager;
 import su.nightexpress.excellentjobs.stats.impl.TopEntry;
+import su.nightexpress.excellentjobs.stats.impl.TopPeriod;
 import su.nightexpress.nightcore.util.NumberUtil;
 import su.nightexpress.nightcore.util.text.NightMessage;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class PlaceholderHook {
@@ -72,7 +75,8 @@ public class PlaceholderHook {
         public String onPlaceholderRequest(Player player, @NotNull String params) {
             if (player == null) return null;
 
-            JobUser user = this.plugin.getUserManager().getOrFetch(player);
+            JobUser user = this.plugin.getUserManager().getIfLoaded(player);
+            if (user == null) return "";
 
             if (params.equalsIgnoreCase("total_level")) {
                 return String.valueOf(user.countTotalLevel());
@@ -91,6 +95,22 @@ public class PlaceholderHook {
                 return count < 0 ? Lang.OTHER_INFINITY.getString() : NumberUtil.format(count);
             }
 
+            if (params.equalsIgnoreCase("total_level_rank")) {
+                StatsManager statsManager = this.plugin.getStatsManager();
+                if (statsManager == null) return null;
+
+                return formatPosition(statsManager.getTotalLevelPosition(player.getUniqueId()));
+            }
+            if (params.startsWith("top_total_level_")) {
+                StatsManager statsManager = this.plugin.getStatsManager();
+                if (statsManager == null) return null;
+
+                String[] info = params.substring("top_total_level_".length()).split("_");
+                if (info.length < 2) return null;
+
+                return formatTop(statsManager.getTotalLevelTopEntries(), info[0], info[1], false);
+            }
+
             String key = params.split("_")[0];
             String rest = params.substring(key.length() + 1);
 
@@ -153,6 +173,61 @@ public class PlaceholderHook {
                         return NumberUtil.format(entry.getValue());
                     }
                 }
+                if (rest.startsWith("top_objectives_")) {
+                    StatsManager statsManager = this.plugin.getStatsManager();
+                    if (statsManager == null) return null;
+
+                    // top_objectives_<period>_<pos>_<name|value>
+                    String[] info = rest.substring("top_objectives_".length()).split("_");
+                    if (info.length < 3) return null;
+
+                    TopPeriod period = TopPeriod.byName(info[0]);
+                    if (period == null) return null;
+
+                    return formatTop(statsManager.getObjectivesTopEntries(job, period), info[1], info[2], false);
+                }
+                if (rest.startsWith("top_earnings_")) {
+                    StatsManager statsManager = this.plugin.getStatsManager();
+                    if (statsManager == null) return null;
+
+                    // top_earnings_<period>_<currency>_<pos>_<name|value>, currency id may contain underscores.
+                    String[] info = rest.substring("top_earnings_".length()).split("_");
+                    if (info.length < 4) return null;
+
+                    TopPeriod period = TopPeriod.byName(info[0]);
+                    if (period == null) return null;
+
+                    String currencyId = String.join("_", Arrays.copyOfRange(info, 1, info.length - 2));
+                    return formatTop(statsManager.getEarningsTopEntries(job, currencyId, period), info[info.length - 2], info[info.length - 1], true);
+                }
+                if (rest.startsWith("objectives_rank_")) {
+                    StatsManager statsManager = this.plugin.getStatsManager();
+                    if (statsManager == null) return null;
+
+                    TopPeriod period = TopPeriod.byName(rest.substring("objectives_rank_".length()));
+                    if (period == null) return null;
+
+                    return formatPosition(statsManager.getObjectivesPosition(job, period, player.getUniqueId()));
+                }
+                if (rest.startsWith("earnings_rank_")) {
+                    StatsManager statsManager = this.plugin.getStatsManager();
+                    if (statsManager == null) return null;
+
+                    // earnings_rank_<period>_<currency>
+                    String[] info = rest.substring("earnings_rank_".length()).split("_", 2);
+                    if (info.length < 2) return null;
+
+                    TopPeriod period = TopPeriod.byName(info[0]);
+                    if (period == null) return null;
+
+                    return formatPosition(statsManager.getEarningsPosition(job, info[1], period, player.getUniqueId()));
+                }
+                if (rest.equalsIgnoreCase("rank")) {
+                    StatsManager statsManager = this.plugin.getStatsManager();
+                    if (statsManager == null) return null;
+
+                    return formatPosition(statsManager.getLevelPosition(job, player.getUniqueId()));
+                }
                 if (rest.equalsIgnoreCase("employees_total")) {
                     return NumberUtil.format(job.getEmployees());
                 }
@@ -178,5 +253,25 @@ public class PlaceholderHook {
 
             return NightMessage.asLegacy(jobNames.isEmpty() ? Config.PLACEHOLDERS_JOBS_FALLBACK.get() : String.join(delimiter, jobNames));
         }
+
+        @NotNull
+        private static String formatPosition(int position) {
+            return position <= 0 ? "-" : NumberUtil.format(position);
+        }
+
+        @Nullable
+        private static String formatTop(@NotNull List<TopEntry> list, @NotNull String posRaw, @NotNull String type, boolean decimal) {
+            int pos = NumberUtil.getIntegerAbs(posRaw, 0);
+            if (pos <= 0 || list.size() < pos) return "-";
+
+            TopEntry entry = list.get(pos - 1);
+            if (type.equalsIgnoreCase("name")) {
+                return entry.getName();
+            }
+            if (type.equalsIgnoreCase("value")) {
+                return decimal ? NumberUtil.format(entry.getAmount()) : NumberUtil.format(entry.getValue());
+            }
+            return null;
+        }
     }
 }
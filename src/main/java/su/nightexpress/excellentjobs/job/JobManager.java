@@ -407,7 +407,7 @@ public class JobManager extends AbstractManager<JobsPlugin> {
     }
 
     private void onLeaveJob(@NotNull Job job, @NotNull JobData data) {
-        job.removeEmployee(data.getState(), 1);
+        job.moveEmployee(data.getState(), JobState.INACTIVE);
         data.setState(JobState.INACTIVE);
         if (Config.JOBS_LEAVE_RESET_PROGRESS.get()) {
             data.reset();
@@ -456,8 +456,8 @@ public class JobManager extends AbstractManager<JobsPlugin> {
         this.plugin.getPluginManager().callEvent(event);
         if (event.isCancelled()) return false;
 
+        job.moveEmployee(data.getState(), event.getState());
         data.setState(event.getState());
-        job.addEmployee(event.getState(), 1);
         this.plugin.getUserManager().save(user);
 
         Lang.JOB_JOIN_SUCCESS.getMessage().send(player, replacer -> replacer.replace(job.replacePlaceholders()));
@@ -650,7 +650,8 @@ public class JobManager extends AbstractManager<JobsPlugin> {
     }
 
     public void doObjective(@NotNull Player player, @NotNull WorkObjective workObjective, int amount, double multiplier) {
-        JobUser user = plugin.getUserManager().getOrFetch(player);
+        JobUser user = plugin.getUserManager().getIfLoaded(player);
+        if (user == null) return;
 
         String objectId = workObjective.getObjectName();
 
@@ -880,6 +881,39 @@ public class JobManager extends AbstractManager<JobsPlugin> {
         jobData.setLevelRewardObtained(level);
     }
 
+    /**
+     * Gives rewards of levels the player has passed without getting them, e.g. rewards added to the config later.
+     * Level up commands are not run again.
+     * @return True if any rewards were given.
+     */
+    public boolean grantMissedRewards(@NotNull Player player, @NotNull JobData jobData) {
+        Job job = jobData.getJob();
+        List<LevelReward> granted = new ArrayList<>();
+
+        for (int level = 1; level <= jobData.getLevel(); level++) {
+            if (jobData.isLevelRewardObtained(level)) continue;
+
+            int rewardLevel = level;
+            List<LevelReward> rewards = job.getRewards().getRewards(level);
+            rewards.removeIf(reward -> !reward.isAvailable(player, rewardLevel));
+            if (rewards.isEmpty()) continue;
+
+            rewards.forEach(reward -> reward.run(player));
+            jobData.setLevelRewardObtained(level);
+            granted.addAll(rewards);
+        }
+
+        if (granted.isEmpty()) return false;
+
+        Lang.JOB_LEVEL_REWARDS_LIST.getMessage().send(player, replacer -> replacer
+            .replace(Placeholders.GENERIC_ENTRY, list -> {
+                granted.forEach(reward -> {
+                    list.add(reward.replacePlaceholders().apply(Lang.JOB_LEVEL_REWARDS_ENTRY.getString()));
+                });
+            }));
+        return true;
+    }
+
     @NotNull
     private Firework createFirework(@NotNull World world, @NotNull Location location) {
         Firework firework = world.spawn(location, Firework.class);
@@ -34,7 +34,7 @@ import su.nightexpress.nightcore.util.wrapper.UniInt;
 
 import java.io.File;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
@@ -68,7 +68,7 @@ public class Job extends AbstractFileData<JobsPlugin> {
 
     private final Set<JobState>              allowedStates;
     private final Set<String>                disabledWorlds;
-    private final Map<JobState, Integer>     employeesAmount;
+    private final Map<JobState, AtomicInteger> employeesAmount;
     private final TreeMap<Integer, Integer>  xpTable;
     private final Map<Integer, List<String>> levelUpCommands;
     private final JobRewards rewards;
@@ -80,7 +80,10 @@ public class Job extends AbstractFileData<JobsPlugin> {
         super(plugin, file, id);
         this.allowedStates = new HashSet<>();
         this.disabledWorlds = new HashSet<>();
-        this.employeesAmount = new ConcurrentHashMap<>();
+        this.employeesAmount = new EnumMap<>(JobState.class);
+        for (JobState state : JobState.values()) {
+            this.employeesAmount.put(state, new AtomicInteger());
+        }
         this.xpTable = new TreeMap<>();
         this.levelUpCommands = new HashMap<>();
         this.rewards = new JobRewards();
@@ -609,28 +612,49 @@ public class Job extends AbstractFileData<JobsPlugin> {
      * @return Total amount of employees for this job.
      */
     public int getEmployees() {
-        return this.getEmployeesAmount().values().stream().mapToInt(i -> i).sum();
+        int total = 0;
+        for (JobState state : JobState.values()) {
+            if (state == JobState.INACTIVE) continue;
+
+            total += this.getEmployeesAmount(state);
+        }
+        return total;
     }
 
     public int getEmployeesAmount(@NotNull JobState state) {
-        return this.getEmployeesAmount().getOrDefault(state, 0);
+        return this.employeesAmount.get(state).get();
     }
 
     public void setEmployeesAmount(@NotNull JobState state, int amount) {
-        this.getEmployeesAmount().put(state, Math.max(0, amount));
+        this.employeesAmount.get(state).set(Math.max(0, amount));
     }
 
     public void addEmployee(@NotNull JobState state, int amount) {
-        this.setEmployeesAmount(state, this.getEmployeesAmount(state) + amount);
+        this.employeesAmount.get(state).getAndUpdate(current -> Math.max(0, current + amount));
     }
 
     public void removeEmployee(@NotNull JobState state, int amount) {
-        this.setEmployeesAmount(state, this.getEmployeesAmount(state) - amount);
+        this.addEmployee(state, -amount);
+    }
+
+    /**
+     * Moves one employee between the given states, e.g. on job join, leave or state change.
+     */
+    public void moveEmployee(@NotNull JobState from, @NotNull JobState to) {
+        if (from == to) return;
+
+        if (from != JobState.INACTIVE) this.removeEmployee(from, 1);
+        if (to != JobState.INACTIVE) this.addEmployee(to, 1);
     }
 
+    /**
+     * @return Snapshot of employee counters by job state.
+     */
     @NotNull
     public Map<JobState, Integer> getEmployeesAmount() {
-        return this.employeesAmount;
+        Map<JobState, Integer> map = new EnumMap<>(JobState.class);
+        this.employeesAmount.forEach((state, counter) -> map.put(state, counter.get()));
+        return map;
     }
 
     @NotNull
@@ -8,6 +8,7 @@ import su.nightexpress.excellentjobs.JobsPlugin;
 import su.nightexpress.excellentjobs.Placeholders;
 import su.nightexpress.excellentjobs.config.Config;
 import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.user.JobUser;
 import su.nightexpress.nightcore.util.NumberUtil;
 import su.nightexpress.nightcore.util.text.NightMessage;
 
@@ -59,7 +60,10 @@ public class ProgressBar {
         String xp = NumberUtil.format(this.getXP());
         String money = moneyMap.entrySet().stream().map(e -> e.getKey().format(e.getValue())).collect(Collectors.joining(", "));
 
-        JobData data = this.plugin.getUserManager().getOrFetch(player).getData(job);
+        JobUser user = this.plugin.getUserManager().getIfLoaded(player);
+        if (user == null) return;
+
+        JobData data = user.getData(job);
         int dataXP = Math.max(0, data.getXP());
         int maxXP = Math.max(1, data.getMaxXP());
 
@@ -2,33 +2,53 @@ package su.nightexpress.excellentjobs.stats;
 
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import su.nightexpress.excellentjobs.JobsPlugin;
 import su.nightexpress.excellentjobs.config.Config;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.data.impl.JobProgress;
+import su.nightexpress.excellentjobs.data.impl.StatsRecord;
 import su.nightexpress.excellentjobs.job.impl.Job;
+import su.nightexpress.excellentjobs.job.impl.JobObjective;
 import su.nightexpress.excellentjobs.job.impl.JobState;
 import su.nightexpress.excellentjobs.stats.command.StatsCommands;
-import su.nightexpress.excellentjobs.stats.impl.DayStats;
-import su.nightexpress.excellentjobs.stats.impl.JobStats;
-import su.nightexpress.excellentjobs.stats.impl.TopEntry;
+import su.nightexpress.excellentjobs.stats.impl.*;
 import su.nightexpress.excellentjobs.stats.listener.StatsListener;
 import su.nightexpress.excellentjobs.stats.menu.StatsMenu;
 import su.nightexpress.excellentjobs.user.JobUser;
 import su.nightexpress.nightcore.manager.AbstractManager;
+import su.nightexpress.nightcore.util.TimeUtil;
 
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 public class StatsManager extends AbstractManager<JobsPlugin> {
 
-    private final Map<String, List<TopEntry>> levelTopMap;
+    private static final String SNAPSHOT_FILE     = "stats.snapshot";
+    private static final String LEGACY_EMPLOYEES  = "employees.yml";
+    private static final String TOTAL_LEVEL_BOARD = "total_level";
 
-    private StatsMenu statsMenu;
+    private final Map<String, Leaderboard> levelBoardMap;
+    private final StatsSlots               statsSlots;
+    private final Map<String, TopBoard>    topBoardMap;
+
+    private StatsMenu     statsMenu;
+    private StatsSnapshot shutdownSnapshot;
+    /** Total level of all players, values go down on job leave or reset, so it can not be bounded like stats boards. */
+    private volatile Leaderboard totalLevelBoard;
+    private volatile boolean leaderboardsLoaded;
+    private volatile long    currentDay;
 
     public StatsManager(@NotNull JobsPlugin plugin) {
         super(plugin);
-        this.levelTopMap = new ConcurrentHashMap<>();
+        this.levelBoardMap = new ConcurrentHashMap<>();
+        this.statsSlots = new StatsSlots();
+        this.topBoardMap = new ConcurrentHashMap<>();
+        this.currentDay = TimeUtil.getCurrentDate().toEpochDay();
     }
 
     @Override
@@ -37,15 +57,28 @@ public class StatsManager extends AbstractManager<JobsPlugin> {
 
         this.loadUI();
         this.loadStats();
+        this.plugin.runTaskAsync(task -> this.loadLeaderboards());
 
         this.addListener(new StatsListener(this.plugin, this));
 
-        this.addAsyncTask(this::updateJobLevelsAndEmployees, Config.STATISTIC_UPDATE_INTERVAL.get());
+        this.addTask(this::updateDay, 1);
+        this.addAsyncTask(this::updateLeaderboards, Config.STATISTIC_UPDATE_INTERVAL.get());
+        this.addAsyncTask(this::reconcileEmployees, Config.STATISTIC_EMPLOYEES_RECONCILE_INTERVAL.get());
+        this.addAsyncTask(this::saveStats, Config.STATISTIC_SAVE_INTERVAL.get());
+        this.addAsyncTask(this::compactStats, Config.STATISTIC_RETENTION_INTERVAL.get());
+        this.addAsyncTask(this::saveSnapshot, Config.STATISTIC_SNAPSHOT_INTERVAL.get());
     }
 
     @Override
     protected void onShutdown() {
         StatsCommands.unload(this.plugin);
+        this.saveStats();
+        // Users are flushed after managers are shut down, the marker is read once they're written.
+        this.shutdownSnapshot = this.createSnapshot(0L);
+        this.leaderboardsLoaded = false;
+        this.levelBoardMap.clear();
+        this.topBoardMap.clear();
+        this.totalLevelBoard = null;
     }
 
     private void loadUI() {
@@ -53,88 +86,635 @@ public class StatsManager extends AbstractManager<JobsPlugin> {
     }
 
     private void loadStats() {
-        this.plugin.runTask(task -> this.plugin.getServer().getOnlinePlayers().forEach(this::loadStats));
+        this.plugin.runTaskAsync(task -> this.plugin.getServer().getOnlinePlayers().forEach(player -> {
+            this.loadStats(this.plugin.getUserManager().getOrFetch(player));
+        }));
     }
 
-    private void loadStats(@NotNull Player player) {
-        Map<String, JobStats> stats = this.plugin.getDataHandler().getStats(player.getUniqueId());
-        JobUser user = this.plugin.getUserManager().getOrFetch(player);
-        user.loadStats(stats);
+    /**
+     * @return Days of daily stats kept in memory and in the database. Rolling leaderboards need at least a month of them.
+     */
+    private static int getHistoryDays() {
+        return Math.max(Math.max(0, Config.STATISTIC_HISTORY_DAYS.get()), TopPeriod.MONTHLY.getMinDays());
+    }
+
+    /**
+     * Loads daily stats of the history window and all-time totals in a single query. Must be called off the main thread.
+     */
+    private void loadStats(@NotNull JobUser user) {
+        if (user.isStatsLoaded()) return;
+
+        LocalDate since = TimeUtil.getCurrentDate().minusDays(getHistoryDays());
+
+        user.loadStats(this.plugin.getDataHandler().getStats(user.getId(), since), since);
+    }
+
+    /**
+     * Writes stats collected since the last save of all loaded users in a single batch.
+     */
+    public void saveStats() {
+        this.saveStats(new ArrayList<>(this.plugin.getUserManager().getLoaded()));
+    }
+
+    public void saveStats(@NotNull Collection<JobUser> users) {
+        Map<JobStats, Map<String, DayStats>> taken = new HashMap<>();
+        List<StatsRecord> records = new ArrayList<>();
+
+        users.forEach(user -> {
+            // Stats collected before load are merged on load, they must not be written earlier.
+            if (!user.isStatsLoaded()) return;
+
+            this.flushCounters(user);
+
+            user.getStatsMap().forEach((jobId, jobStats) -> {
+                if (!jobStats.hasPendingStats()) return;
+
+                Map<String, DayStats> pending = jobStats.takePendingStats();
+                taken.put(jobStats, pending);
+                pending.forEach((date, dayStats) -> records.add(new StatsRecord(user.getId(), jobId, LocalDate.parse(date), dayStats)));
+            });
+        });
+
+        if (records.isEmpty()) return;
+
+        if (!this.plugin.getDataHandler().saveStats(records)) {
+            taken.forEach(JobStats::restorePendingStats);
+        }
+    }
+
+    /**
+     * Writes leaderboards and employee counters to the snapshot file together with the current database version marker.
+     */
+    public void saveSnapshot() {
+        if (!this.leaderboardsLoaded) return;
+
+        long marker = this.plugin.getDataHandler().getVersionMarker();
+        if (marker == 0L) return;
+
+        StatsSnapshot snapshot = this.createSnapshot(marker);
+        if (snapshot != null) this.writeSnapshot(snapshot);
+    }
+
+    /**
+     * Writes the snapshot taken on shutdown, after all users were written, so its marker matches the database on next startup.
+     */
+    public void saveShutdownSnapshot() {
+        StatsSnapshot snapshot = this.shutdownSnapshot;
+        if (snapshot == null) return;
+
+        this.shutdownSnapshot = null;
+
+        long marker = this.plugin.getDataHandler().getVersionMarker();
+        if (marker == 0L) return;
+
+        this.writeSnapshot(snapshot.withVersionMarker(marker));
+    }
+
+    @Nullable
+    private StatsSnapshot createSnapshot(long marker) {
+        if (!this.leaderboardsLoaded) return null;
+
+        StatsSnapshot snapshot = new StatsSnapshot(marker, this.currentDay, Config.STATISTIC_LEADERBOARD_SIZE.get());
+
+        this.plugin.getJobManager().getJobs().forEach(job -> {
+            Map<JobState, Integer> counts = new EnumMap<>(JobState.class);
+            for (JobState state : JobState.values()) {
+                if (state == JobState.INACTIVE) continue;
+
+                counts.put(state, job.getEmployeesAmount(state));
+            }
+            snapshot.getEmployees().put(job.getId(), counts);
+        });
+        this.levelBoardMap.forEach((jobId, board) -> snapshot.getLevelBoards().put(jobId, board.getEntries()));
+        Leaderboard totalLevelBoard = this.totalLevelBoard;
+        if (totalLevelBoard != null) snapshot.getLevelBoards().put(TOTAL_LEVEL_BOARD, totalLevelBoard.getEntries());
+        this.topBoardMap.forEach((key, board) -> snapshot.getTopBoards().put(key, board.getEntries()));
+        return snapshot;
+    }
+
+    private void writeSnapshot(@NotNull StatsSnapshot snapshot) {
+        try {
+            snapshot.write(new File(this.plugin.getDataFolder(), SNAPSHOT_FILE));
+        }
+        catch (IOException exception) {
+            this.plugin.error("Could not write stats snapshot!");
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Restores leaderboards and employee counters from the snapshot if the database has not changed since it was written.
+     * @return True if snapshot was applied, false if leaderboards must be rebuilt.
+     */
+    private boolean loadSnapshot() {
+        File legacy = new File(this.plugin.getDataFolder(), LEGACY_EMPLOYEES);
+        if (legacy.exists()) legacy.delete();
+
+        File file = new File(this.plugin.getDataFolder(), SNAPSHOT_FILE);
+        if (!file.exists()) return false;
+
+        StatsSnapshot snapshot;
+        try {
+            snapshot = StatsSnapshot.read(file);
+        }
+        catch (IOException exception) {
+            this.plugin.warn("Could not read stats snapshot: " + exception.getMessage());
+            return false;
+        }
+
+        int topSize = Config.STATISTIC_LEADERBOARD_SIZE.get();
+        if (snapshot == null || snapshot.getTopSize() != topSize || snapshot.getVersionMarker() != this.plugin.getDataHandler().getVersionMarker()) {
+            this.plugin.info("Stats snapshot is outdated, rebuilding leaderboards...");
+            return false;
+        }
+
+        this.plugin.getJobManager().getJobs().forEach(job -> {
+            Map<JobState, Integer> counts = snapshot.getEmployees().getOrDefault(job.getId(), Collections.emptyMap());
+            for (JobState state : JobState.values()) {
+                if (state == JobState.INACTIVE) continue;
+
+                job.setEmployeesAmount(state, counts.getOrDefault(state, 0));
+            }
+        });
+
+        // Written before total level was ranked over all players.
+        if (!snapshot.getLevelBoards().containsKey(TOTAL_LEVEL_BOARD)) {
+            this.plugin.info("Stats snapshot is outdated, rebuilding leaderboards...");
+            return false;
+        }
+
+        Map<String, Leaderboard> levelBoards = new HashMap<>();
+        snapshot.getLevelBoards().forEach((jobId, entries) -> {
+            if (!jobId.equals(TOTAL_LEVEL_BOARD) && this.plugin.getJobManager().getJobById(jobId) == null) return;
+
+            Leaderboard board = new Leaderboard(topSize);
+            entries.forEach(entry -> board.update(entry.id(), entry.name(), entry.level(), entry.xp(), entry.levelDate()));
+            levelBoards.put(jobId, board);
+        });
+
+        Map<String, TopBoard> topBoards = new HashMap<>();
+        snapshot.getTopBoards().forEach((key, entries) -> {
+            TopBoard board = new TopBoard(topSize);
+            entries.forEach(entry -> board.update(entry.id(), entry.name(), entry.value()));
+            topBoards.put(key, board);
+        });
+
+        this.totalLevelBoard = levelBoards.remove(TOTAL_LEVEL_BOARD);
+        this.levelBoardMap.clear();
+        this.levelBoardMap.putAll(levelBoards);
+        this.topBoardMap.clear();
+        this.topBoardMap.putAll(topBoards);
+
+        // Rolling periods have moved since the snapshot was written.
+        if (snapshot.getDay() != this.currentDay) {
+            this.loadTopBoards(true);
+        }
+        return true;
+    }
+
+    /**
+     * Restores leaderboards from the snapshot, or builds them from the database if it's missing or outdated.
+     */
+    private void loadLeaderboards() {
+        if (!this.loadSnapshot()) {
+            this.rebuildLeaderboards();
+        }
+        this.leaderboardsLoaded = true;
+
+        // Online players may have progressed while data was read.
+        this.updateLeaderboards();
+    }
+
+    /**
+     * Builds leaderboards and employee counters from the database. Further updates are done incrementally.
+     */
+    private void rebuildLeaderboards() {
+        int topSize = Config.STATISTIC_LEADERBOARD_SIZE.get();
+        Map<String, Leaderboard> boards = new HashMap<>();
+        Map<String, Map<JobState, Integer>> employees = new HashMap<>();
+        Map<UUID, Integer> totalLevels = new HashMap<>();
+        Map<UUID, String> userNames = new HashMap<>();
+        Collection<JobUser> loadedUsers = new ArrayList<>(this.plugin.getUserManager().getLoaded());
+        Set<UUID> loadedIds = new HashSet<>();
+        loadedUsers.forEach(user -> loadedIds.add(user.getId()));
+        Map<String, Map<JobState, Integer>> snapshot = this.snapshotEmployees();
+        Map<String, Map<JobState, Integer>> loaded = countEmployees(loadedUsers);
+
+        this.plugin.getDataHandler().loadJobProgress(progress -> {
+            Job job = this.plugin.getJobManager().getJobById(progress.jobId());
+            if (job == null) return;
+
+            if (progress.state() != JobState.INACTIVE) {
+                totalLevels.merge(progress.userId(), progress.level(), Integer::sum);
+                userNames.putIfAbsent(progress.userId(), progress.userName());
+            }
+
+            if (progress.state() != JobState.INACTIVE && !loadedIds.contains(progress.userId())) {
+                employees.computeIfAbsent(job.getId(), k -> new EnumMap<>(JobState.class)).merge(progress.state(), 1, Integer::sum);
+            }
+            if (progress.isRanked()) {
+                boards.computeIfAbsent(job.getId(), k -> new Leaderboard(topSize)).update(progress.userId(), progress.userName(), progress.level(), progress.xp(), progress.levelDate());
+            }
+        });
+
+        this.applyEmployees(employees, loaded, snapshot);
+
+        Leaderboard totalLevelBoard = new Leaderboard(topSize);
+        totalLevels.forEach((userId, level) -> {
+            if (level > 0) totalLevelBoard.update(userId, userNames.get(userId), level, 0, 0L);
+        });
+
+        this.levelBoardMap.clear();
+        this.levelBoardMap.putAll(boards);
+        this.totalLevelBoard = totalLevelBoard;
+        this.loadTopBoards(false);
+    }
+
+    /**
+     * Builds earnings and objectives leaderboards from totals summed by the database.
+     * Called once on startup and for rolling periods when the day changes, updated incrementally otherwise.
+     */
+    private void loadTopBoards(boolean rollingOnly) {
+        int topSize = Config.STATISTIC_LEADERBOARD_SIZE.get();
+        LocalDate today = TimeUtil.getCurrentDate();
+
+        for (TopPeriod period : TopPeriod.values()) {
+            if (rollingOnly && !period.isRolling()) continue;
+
+            LocalDate since = period.isRolling() ? today.minusDays(period.getMinDays()) : null;
+            Map<String, TopBoard> boards = new HashMap<>();
+
+            this.plugin.getDataHandler().loadStatsTotals(StatsType.CURRENCY, since, total -> {
+                String key = getEarningsBoardKey(total.jobId(), total.name(), period);
+                boards.computeIfAbsent(key, k -> new TopBoard(topSize)).update(total.userId(), total.userName(), total.amount());
+            });
+            this.plugin.getDataHandler().loadStatsTotals(StatsType.OBJECTIVE, since, total -> {
+                String key = getObjectivesBoardKey(total.jobId(), period);
+                boards.computeIfAbsent(key, k -> new TopBoard(topSize)).update(total.userId(), total.userName(), total.amount());
+            });
+
+            String suffix = ":" + period.getName();
+            this.topBoardMap.keySet().removeIf(key -> key.endsWith(suffix) && !boards.containsKey(key));
+            this.topBoardMap.putAll(boards);
+        }
     }
 
     @NotNull
-    public Map<String, List<TopEntry>> getLevelTopMap() {
-        return this.levelTopMap;
+    private static String getEarningsBoardKey(@NotNull String jobId, @NotNull String currencyId, @NotNull TopPeriod period) {
+        return "earnings:" + jobId.toLowerCase() + ":" + currencyId.toLowerCase() + ":" + period.getName();
     }
 
     @NotNull
-    public List<TopEntry> getLevelTopEntries(@NotNull Job job) {
-        return this.getLevelTopEntries(job.getId());
+    private static String getObjectivesBoardKey(@NotNull String jobId, @NotNull TopPeriod period) {
+        return "objectives:" + jobId.toLowerCase() + ":" + period.getName();
     }
 
     @NotNull
-    public List<TopEntry> getLevelTopEntries(@NotNull String id) {
-        return this.levelTopMap.getOrDefault(id.toLowerCase(), Collections.emptyList());
+    private TopBoard getTopBoard(@NotNull String key) {
+        return this.topBoardMap.computeIfAbsent(key, k -> new TopBoard(Config.STATISTIC_LEADERBOARD_SIZE.get()));
     }
 
-    public void handleJoin(@NotNull Player player) {
-        this.plugin.runTaskAsync(task -> this.loadStats(player));
+    public void updateEarningsBoards(@NotNull JobUser user, @NotNull String jobId, @NotNull String currencyId) {
+        if (!this.leaderboardsLoaded) return;
+
+        JobStats stats = user.getStats(jobId);
+        for (TopPeriod period : TopPeriod.values()) {
+            this.getTopBoard(getEarningsBoardKey(jobId, currencyId, period)).update(user.getId(), user.getName(), stats.getCurrency(period, currencyId));
+        }
     }
 
-    public void openStats(@NotNull Player player, @NotNull Job job) {
-        this.statsMenu.open(player, job);
+    public void updateObjectivesBoards(@NotNull JobUser user, @NotNull String jobId) {
+        if (!this.leaderboardsLoaded) return;
+
+        JobStats stats = user.getStats(jobId);
+        for (TopPeriod period : TopPeriod.values()) {
+            this.getTopBoard(getObjectivesBoardKey(jobId, period)).update(user.getId(), user.getName(), stats.getObjectives(period));
+        }
     }
 
-    public void addStats(@NotNull Player player, @NotNull Job job, @NotNull Consumer<DayStats> consumer) {
-        JobUser user = plugin.getUserManager().getOrFetch(player);
-        JobStats jobStats = user.getStats(job);
-        DayStats stats = jobStats.getTodayStats();
+    public void updateStatsBoards(@NotNull JobUser user) {
+        this.flushCounters(user);
+
+        user.getStatsMap().forEach((jobId, stats) -> {
+            this.updateObjectivesBoards(user, jobId);
+            stats.getAllTimeStats().getCurrencyEarned().keySet().forEach(currencyId -> this.updateEarningsBoards(user, jobId, currencyId));
+        });
+    }
 
-        consumer.accept(stats);
+    /**
+     * Recounts employees from the database to fix counters drifted by changes made outside of the plugin.
+     * Loaded users are counted from memory, since their latest changes may not be saved yet.
+     */
+    public void reconcileEmployees() {
+        if (!this.leaderboardsLoaded) return;
+
+        Collection<JobUser> loadedUsers = new ArrayList<>(this.plugin.getUserManager().getLoaded());
+        Set<UUID> loadedIds = new HashSet<>();
+        loadedUsers.forEach(user -> loadedIds.add(user.getId()));
+        Map<String, Map<JobState, Integer>> snapshot = this.snapshotEmployees();
+        Map<String, Map<JobState, Integer>> loaded = countEmployees(loadedUsers);
+
+        this.applyEmployees(this.plugin.getDataHandler().countEmployees(loadedIds), loaded, snapshot);
     }
 
-    public void updateJobLevelsAndEmployees() {
-        //this.updateEmployeesAmount();
-        //this.updateTopLevelLeaderboard();
-        this.levelTopMap.clear();
+    @NotNull
+    private Map<String, Map<JobState, Integer>> snapshotEmployees() {
+        Map<String, Map<JobState, Integer>> snapshot = new HashMap<>();
+        this.plugin.getJobManager().getJobs().forEach(job -> snapshot.put(job.getId(), job.getEmployeesAmount()));
+        return snapshot;
+    }
 
-        List<JobUser> users = this.plugin.getDataHandler().getUsers();
+    @NotNull
+    private static Map<String, Map<JobState, Integer>> countEmployees(@NotNull Collection<JobUser> users) {
+        Map<String, Map<JobState, Integer>> counts = new HashMap<>();
+        users.forEach(user -> user.getDatas().forEach(jobData -> {
+            if (jobData.getState() == JobState.INACTIVE) return;
 
+            counts.computeIfAbsent(jobData.getJob().getId(), k -> new EnumMap<>(JobState.class)).merge(jobData.getState(), 1, Integer::sum);
+        }));
+        return counts;
+    }
+
+    /**
+     * Sets counters to the stored and loaded counts, keeping changes made by joins and leaves while the database was read.
+     * @param snapshot Counters taken along with loaded counts, before the database was read.
+     */
+    private void applyEmployees(@NotNull Map<String, Map<JobState, Integer>> stored,
+                                @NotNull Map<String, Map<JobState, Integer>> loaded,
+                                @NotNull Map<String, Map<JobState, Integer>> snapshot) {
         this.plugin.getJobManager().getJobs().forEach(job -> {
+            Map<JobState, Integer> storedCounts = stored.getOrDefault(job.getId(), Collections.emptyMap());
+            Map<JobState, Integer> loadedCounts = loaded.getOrDefault(job.getId(), Collections.emptyMap());
+            Map<JobState, Integer> snapshotCounts = snapshot.get(job.getId());
+            // Job was loaded while the database was read, there are no changes to keep.
+            if (snapshotCounts == null) snapshotCounts = job.getEmployeesAmount();
+
             for (JobState state : JobState.values()) {
                 if (state == JobState.INACTIVE) continue;
-                int employess = (int) users.stream().filter(user -> user.getData(job).getState() == state).count();
 
-                job.setEmployeesAmount(state, employess);
+                int target = storedCounts.getOrDefault(state, 0) + loadedCounts.getOrDefault(state, 0);
+                job.addEmployee(state, target - snapshotCounts.getOrDefault(state, 0));
+            }
+        });
+    }
+
+    public void updateLeaderboards() {
+        if (!this.leaderboardsLoaded) return;
+
+        this.plugin.getUserManager().getLoaded().forEach(user -> {
+            this.updateLeaderboards(user);
+            this.updateStatsBoards(user);
+        });
+    }
+
+    public void updateLeaderboards(@NotNull JobUser user) {
+        user.getDatas().forEach(jobData -> this.updateLeaderboards(user, jobData));
+    }
+
+    public void updateLeaderboards(@NotNull JobUser user, @NotNull JobData jobData) {
+        if (!this.leaderboardsLoaded) return;
+
+        Job job = jobData.getJob();
+        this.updateLevelBoard(new JobProgress(user.getId(), user.getName(), job.getId(), jobData.getState(), jobData.getLevel(), jobData.getXP(), jobData.getLevelDate()));
+        this.updateTotalLevel(user);
+    }
+
+    private void updateTotalLevel(@NotNull JobUser user) {
+        Leaderboard board = this.totalLevelBoard;
+        if (board == null) return;
+
+        int level = user.countTotalLevel();
+        if (level > 0) board.update(user.getId(), user.getName(), level, 0, 0L);
+        else board.remove(user.getId());
+    }
+
+    /**
+     * Updates level leaderboard of the job with progress of a user, who may be loaded on another server.
+     */
+    public void updateLevelBoard(@NotNull JobProgress progress) {
+        if (!this.leaderboardsLoaded) return;
+
+        if (progress.isRanked()) {
+            this.getOrCreateLevelBoard(progress.jobId()).update(progress.userId(), progress.userName(), progress.level(), progress.xp(), progress.levelDate());
+        }
+        else {
+            Leaderboard board = this.levelBoardMap.get(progress.jobId());
+            if (board != null) board.remove(progress.userId());
+        }
+    }
+
+    @NotNull
+    private Leaderboard getOrCreateLevelBoard(@NotNull String jobId) {
+        return this.levelBoardMap.computeIfAbsent(jobId, k -> new Leaderboard(Config.STATISTIC_LEADERBOARD_SIZE.get()));
+    }
+
+    @Nullable
+    public Leaderboard getLevelBoard(@NotNull String id) {
+        return this.levelBoardMap.get(id.toLowerCase());
+    }
+
+    @NotNull
+    public List<TopEntry> getLevelTopEntries(@NotNull Job job) {
+        return this.getLevelTopEntries(job.getId());
+    }
+
+    @NotNull
+    public List<TopEntry> getLevelTopEntries(@NotNull String id) {
+        Leaderboard board = this.getLevelBoard(id);
+        return board == null ? Collections.emptyList() : board.getTopEntries();
+    }
+
+    /**
+     * @return Player's position on job level leaderboard, or -1 if player is not ranked.
+     */
+    public int getLevelPosition(@NotNull Job job, @NotNull UUID playerId) {
+        Leaderboard board = this.getLevelBoard(job.getId());
+        return board == null ? -1 : board.getPosition(playerId);
+    }
+
+    /**
+     * Drops daily stats beyond the history window from memory and rolls old database rows up into coarser buckets.
+     */
+    public void compactStats() {
+        LocalDate today = TimeUtil.getCurrentDate();
+        int historyDays = getHistoryDays();
+        LocalDate oldest = today.minusDays(historyDays);
+
+        long reclaimed = 0L;
+        for (JobUser user : new ArrayList<>(this.plugin.getUserManager().getLoaded())) {
+            for (JobStats jobStats : user.getStatsMap().values()) {
+                reclaimed += jobStats.prune(oldest);
             }
 
-            var topList = this.levelTopMap.computeIfAbsent(job.getId(), k -> new ArrayList<>());
-            AtomicInteger position = new AtomicInteger();
+            LocalDate since = user.getStatsSince();
+            if (since != null && since.isBefore(oldest)) user.setStatsSince(oldest);
+        }
+
+        int dailyDays = Config.STATISTIC_RETENTION_DAILY_DAYS.get();
+        int weeklyWeeks = Config.STATISTIC_RETENTION_WEEKLY_WEEKS.get();
+        int monthlyMonths = Config.STATISTIC_RETENTION_MONTHLY_MONTHS.get();
+
+        Map<StatsPeriod, LocalDate> cutoffs = new EnumMap<>(StatsPeriod.class);
+        if (dailyDays >= 0) cutoffs.put(StatsPeriod.DAY, today.minusDays(Math.max(dailyDays, historyDays)));
+        if (weeklyWeeks >= 0) cutoffs.put(StatsPeriod.WEEK, StatsPeriod.WEEK.getBucketStart(today.minusWeeks(weeklyWeeks)));
+        if (monthlyMonths >= 0) cutoffs.put(StatsPeriod.MONTH, StatsPeriod.MONTH.getBucketStart(today.minusMonths(monthlyMonths)));
+
+        int rows = this.plugin.getDataHandler().getStatsStorage().compact(cutoffs, Config.STATISTIC_RETENTION_ROWS_PER_RUN.get());
+
+        this.plugin.debug("Stats compaction: reclaimed ~" + (reclaimed / 1024L) + " KB of daily stats in memory, rolled up " + rows + " database rows.");
+    }
+
+    /**
+     * Swaps counters at midnight, so each day's values are kept under their own date.
+     */
+    private void updateDay() {
+        long day = TimeUtil.getCurrentDate().toEpochDay();
+        if (day == this.currentDay) return;
+
+        this.currentDay = day;
+        this.plugin.getUserManager().getLoaded().forEach(this::flushCounters);
+
+        if (this.leaderboardsLoaded) {
+            this.plugin.runTaskAsync(task -> {
+                this.saveStats();
+                this.loadTopBoards(true);
+                this.plugin.getUserManager().getLoaded().forEach(this::updateStatsBoards);
+            });
+        }
+    }
+
+    /**
+     * Moves values of user's primitive counters into job stats.
+     */
+    public void flushCounters(@NotNull JobUser user) {
+        Map<String, DayStats> deltas = new HashMap<>();
+        long[] day = new long[1];
+
+        user.getStatsCounters().drain((counterDay, slot, amount) -> {
+            StatsSlots.Slot info = this.statsSlots.getSlot(slot);
+            deltas.computeIfAbsent(info.jobId(), k -> new DayStats(0L)).addObjective(info.objectiveId(), info.objectName(), amount);
+            day[0] = counterDay;
+        });
+
+        if (deltas.isEmpty()) return;
+
+        LocalDate date = LocalDate.ofEpochDay(day[0]);
+        deltas.forEach((jobId, delta) -> {
+            user.getStats(jobId).add(date, stats -> stats.add(delta));
+            this.updateObjectivesBoards(user, jobId);
+        });
+    }
+
+    /**
+     * Counts completed objective. Called for every objective income, so it only increments a primitive counter.
+     */
+    public void addObjective(@NotNull JobUser user, @NotNull Job job, @NotNull JobObjective objective, @NotNull String objectName, int amount) {
+        int slot = this.statsSlots.getSlot(job, objective, objectName);
+        StatsCounters counters = user.getStatsCounters();
+
+        if (!counters.add(this.currentDay, slot, amount)) {
+            this.flushCounters(user);
+            counters.add(this.currentDay, slot, amount);
+        }
+    }
+
+    @NotNull
+    public List<TopEntry> getEarningsTopEntries(@NotNull Job job, @NotNull String currencyId, @NotNull TopPeriod period) {
+        return this.getTopEntries(getEarningsBoardKey(job.getId(), currencyId, period));
+    }
+
+    @NotNull
+    public List<TopEntry> getObjectivesTopEntries(@NotNull Job job, @NotNull TopPeriod period) {
+        return this.getTopEntries(getObjectivesBoardKey(job.getId(), period));
+    }
+
+    @NotNull
+    public List<TopEntry> getTotalLevelTopEntries() {
+        Leaderboard board = this.totalLevelBoard;
+        return board == null ? Collections.emptyList() : board.getTopEntries();
+    }
+
+    /**
+     * @return Player's position on earnings leaderboard, or -1 if player is not in top.
+     */
+    public int getEarningsPosition(@NotNull Job job, @NotNull String currencyId, @NotNull TopPeriod period, @NotNull UUID playerId) {
+        return this.getTopPosition(getEarningsBoardKey(job.getId(), currencyId, period), playerId);
+    }
+
+    public int getObjectivesPosition(@NotNull Job job, @NotNull TopPeriod period, @NotNull UUID playerId) {
+        return this.getTopPosition(getObjectivesBoardKey(job.getId(), period), playerId);
+    }
+
+    public int getTotalLevelPosition(@NotNull UUID playerId) {
+        Leaderboard board = this.totalLevelBoard;
+        return board == null ? -1 : board.getPosition(playerId);
+    }
+
+    @NotNull
+    private List<TopEntry> getTopEntries(@NotNull String key) {
+        TopBoard board = this.topBoardMap.get(key);
+        return board == null ? Collections.emptyList() : board.getTopEntries();
+    }
+
+    private int getTopPosition(@NotNull String key, @NotNull UUID playerId) {
+        TopBoard board = this.topBoardMap.get(key);
+        return board == null ? -1 : board.getPosition(playerId);
+    }
+
+    /**
+     * Loads stats together with the user data on the async login thread, so they are ready when the player joins.
+     */
+    public void handlePreLogin(@NotNull UUID playerId) {
+        JobUser user = this.plugin.getUserManager().getLoaded(playerId);
+        if (user == null) return;
 
-            users.stream().sorted(Comparator.comparingInt((JobUser user) -> user.getData(job).getLevel()).reversed()).forEach(user -> {
-                topList.add(new TopEntry(user.getName(), user.getData(job).getLevel(), position.incrementAndGet()));
+        this.loadStats(user);
+    }
+
+    public void handleJoin(@NotNull Player player) {
+        JobUser user = this.plugin.getUserManager().getOrFetch(player);
+        if (user.isStatsLoaded()) return;
+
+        // Fallback for users that were not loaded on login.
+        this.plugin.runTaskAsync(task -> this.loadStats(user));
+    }
+
+    public void handleQuit(@NotNull Player player) {
+        JobUser user = this.plugin.getUserManager().getIfLoaded(player);
+        if (user == null) return;
+
+        this.plugin.runTaskAsync(task -> this.saveStats(Collections.singletonList(user)));
+    }
+
+    public void openStats(@NotNull Player player, @NotNull Job job) {
+        JobUser user = this.plugin.getUserManager().getOrFetch(player);
+        LocalDate since = user.getStatsSince();
+        LocalDate required = TimeUtil.getCurrentDate().minusDays(this.statsMenu.getRequiredDays());
+
+        if (since == null || !since.isAfter(required)) {
+            this.statsMenu.open(player, job);
+            return;
+        }
+
+        // Older days are not kept in memory, fetch them only when the menu needs them.
+        this.plugin.runTaskAsync(task -> {
+            this.plugin.getDataHandler().getStatsHistory(user.getId(), required, since).forEach((jobId, days) -> {
+                user.getStats(jobId).loadHistory(days);
+            });
+            user.setStatsSince(required);
+
+            this.plugin.runTask(task2 -> {
+                if (player.isOnline()) this.statsMenu.open(player, job);
             });
         });
     }
 
-//    public void updateEmployeesAmount() {
-//        Map<Job, Map<JobState, Integer>> dataMap = this.plugin.getData().getEmployees();
-//
-//        dataMap.forEach((job, map) -> {
-//            map.forEach(job::setEmployeesAmount);
-//        });
-//    }
-//
-//    public void updateTopLevelLeaderboard() {
-//        Map<Job, Map<String, Integer>> dataMap = this.plugin.getData().getLevels();
-//
-//        this.levelTopMap.clear();
-//
-//        dataMap.forEach((job, userLevelMap) -> {
-//            AtomicInteger count = new AtomicInteger();
-//            Lists.sortDescent(userLevelMap).forEach((name, level) -> {
-//                this.levelTopMap.computeIfAbsent(job.getId(), k -> new ArrayList<>()).add(new TopEntry(name, level, count.incrementAndGet()));
-//            });
-//        });
-//    }
+    public void addStats(@NotNull Player player, @NotNull Job job, @NotNull Consumer<DayStats> consumer) {
+        JobUser user = plugin.getUserManager().getIfLoaded(player);
+        if (user == null) return;
+
+        JobStats jobStats = user.getStats(job);
+
+        jobStats.add(consumer);
+    }
 }
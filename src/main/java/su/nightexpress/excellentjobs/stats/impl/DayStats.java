@@ -5,6 +5,7 @@ import su.nightexpress.economybridge.api.Currency;
 import su.nightexpress.excellentjobs.job.impl.JobObjective;
 
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,7 +20,11 @@ public class DayStats {
     // TODO XP
 
     public DayStats() {
-        this(new HashMap<>(), new HashMap<>(), JobStats.toEpochMillis(LocalDate.now()), 0);
+        this(JobStats.toEpochMillis(LocalDate.now()));
+    }
+
+    public DayStats(long timestamp) {
+        this(new HashMap<>(), new HashMap<>(), timestamp, 0);
     }
 
     public DayStats(@NotNull Map<String, Double> currencyEarned,
@@ -47,16 +52,26 @@ public class DayStats {
     }
 
     public int getObjectives(@NotNull String objectiveId) {
-        Map<String, Integer> map = this.objectivesCompleted.computeIfAbsent(objectiveId.toLowerCase(), k -> new HashMap<>());
+        Map<String, Integer> map = this.objectivesCompleted.getOrDefault(objectiveId.toLowerCase(), Collections.emptyMap());
         return map.values().stream().mapToInt(i -> i).sum();
     }
 
+    public int getObjectivesTotal() {
+        int total = 0;
+        for (Map<String, Integer> objects : this.objectivesCompleted.values()) {
+            for (int amount : objects.values()) {
+                total += amount;
+            }
+        }
+        return total;
+    }
+
     public int getObjectives(@NotNull JobObjective objective, @NotNull String objectName) {
         return this.getObjectives(objective.getId(), objectName);
     }
 
     public int getObjectives(@NotNull String objectiveId, @NotNull String objectName) {
-        var map = this.objectivesCompleted.computeIfAbsent(objectiveId.toLowerCase(), k -> new HashMap<>());
+        var map = this.objectivesCompleted.getOrDefault(objectiveId.toLowerCase(), Collections.emptyMap());
         return map.getOrDefault(objectName.toLowerCase(), 0);
     }
 
@@ -65,7 +80,16 @@ public class DayStats {
     public void add(@NotNull DayStats stats) {
         stats.getCurrencyEarned().forEach(this::addCurrency);
         stats.getObjectivesCompleted().forEach((objectiveId, map) -> map.forEach((objectName, amount) -> this.addObjective(objectiveId, objectName, amount)));
-        stats.addOrders(stats.getOrdersCompleted());
+        this.addOrders(stats.getOrdersCompleted());
+    }
+
+    /**
+     * Removes values of the given stats, used to move rolling totals forward by a day.
+     */
+    public void subtract(@NotNull DayStats stats) {
+        stats.getCurrencyEarned().forEach((currencyId, amount) -> this.addCurrency(currencyId, -amount));
+        stats.getObjectivesCompleted().forEach((objectiveId, map) -> map.forEach((objectName, amount) -> this.addObjective(objectiveId, objectName, -amount)));
+        this.setOrdersCompleted(Math.max(0, this.ordersCompleted - stats.getOrdersCompleted()));
     }
 
     public void addCurrency(@NotNull Currency currency, double amount) {
@@ -94,6 +118,21 @@ public class DayStats {
         this.setOrdersCompleted(this.ordersCompleted + Math.abs(amount));
     }
 
+    /**
+     * @return Rough amount of heap bytes used by this object and its maps.
+     */
+    public long estimateSize() {
+        long size = 64L + 48L * this.currencyEarned.size();
+        for (Map<String, Integer> objects : this.objectivesCompleted.values()) {
+            size += 96L + 48L * objects.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return this.currencyEarned.isEmpty() && this.objectivesCompleted.isEmpty() && this.ordersCompleted == 0;
+    }
+
 
 
     @NotNull
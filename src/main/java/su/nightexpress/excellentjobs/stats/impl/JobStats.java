@@ -9,17 +9,177 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class JobStats {
 
     private final Map<String, DayStats> dayStatsMap;
+    private final DayStats              allTimeStats;
+    private final Map<Long, DayStats>   rollups;
+
+    /**
+     * Date the rolling totals are calculated for.
+     */
+    private LocalDate rollupDate;
+
+    /**
+     * Increments by date that are not written to the database yet.
+     */
+    private Map<String, DayStats> pendingStats;
 
     public JobStats() {
-        this(new HashMap<>());
+        this(new HashMap<>(), new DayStats(0L));
     }
 
     public JobStats(@NotNull Map<String, DayStats> dayStatsMap) {
-        this.dayStatsMap = dayStatsMap;
+        this(dayStatsMap, new DayStats(0L));
+        dayStatsMap.values().forEach(this.allTimeStats::add);
+    }
+
+    public JobStats(@NotNull Map<String, DayStats> dayStatsMap, @NotNull DayStats allTimeStats) {
+        this.dayStatsMap = new HashMap<>(dayStatsMap);
+        this.allTimeStats = allTimeStats;
+        this.rollups = new HashMap<>();
+        this.pendingStats = new HashMap<>();
+    }
+
+    /**
+     * Merges stats loaded from the database. Stats collected before that are still pending, so they are added on top.
+     */
+    public synchronized void load(@NotNull JobStats stored) {
+        stored.dayStatsMap.forEach((date, storedStats) -> {
+            DayStats current = this.dayStatsMap.get(date);
+            if (current != null) storedStats.add(current);
+
+            this.dayStatsMap.put(date, storedStats);
+        });
+        this.allTimeStats.add(stored.allTimeStats);
+        this.rollups.clear();
+    }
+
+    /**
+     * Adds older daily stats fetched on demand. They are already a part of all-time totals.
+     */
+    public synchronized void loadHistory(@NotNull Map<String, DayStats> days) {
+        days.forEach(this.dayStatsMap::putIfAbsent);
+        this.rollups.clear();
+    }
+
+    /**
+     * Applies the given action to today's stats, all-time stats and pending increments.
+     * @param action Action that only adds values, as it's applied to several stats objects.
+     */
+    public void add(@NotNull Consumer<DayStats> action) {
+        this.add(TimeUtil.getCurrentDate(), action);
+    }
+
+    /**
+     * Applies the given action to stats of the given date, all-time stats, rolling totals including that date and pending increments.
+     * @param action Action that only adds values, as it's applied to several stats objects.
+     */
+    public synchronized void add(@NotNull LocalDate date, @NotNull Consumer<DayStats> action) {
+        LocalDate today = TimeUtil.getCurrentDate();
+        this.rotate(today);
+
+        action.accept(this.getStatsOrCreate(date));
+        action.accept(this.pendingStats.computeIfAbsent(date.toString(), k -> new DayStats(toEpochMillis(date))));
+        action.accept(this.allTimeStats);
+
+        long daysAgo = today.toEpochDay() - date.toEpochDay();
+        this.rollups.forEach((key, stats) -> {
+            int minDays = getMinDays(key);
+            int maxDays = getMaxDays(key);
+
+            if ((minDays < 0 || daysAgo <= minDays) && (maxDays < 0 || daysAgo >= maxDays)) {
+                action.accept(stats);
+            }
+        });
+    }
+
+    /**
+     * Moves rolling totals to the given date: the oldest day leaves each window and a new day enters it.
+     * If more than a day has passed, totals are dropped and calculated again on next access.
+     */
+    private void rotate(@NotNull LocalDate today) {
+        if (today.equals(this.rollupDate)) return;
+
+        if (this.rollupDate == null || !this.rollupDate.plusDays(1).equals(today)) {
+            this.rollups.clear();
+            this.rollupDate = today;
+            return;
+        }
+
+        LocalDate previous = this.rollupDate;
+        this.rollups.forEach((key, stats) -> {
+            int minDays = getMinDays(key);
+            int maxDays = getMaxDays(key);
+
+            if (minDays >= 0) {
+                DayStats leaving = this.dayStatsMap.get(previous.minusDays(minDays).toString());
+                if (leaving != null) stats.subtract(leaving);
+            }
+            if (maxDays >= 0) {
+                DayStats entering = this.dayStatsMap.get(today.minusDays(maxDays).toString());
+                if (entering != null) stats.add(entering);
+            }
+        });
+        this.rollupDate = today;
+    }
+
+    private static long toRollupKey(int minDays, int maxDays) {
+        return ((long) minDays << 32) | (maxDays & 0xFFFFFFFFL);
+    }
+
+    private static int getMinDays(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int getMaxDays(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Removes daily stats older than the given date. They are still a part of all-time totals.
+     * @return Rough amount of heap bytes reclaimed.
+     */
+    public synchronized long prune(@NotNull LocalDate oldest) {
+        long minTimestamp = toEpochMillis(oldest);
+        long reclaimed = 0L;
+
+        var iterator = this.dayStatsMap.values().iterator();
+        while (iterator.hasNext()) {
+            DayStats stats = iterator.next();
+            if (stats.getTimestamp() >= minTimestamp) continue;
+
+            reclaimed += stats.estimateSize();
+            iterator.remove();
+        }
+
+        // Rolling totals may need removed days to move forward.
+        if (reclaimed > 0L) this.rollups.clear();
+
+        return reclaimed;
+    }
+
+    @NotNull
+    public synchronized Map<String, DayStats> takePendingStats() {
+        Map<String, DayStats> pending = this.pendingStats;
+        this.pendingStats = new HashMap<>();
+        return pending;
+    }
+
+    /**
+     * Returns increments that could not be saved back to the pending queue.
+     */
+    public synchronized void restorePendingStats(@NotNull Map<String, DayStats> pending) {
+        pending.forEach((date, stats) -> this.pendingStats.merge(date, stats, (current, failed) -> {
+            current.add(failed);
+            return current;
+        }));
+    }
+
+    public synchronized boolean hasPendingStats() {
+        return !this.pendingStats.isEmpty();
     }
 
     @NotNull
@@ -42,9 +202,25 @@ public class JobStats {
         return this.getStatsForDays(30);
     }
 
+    /**
+     * @return Totals of all days, calculated by the database on load and updated as stats are added.
+     */
     @NotNull
     public DayStats getAllTimeStats() {
-        return this.getStatsInRange(null, null);
+        return this.allTimeStats;
+    }
+
+    @NotNull
+    public DayStats getStats(@NotNull TopPeriod period) {
+        return period == TopPeriod.ALL_TIME ? this.getAllTimeStats() : this.getStatsForDays(period.getMinDays(), period.getMaxDays());
+    }
+
+    public synchronized double getCurrency(@NotNull TopPeriod period, @NotNull String currencyId) {
+        return this.getStats(period).getCurrency(currencyId);
+    }
+
+    public synchronized int getObjectives(@NotNull TopPeriod period) {
+        return this.getStats(period).getObjectivesTotal();
     }
 
     @NotNull
@@ -52,9 +228,21 @@ public class JobStats {
         return this.getStatsForDays(days, -1);
     }
 
+    /**
+     * Returns rolling totals for the given range of days ago. Totals are calculated once and then updated as stats are added,
+     * so the returned object must not be modified.
+     */
     @NotNull
-    public DayStats getStatsForDays(int minDays, int maxDays) {
-        return this.getStatsInRange(this.adjusted(minDays), this.adjusted(maxDays));
+    public synchronized DayStats getStatsForDays(int minDays, int maxDays) {
+        this.rotate(TimeUtil.getCurrentDate());
+
+        long key = toRollupKey(minDays, maxDays);
+        DayStats stats = this.rollups.get(key);
+        if (stats == null) {
+            stats = this.getStatsInRange(this.adjusted(minDays), this.adjusted(maxDays));
+            this.rollups.put(key, stats);
+        }
+        return stats;
     }
 
     @Nullable
@@ -63,17 +251,17 @@ public class JobStats {
     }
 
     @NotNull
-    public DayStats getStatsOrCreate(@NotNull LocalDate date) {
-        return this.dayStatsMap.computeIfAbsent(date.toString(), k -> new DayStats());
+    public synchronized DayStats getStatsOrCreate(@NotNull LocalDate date) {
+        return this.dayStatsMap.computeIfAbsent(date.toString(), k -> new DayStats(toEpochMillis(date)));
     }
 
     @Nullable
-    public DayStats getStats(@NotNull LocalDate date) {
+    public synchronized DayStats getStats(@NotNull LocalDate date) {
         return this.dayStatsMap.get(date.toString());
     }
 
     @NotNull
-    public DayStats getStatsInRange(@Nullable LocalDate min, @Nullable LocalDate max) {
+    public synchronized DayStats getStatsInRange(@Nullable LocalDate min, @Nullable LocalDate max) {
         if (min != null && max != null) {
             if (min.isAfter(max)) throw new IllegalStateException("min can not be > max!");
         }
@@ -0,0 +1,102 @@
+package su.nightexpress.excellentjobs.stats.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Job level leaderboard updated incrementally. Only first entries are materialized as TopEntry list.
+ */
+public class Leaderboard {
+
+    private static final Comparator<Entry> COMPARATOR = Comparator
+        .comparingInt(Entry::level).reversed()
+        .thenComparing(Comparator.comparingInt(Entry::xp).reversed())
+        .thenComparingLong(Entry::levelDate)
+        .thenComparing(Entry::id);
+
+    private final Map<UUID, Entry>  entries;
+    private final RankedSet<Entry>  ranking;
+    private final int               topSize;
+
+    private volatile List<TopEntry> topEntries;
+    private volatile boolean        topChanged;
+
+    public record Entry(@NotNull UUID id, @NotNull String name, int level, int xp, long levelDate) {}
+
+    public Leaderboard(int topSize) {
+        this.entries = new HashMap<>();
+        this.ranking = new RankedSet<>(COMPARATOR);
+        this.topSize = topSize;
+        this.topEntries = Collections.emptyList();
+    }
+
+    public synchronized void update(@NotNull UUID id, @NotNull String name, int level, int xp, long levelDate) {
+        Entry current = this.entries.get(id);
+        if (current != null && current.level == level && current.xp == xp && current.levelDate == levelDate && current.name.equals(name)) return;
+
+        Entry entry = new Entry(id, name, level, xp, levelDate);
+        if (current != null) {
+            if (this.ranking.indexOf(current) < this.topSize) this.topChanged = true;
+            this.ranking.remove(current);
+        }
+
+        this.entries.put(id, entry);
+        this.ranking.add(entry);
+        if (this.ranking.indexOf(entry) < this.topSize) this.topChanged = true;
+    }
+
+    public synchronized void remove(@NotNull UUID id) {
+        Entry current = this.entries.remove(id);
+        if (current == null) return;
+
+        if (this.ranking.indexOf(current) < this.topSize) this.topChanged = true;
+        this.ranking.remove(current);
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.ranking.clear();
+        this.topChanged = true;
+    }
+
+    /**
+     * @return Position (starting from 1) of the player on the leaderboard, or -1 if player is not ranked.
+     */
+    public synchronized int getPosition(@NotNull UUID id) {
+        Entry entry = this.entries.get(id);
+        return entry == null ? -1 : this.ranking.indexOf(entry) + 1;
+    }
+
+    public synchronized int size() {
+        return this.ranking.size();
+    }
+
+    /**
+     * @return Copy of all entries in leaderboard order.
+     */
+    @NotNull
+    public synchronized List<Entry> getEntries() {
+        List<Entry> list = new ArrayList<>(this.ranking.size());
+        this.ranking.forEach(Integer.MAX_VALUE, list::add);
+        return list;
+    }
+
+    @NotNull
+    public List<TopEntry> getTopEntries() {
+        if (this.topChanged) {
+            this.updateTopEntries();
+        }
+        return this.topEntries;
+    }
+
+    private synchronized void updateTopEntries() {
+        if (!this.topChanged) return;
+
+        List<TopEntry> list = new ArrayList<>();
+        this.ranking.forEach(this.topSize, entry -> list.add(new TopEntry(entry.name, entry.level, list.size() + 1)));
+
+        this.topEntries = Collections.unmodifiableList(list);
+        this.topChanged = false;
+    }
+}
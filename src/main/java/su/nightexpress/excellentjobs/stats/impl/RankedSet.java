@@ -0,0 +1,222 @@
+package su.nightexpress.excellentjobs.stats.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Sorted set with O(log n) insertion, removal, rank and index lookups (randomized treap with subtree sizes).
+ * Comparator must define strict total order for the stored elements. Not thread-safe.
+ */
+public class RankedSet<T> {
+
+    private final Comparator<T> comparator;
+
+    private Node<T> root;
+
+    private static class Node<T> {
+
+        private final T   value;
+        private final int priority;
+
+        private int     size;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(@NotNull T value) {
+            this.value = value;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
+        }
+    }
+
+    public RankedSet(@NotNull Comparator<T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(this.root);
+    }
+
+    public boolean isEmpty() {
+        return this.root == null;
+    }
+
+    public void clear() {
+        this.root = null;
+    }
+
+    public void add(@NotNull T value) {
+        this.root = this.insert(this.root, new Node<>(value));
+    }
+
+    public boolean remove(@NotNull T value) {
+        int size = this.size();
+        this.root = this.remove(this.root, value);
+        return this.size() != size;
+    }
+
+    /**
+     * @return Zero-based position of the value in the set, or -1 if there is no such value.
+     */
+    public int indexOf(@NotNull T value) {
+        int index = 0;
+        Node<T> node = this.root;
+
+        while (node != null) {
+            int compare = this.comparator.compare(value, node.value);
+            if (compare == 0) return index + size(node.left);
+
+            if (compare < 0) {
+                node = node.left;
+            }
+            else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    @Nullable
+    public T get(int index) {
+        if (index < 0 || index >= this.size()) return null;
+
+        Node<T> node = this.root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index == leftSize) return node.value;
+
+            if (index < leftSize) {
+                node = node.left;
+            }
+            else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Iterates over first elements of the set in ascending order.
+     */
+    public void forEach(int limit, @NotNull Consumer<T> consumer) {
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> node = this.root;
+        int count = 0;
+
+        while ((node != null || !stack.isEmpty()) && count < limit) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+
+            node = stack.pop();
+            consumer.accept(node.value);
+            count++;
+            node = node.right;
+        }
+    }
+
+    private static int size(@Nullable Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(@NotNull Node<?> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    @NotNull
+    private Node<T> insert(@Nullable Node<T> node, @NotNull Node<T> item) {
+        if (node == null) return item;
+
+        if (item.priority > node.priority) {
+            this.split(node, item);
+            update(item);
+            return item;
+        }
+
+        if (this.comparator.compare(item.value, node.value) < 0) {
+            node.left = this.insert(node.left, item);
+        }
+        else {
+            node.right = this.insert(node.right, item);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Splits node's subtree into item's left (lower values) and right (greater or equal values) subtrees.
+     */
+    private void split(@Nullable Node<T> node, @NotNull Node<T> item) {
+        Node<T> left = null, right = null;
+        Node<T> leftTail = null, rightTail = null;
+        Deque<Node<T>> touched = new ArrayDeque<>();
+
+        while (node != null) {
+            touched.push(node);
+            if (this.comparator.compare(node.value, item.value) < 0) {
+                if (leftTail == null) left = node; else leftTail.right = node;
+                leftTail = node;
+                node = node.right;
+            }
+            else {
+                if (rightTail == null) right = node; else rightTail.left = node;
+                rightTail = node;
+                node = node.left;
+            }
+        }
+        if (leftTail != null) leftTail.right = null;
+        if (rightTail != null) rightTail.left = null;
+
+        // Nodes are touched top-down, so update sizes bottom-up.
+        while (!touched.isEmpty()) {
+            update(touched.pop());
+        }
+
+        item.left = left;
+        item.right = right;
+    }
+
+    @Nullable
+    private Node<T> remove(@Nullable Node<T> node, @NotNull T value) {
+        if (node == null) return null;
+
+        int compare = this.comparator.compare(value, node.value);
+        if (compare == 0) {
+            return this.merge(node.left, node.right);
+        }
+
+        if (compare < 0) {
+            node.left = this.remove(node.left, value);
+        }
+        else {
+            node.right = this.remove(node.right, value);
+        }
+        update(node);
+        return node;
+    }
+
+    @Nullable
+    private Node<T> merge(@Nullable Node<T> left, @Nullable Node<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.priority > right.priority) {
+            left.right = this.merge(left.right, right);
+            update(left);
+            return left;
+        }
+
+        right.left = this.merge(left, right.left);
+        update(right);
+        return right;
+    }
+}
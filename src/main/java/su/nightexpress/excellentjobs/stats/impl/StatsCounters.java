@@ -0,0 +1,59 @@
+package su.nightexpress.excellentjobs.stats.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Player's objective counters for the current day, indexed by {@link StatsSlots} slots.
+ * Counters are moved into {@link JobStats} when stats are read or saved, and when the day changes.
+ */
+public class StatsCounters {
+
+    private int[]   counts;
+    private long    day;
+    private boolean empty;
+
+    public StatsCounters() {
+        this.counts = new int[32];
+        this.day = -1L;
+        this.empty = true;
+    }
+
+    public interface Drain {
+
+        void accept(long day, int slot, int amount);
+    }
+
+    /**
+     * @return False if counters contain values of another day and must be drained first.
+     */
+    public synchronized boolean add(long day, int slot, int amount) {
+        if (day != this.day) {
+            if (!this.empty) return false;
+
+            this.day = day;
+        }
+
+        if (slot >= this.counts.length) {
+            this.counts = Arrays.copyOf(this.counts, Math.max(slot + 1, this.counts.length * 2));
+        }
+
+        this.counts[slot] += amount;
+        this.empty = false;
+        return true;
+    }
+
+    public synchronized void drain(@NotNull Drain drain) {
+        if (this.empty) return;
+
+        for (int slot = 0; slot < this.counts.length; slot++) {
+            int amount = this.counts[slot];
+            if (amount == 0) continue;
+
+            drain.accept(this.day, slot, amount);
+            this.counts[slot] = 0;
+        }
+        this.empty = true;
+    }
+}
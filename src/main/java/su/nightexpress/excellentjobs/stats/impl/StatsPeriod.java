@@ -0,0 +1,42 @@
+package su.nightexpress.excellentjobs.stats.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Resolution of a row in the stats table. Old daily rows are rolled up into weekly, monthly and all-time buckets.
+ * The id is persisted, so never reorder or reuse them.
+ */
+public enum StatsPeriod {
+
+    DAY(0),
+    WEEK(1),
+    MONTH(2),
+    ALL_TIME(3);
+
+    private final int id;
+
+    StatsPeriod(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * @return First day of the bucket the given date belongs to.
+     */
+    @NotNull
+    public LocalDate getBucketStart(@NotNull LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case ALL_TIME -> LocalDate.ofEpochDay(0L);
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package su.nightexpress.excellentjobs.stats.impl;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.job.impl.Job;
+import su.nightexpress.excellentjobs.job.impl.JobObjective;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a stable array index to each job, objective and object combination, so counters can be stored in primitive arrays.
+ * Slots are keyed by ids, so objectives created again on reload keep their slots.
+ */
+public class StatsSlots {
+
+    private final Map<String, Map<String, Integer>> slotMap;
+    private final List<Slot>                        slots;
+
+    public StatsSlots() {
+        this.slotMap = new ConcurrentHashMap<>();
+        this.slots = new ArrayList<>();
+    }
+
+    public record Slot(@NotNull String jobId, @NotNull String objectiveId, @NotNull String objectName) {}
+
+    public int getSlot(@NotNull Job job, @NotNull JobObjective objective, @NotNull String objectName) {
+        Map<String, Integer> objectSlots = this.slotMap.computeIfAbsent(job.getId() + ":" + objective.getId(), k -> new ConcurrentHashMap<>());
+
+        Integer slot = objectSlots.get(objectName);
+        if (slot != null) return slot;
+
+        return objectSlots.computeIfAbsent(objectName, k -> this.register(new Slot(job.getId(), objective.getId(), objectName.toLowerCase())));
+    }
+
+    private synchronized int register(@NotNull Slot slot) {
+        this.slots.add(slot);
+        return this.slots.size() - 1;
+    }
+
+    @NotNull
+    public synchronized Slot getSlot(int index) {
+        return this.slots.get(index);
+    }
+}
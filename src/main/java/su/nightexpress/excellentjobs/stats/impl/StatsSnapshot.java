@@ -0,0 +1,235 @@
+package su.nightexpress.excellentjobs.stats.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of leaderboards and employee counters. It lets them be served right after startup without
+ * scanning all users, as long as the database has not changed since the snapshot was written.
+ */
+public class StatsSnapshot {
+
+    private static final int MAGIC   = 0x454A5353;
+    private static final int VERSION = 1;
+
+    private final long versionMarker;
+    private final long day;
+    private final int  topSize;
+
+    private final Map<String, Map<JobState, Integer>>  employees;
+    private final Map<String, List<Leaderboard.Entry>> levelBoards;
+    private final Map<String, List<TopBoard.Entry>>    topBoards;
+
+    public StatsSnapshot(long versionMarker, long day, int topSize) {
+        this(versionMarker, day, topSize, new HashMap<>(), new HashMap<>(), new HashMap<>());
+    }
+
+    public StatsSnapshot(long versionMarker, long day, int topSize,
+                         @NotNull Map<String, Map<JobState, Integer>> employees,
+                         @NotNull Map<String, List<Leaderboard.Entry>> levelBoards,
+                         @NotNull Map<String, List<TopBoard.Entry>> topBoards) {
+        this.versionMarker = versionMarker;
+        this.day = day;
+        this.topSize = topSize;
+        this.employees = employees;
+        this.levelBoards = levelBoards;
+        this.topBoards = topBoards;
+    }
+
+    /**
+     * @return Copy of this snapshot tied to another database version marker.
+     */
+    @NotNull
+    public StatsSnapshot withVersionMarker(long versionMarker) {
+        return new StatsSnapshot(versionMarker, this.day, this.topSize, this.employees, this.levelBoards, this.topBoards);
+    }
+
+    /**
+     * Reads snapshot through a memory-mapped buffer.
+     * @return Snapshot, or null if file was written in another format.
+     * @throws IOException if file is corrupted or can not be read.
+     */
+    @Nullable
+    public static StatsSnapshot read(@NotNull File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 16L || size > Integer.MAX_VALUE) throw new IOException("Invalid snapshot size: " + size);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+
+            int payloadEnd = (int) size - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit(payloadEnd));
+            if (crc.getValue() != buffer.getLong(payloadEnd)) throw new IOException("Snapshot checksum mismatch.");
+
+            return read(buffer);
+        }
+        catch (BufferUnderflowException | IllegalArgumentException exception) {
+            throw new IOException("Malformed snapshot.", exception);
+        }
+    }
+
+    @NotNull
+    private static StatsSnapshot read(@NotNull MappedByteBuffer buffer) {
+        StatsSnapshot snapshot = new StatsSnapshot(buffer.getLong(), buffer.getLong(), buffer.getInt());
+
+        int jobs = buffer.getInt();
+        for (int index = 0; index < jobs; index++) {
+            String jobId = readString(buffer);
+            Map<JobState, Integer> counts = new EnumMap<>(JobState.class);
+
+            int states = buffer.getInt();
+            for (int count = 0; count < states; count++) {
+                JobState state = JobState.valueOf(readString(buffer));
+                counts.put(state, buffer.getInt());
+            }
+            snapshot.employees.put(jobId, counts);
+        }
+
+        int levelBoards = buffer.getInt();
+        for (int index = 0; index < levelBoards; index++) {
+            String jobId = readString(buffer);
+            int amount = buffer.getInt();
+            List<Leaderboard.Entry> entries = new ArrayList<>(amount);
+
+            for (int count = 0; count < amount; count++) {
+                entries.add(new Leaderboard.Entry(readUUID(buffer), readString(buffer), buffer.getInt(), buffer.getInt(), buffer.getLong()));
+            }
+            snapshot.levelBoards.put(jobId, entries);
+        }
+
+        int topBoards = buffer.getInt();
+        for (int index = 0; index < topBoards; index++) {
+            String key = readString(buffer);
+            int amount = buffer.getInt();
+            List<TopBoard.Entry> entries = new ArrayList<>(amount);
+
+            for (int count = 0; count < amount; count++) {
+                entries.add(new TopBoard.Entry(readUUID(buffer), readString(buffer), buffer.getDouble()));
+            }
+            snapshot.topBoards.put(key, entries);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Writes snapshot to a temporary file first and then replaces the old one, so a crash never leaves a partial snapshot.
+     */
+    public void write(@NotNull File file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(this.versionMarker);
+        output.writeLong(this.day);
+        output.writeInt(this.topSize);
+
+        output.writeInt(this.employees.size());
+        for (var jobEntry : this.employees.entrySet()) {
+            writeString(output, jobEntry.getKey());
+            output.writeInt(jobEntry.getValue().size());
+            for (var stateEntry : jobEntry.getValue().entrySet()) {
+                writeString(output, stateEntry.getKey().name());
+                output.writeInt(stateEntry.getValue());
+            }
+        }
+
+        output.writeInt(this.levelBoards.size());
+        for (var boardEntry : this.levelBoards.entrySet()) {
+            writeString(output, boardEntry.getKey());
+            output.writeInt(boardEntry.getValue().size());
+            for (Leaderboard.Entry entry : boardEntry.getValue()) {
+                writeUUID(output, entry.id());
+                writeString(output, entry.name());
+                output.writeInt(entry.level());
+                output.writeInt(entry.xp());
+                output.writeLong(entry.levelDate());
+            }
+        }
+
+        output.writeInt(this.topBoards.size());
+        for (var boardEntry : this.topBoards.entrySet()) {
+            writeString(output, boardEntry.getKey());
+            output.writeInt(boardEntry.getValue().size());
+            for (TopBoard.Entry entry : boardEntry.getValue()) {
+                writeUUID(output, entry.id());
+                writeString(output, entry.name());
+                output.writeDouble(entry.value());
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        output.writeLong(crc.getValue());
+        output.flush();
+
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.write(temp.toPath(), bytes.toByteArray());
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeString(@NotNull DataOutputStream output, @NotNull String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    @NotNull
+    private static String readString(@NotNull MappedByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeUUID(@NotNull DataOutputStream output, @NotNull UUID uuid) throws IOException {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    @NotNull
+    private static UUID readUUID(@NotNull MappedByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    public long getVersionMarker() {
+        return this.versionMarker;
+    }
+
+    public long getDay() {
+        return this.day;
+    }
+
+    public int getTopSize() {
+        return this.topSize;
+    }
+
+    @NotNull
+    public Map<String, Map<JobState, Integer>> getEmployees() {
+        return this.employees;
+    }
+
+    @NotNull
+    public Map<String, List<Leaderboard.Entry>> getLevelBoards() {
+        return this.levelBoards;
+    }
+
+    @NotNull
+    public Map<String, List<TopBoard.Entry>> getTopBoards() {
+        return this.topBoards;
+    }
+}
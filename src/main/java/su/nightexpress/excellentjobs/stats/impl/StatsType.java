@@ -0,0 +1,31 @@
+package su.nightexpress.excellentjobs.stats.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Kind of statistic row stored in the stats table. The id is persisted, so never reorder or reuse them.
+ */
+public enum StatsType {
+
+    CURRENCY(0),
+    OBJECTIVE(1),
+    ORDERS(2);
+
+    private final int id;
+
+    StatsType(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    @Nullable
+    public static StatsType byId(int id) {
+        for (StatsType type : values()) {
+            if (type.id == id) return type;
+        }
+        return null;
+    }
+}
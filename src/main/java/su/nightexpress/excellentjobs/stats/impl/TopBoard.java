@@ -0,0 +1,100 @@
+package su.nightexpress.excellentjobs.stats.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Bounded leaderboard keeping only a fixed amount of best entries. Players are pushed in when their value changes,
+ * so memory does not depend on the amount of players.
+ */
+public class TopBoard {
+
+    private static final Comparator<Entry> COMPARATOR = Comparator
+        .comparingDouble(Entry::value).reversed()
+        .thenComparing(Entry::id);
+
+    private final Map<UUID, Entry> entries;
+    private final TreeSet<Entry>   ranking;
+    private final int              size;
+
+    private volatile List<TopEntry> topEntries;
+    private volatile boolean        topChanged;
+
+    public record Entry(@NotNull UUID id, @NotNull String name, double value) {}
+
+    public TopBoard(int size) {
+        this.entries = new HashMap<>();
+        this.ranking = new TreeSet<>(COMPARATOR);
+        this.size = Math.max(1, size);
+        this.topEntries = Collections.emptyList();
+    }
+
+    public synchronized void update(@NotNull UUID id, @NotNull String name, double value) {
+        Entry current = this.entries.get(id);
+        if (current != null) {
+            if (current.value == value) return;
+
+            this.ranking.remove(current);
+            this.entries.remove(id);
+            this.topChanged = true;
+        }
+        if (value <= 0D) return;
+
+        // Board is full and the value is not high enough to get in.
+        if (this.ranking.size() >= this.size && COMPARATOR.compare(new Entry(id, name, value), this.ranking.last()) > 0) return;
+
+        Entry entry = new Entry(id, name, value);
+        this.entries.put(id, entry);
+        this.ranking.add(entry);
+        this.topChanged = true;
+
+        if (this.ranking.size() > this.size) {
+            Entry last = this.ranking.pollLast();
+            if (last != null) this.entries.remove(last.id());
+        }
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.ranking.clear();
+        this.topChanged = true;
+    }
+
+    /**
+     * @return Copy of all entries in board order.
+     */
+    @NotNull
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<>(this.ranking);
+    }
+
+    /**
+     * @return Position (starting from 1) of the player, or -1 if player is not on the board.
+     */
+    public synchronized int getPosition(@NotNull UUID id) {
+        Entry entry = this.entries.get(id);
+        return entry == null ? -1 : this.ranking.headSet(entry).size() + 1;
+    }
+
+    @NotNull
+    public List<TopEntry> getTopEntries() {
+        if (this.topChanged) {
+            this.updateTopEntries();
+        }
+        return this.topEntries;
+    }
+
+    private synchronized void updateTopEntries() {
+        if (!this.topChanged) return;
+
+        List<TopEntry> list = new ArrayList<>(this.ranking.size());
+        int position = 1;
+        for (Entry entry : this.ranking) {
+            list.add(new TopEntry(entry.name(), entry.value(), position++));
+        }
+
+        this.topEntries = Collections.unmodifiableList(list);
+        this.topChanged = false;
+    }
+}
@@ -7,10 +7,20 @@ public class TopEntry {
     private final int    position;
     private final String name;
     private final int    value;
+    private final double amount;
 
     public TopEntry(@NotNull String name, int value, int position) {
+        this(name, value, value, position);
+    }
+
+    public TopEntry(@NotNull String name, double amount, int position) {
+        this(name, (int) amount, amount, position);
+    }
+
+    private TopEntry(@NotNull String name, int value, double amount, int position) {
         this.name = name;
         this.value = value;
+        this.amount = amount;
         this.position = position;
     }
 
@@ -23,6 +33,13 @@ public class TopEntry {
         return value;
     }
 
+    /**
+     * @return Exact entry value, for leaderboards with fractional values like earnings.
+     */
+    public double getAmount() {
+        return amount;
+    }
+
     public int getPosition() {
         return position;
     }
@@ -0,0 +1,62 @@
+package su.nightexpress.excellentjobs.stats.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Time period of stats leaderboards, as a range of days ago passed to {@link JobStats#getStatsForDays(int, int)}.
+ */
+public enum TopPeriod {
+
+    DAILY(0, 0),
+    WEEKLY(7, -1),
+    MONTHLY(30, -1),
+    ALL_TIME(-1, -1);
+
+    private final int minDays;
+    private final int maxDays;
+
+    TopPeriod(int minDays, int maxDays) {
+        this.minDays = minDays;
+        this.maxDays = maxDays;
+    }
+
+    public int getMinDays() {
+        return this.minDays;
+    }
+
+    public int getMaxDays() {
+        return this.maxDays;
+    }
+
+    public boolean isRolling() {
+        return this != ALL_TIME;
+    }
+
+    /**
+     * @return Period name without underscores, used in placeholders.
+     */
+    @NotNull
+    public String getName() {
+        return this.name().replace("_", "").toLowerCase();
+    }
+
+    @Nullable
+    public static TopPeriod byName(@NotNull String name) {
+        for (TopPeriod period : values()) {
+            if (period.getName().equalsIgnoreCase(name)) return period;
+        }
+        return null;
+    }
+
+    /**
+     * @return Period with exactly the given range of days, or null if there is no leaderboard for it.
+     */
+    @Nullable
+    public static TopPeriod byDays(int minDays, int maxDays) {
+        for (TopPeriod period : values()) {
+            if (period.minDays == minDays && period.maxDays == maxDays) return period;
+        }
+        return null;
+    }
+}
@@ -3,13 +3,15 @@ package su.nightexpress.excellentjobs.stats.listener;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.jetbrains.annotations.NotNull;
 import su.nightexpress.excellentjobs.JobsPlugin;
-import su.nightexpress.excellentjobs.api.event.JobObjectiveIncomeEvent;
-import su.nightexpress.excellentjobs.api.event.JobPaymentEvent;
+import su.nightexpress.excellentjobs.api.event.*;
 import su.nightexpress.excellentjobs.job.impl.Job;
 import su.nightexpress.excellentjobs.stats.StatsManager;
+import su.nightexpress.excellentjobs.user.JobUser;
 import su.nightexpress.nightcore.manager.AbstractListener;
 
 public class StatsListener extends AbstractListener<JobsPlugin> {
@@ -21,11 +23,23 @@ public class StatsListener extends AbstractListener<JobsPlugin> {
         this.statsManager = statsManager;
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        this.statsManager.handlePreLogin(event.getUniqueId());
+    }
+
     @EventHandler(priority = EventPriority.MONITOR)
     public void onJoin(PlayerJoinEvent event) {
         this.statsManager.handleJoin(event.getPlayer());
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        this.statsManager.handleQuit(event.getPlayer());
+    }
+
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onJobPayment(JobPaymentEvent event) {
         Player player = event.getPlayer();
@@ -35,16 +49,45 @@ public class StatsListener extends AbstractListener<JobsPlugin> {
             stats.addCurrency(event.getCurrency(), event.getAmount());
             //player.sendMessage("Currency Amount: " + stats.getCurrencyEarned());
         });
+
+        JobUser user = this.plugin.getUserManager().getIfLoaded(player);
+        if (user == null) return;
+
+        this.statsManager.updateEarningsBoards(user, job.getId(), event.getCurrency().getInternalId());
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onJobObjective(JobObjectiveIncomeEvent event) {
-        Player player = event.getPlayer();
-        Job job = event.getJob();
+        this.statsManager.addObjective(event.getUser(), event.getJob(), event.getObjective(), event.getWorkObjective().getObjectName(), 1);
+    }
 
-        this.statsManager.addStats(player, job, stats -> {
-            stats.addObjective(event.getObjective(), event.getWorkObjective().getObjectName(), 1);
-            //player.sendMessage("Objectives: " + stats.getObjectivesCompleted());
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLevelUp(JobLevelUpEvent event) {
+        this.statsManager.updateLeaderboards(event.getUser(), event.getJobData());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLevelDown(JobLevelDownEvent event) {
+        this.statsManager.updateLeaderboards(event.getUser(), event.getJobData());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onJobJoin(JobJoinEvent event) {
+        this.updateLeaderboardsLater(event.getPlayer(), event.getJob());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onJobLeave(JobLeaveEvent event) {
+        this.updateLeaderboardsLater(event.getPlayer(), event.getJob());
+    }
+
+    private void updateLeaderboardsLater(@NotNull Player player, @NotNull Job job) {
+        // Job data is changed after the event.
+        this.plugin.runTask(task -> {
+            JobUser user = this.plugin.getUserManager().getIfLoaded(player);
+            if (user == null) return;
+
+            this.statsManager.updateLeaderboards(user, user.getData(job));
         });
     }
 }
@@ -15,6 +15,8 @@ import su.nightexpress.excellentjobs.job.impl.Job;
 import su.nightexpress.excellentjobs.job.impl.JobObjective;
 import su.nightexpress.excellentjobs.stats.impl.DayStats;
 import su.nightexpress.excellentjobs.stats.impl.JobStats;
+import su.nightexpress.excellentjobs.stats.impl.TopPeriod;
+import su.nightexpress.excellentjobs.stats.StatsManager;
 import su.nightexpress.nightcore.config.ConfigValue;
 import su.nightexpress.nightcore.config.FileConfig;
 import su.nightexpress.nightcore.menu.MenuOptions;
@@ -42,6 +44,8 @@ public class StatsMenu extends ConfigMenu<JobsPlugin> implements Linked<Job> {
 
     private static final String CURRENCIES = "%currency%";
     private static final String OBJECTIVES = "%objectives%";
+    private static final String OBJECTIVES_POS = "%objectives_pos%";
+    private static final String EARNINGS_POS   = "%earnings_pos%";
 
     private final ViewLink<Job> link;
     private final ItemHandler returnHandler;
@@ -85,9 +89,14 @@ public class StatsMenu extends ConfigMenu<JobsPlugin> implements Linked<Job> {
         Player player = viewer.getPlayer();
         Job job = this.getLink(player);
         JobUser user = plugin.getUserManager().getOrFetch(player);
+        StatsManager statsManager = this.plugin.getStatsManager();
+        if (statsManager != null) statsManager.flushCounters(user);
+
         JobStats stats = user.getStats(job);
+        int position = statsManager == null ? -1 : statsManager.getLevelPosition(job, player.getUniqueId());
+        String rank = formatPosition(position);
 
-        options.editTitle(job.replacePlaceholders());
+        options.editTitle(str -> job.replacePlaceholders().apply(str).replace(GENERIC_POS, rank));
 
         this.entries.forEach(entry -> {
             ItemStack itemStack = entry.getItemStack();
@@ -95,6 +104,7 @@ public class StatsMenu extends ConfigMenu<JobsPlugin> implements Linked<Job> {
             int maxDays = entry.getMaxDays();
 
             DayStats dayStats = minDays < 0 && maxDays < 0 ? stats.getAllTimeStats() : stats.getStatsForDays(minDays, maxDays);
+            TopPeriod period = TopPeriod.byDays(minDays, maxDays);
 
             List<String> currencyAmounts = new ArrayList<>();
             List<String> objectiveAmounts = new ArrayList<>();
@@ -103,7 +113,11 @@ public class StatsMenu extends ConfigMenu<JobsPlugin> implements Linked<Job> {
                 double amount = dayStats.getCurrency(currency);
                 if (amount == 0D) continue;
 
-                currencyAmounts.add(currency.replacePlaceholders().apply(this.currencyEntry.replace(GENERIC_AMOUNT, currency.format(amount))));
+                int earningsPos = statsManager == null || period == null ? -1 : statsManager.getEarningsPosition(job, currency.getInternalId(), period, player.getUniqueId());
+                currencyAmounts.add(currency.replacePlaceholders().apply(this.currencyEntry
+                    .replace(GENERIC_AMOUNT, currency.format(amount))
+                    .replace(EARNINGS_POS, formatPosition(earningsPos))
+                ));
             }
             if (currencyAmounts.isEmpty()) currencyAmounts.add(this.nothingEntry);
 
@@ -116,11 +130,15 @@ public class StatsMenu extends ConfigMenu<JobsPlugin> implements Linked<Job> {
             }
             if (objectiveAmounts.isEmpty()) objectiveAmounts.add(this.nothingEntry);
 
+            int objectivesPos = statsManager == null || period == null ? -1 : statsManager.getObjectivesPosition(job, period, player.getUniqueId());
+
 
             ItemReplacer.create(itemStack).hideFlags().trimmed()
                 .setDisplayName(this.entryName)
                 .setLore(this.entryLore)
                 .replace(GENERIC_NAME, entry.getName())
+                .replace(GENERIC_POS, rank)
+                .replace(OBJECTIVES_POS, formatPosition(objectivesPos))
                 .replace(CURRENCIES, currencyAmounts)
                 .replace(OBJECTIVES, objectiveAmounts)
                 .writeMeta();
@@ -129,6 +147,22 @@ public class StatsMenu extends ConfigMenu<JobsPlugin> implements Linked<Job> {
         });
     }
 
+    /**
+     * @return Amount of past days of daily stats displayed by the menu entries.
+     */
+    public int getRequiredDays() {
+        int days = 0;
+        for (StatsEntry entry : this.entries) {
+            days = Math.max(days, Math.max(entry.getMinDays(), entry.getMaxDays()));
+        }
+        return days;
+    }
+
+    @NotNull
+    private static String formatPosition(int position) {
+        return position <= 0 ? "-" : NumberUtil.format(position);
+    }
+
     @Override
     @NotNull
     protected MenuOptions createDefaultOptions() {
@@ -176,16 +210,17 @@ public class StatsMenu extends ConfigMenu<JobsPlugin> implements Linked<Job> {
         ).read(cfg);
 
         this.entryLore = ConfigValue.create("Stats.Entry.Lore", Lists.newList(
+            LIGHT_GRAY.enclose("Level Rank: " + LIGHT_YELLOW.enclose("#" + GENERIC_POS)),
             " ",
             LIGHT_GRAY.enclose("[" + GREEN.enclose("$") + "]") + " " + GREEN.enclose("Earnings:"),
             CURRENCIES,
             "",
-            LIGHT_GRAY.enclose("[" + ORANGE.enclose("⛏") + "]") + " " + ORANGE.enclose("Objectives:"),
+            LIGHT_GRAY.enclose("[" + ORANGE.enclose("⛏") + "]") + " " + ORANGE.enclose("Objectives: ") + LIGHT_GRAY.enclose("#" + OBJECTIVES_POS),
             OBJECTIVES
         )).read(cfg);
 
         this.currencyEntry = ConfigValue.create("Stats.Currency.Entry",
-            GREEN.enclose("● " + LIGHT_GRAY.enclose(CURRENCY_NAME + ": ") + GENERIC_AMOUNT)
+            GREEN.enclose("● " + LIGHT_GRAY.enclose(CURRENCY_NAME + ": ") + GENERIC_AMOUNT) + " " + DARK_GRAY.enclose("#" + EARNINGS_POS)
         ).read(cfg);
 
         this.objectiveEntry = ConfigValue.create("Stats.Objective.Entry",
@@ -0,0 +1,251 @@
+package su.nightexpress.excellentjobs.sync;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import su.nightexpress.excellentjobs.JobsPlugin;
+import su.nightexpress.excellentjobs.booster.BoosterManager;
+import su.nightexpress.excellentjobs.booster.impl.Booster;
+import su.nightexpress.excellentjobs.config.Config;
+import su.nightexpress.excellentjobs.data.DataHandler;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.data.impl.JobProgress;
+import su.nightexpress.excellentjobs.job.impl.JobState;
+import su.nightexpress.excellentjobs.stats.StatsManager;
+import su.nightexpress.excellentjobs.sync.bus.*;
+import su.nightexpress.excellentjobs.sync.impl.MessageSigner;
+import su.nightexpress.excellentjobs.sync.impl.MessageType;
+import su.nightexpress.excellentjobs.sync.impl.SyncMessage;
+import su.nightexpress.excellentjobs.user.JobUser;
+import su.nightexpress.nightcore.manager.AbstractManager;
+import su.nightexpress.nightcore.util.StringUtil;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes change notifications to other servers sharing the database and applies notifications received from them,
+ * so loaded users, global booster and leaderboards are refreshed right after a change instead of on next sync.
+ */
+public class SyncManager extends AbstractManager<JobsPlugin> {
+
+    /**
+     * Messages sent longer ago than this are rejected, so captured messages can not be replayed later.
+     */
+    private static final long MESSAGE_MAX_AGE = 300_000L;
+    /**
+     * How often ids of messages that are too old to be accepted anyway are removed from the cache of received messages.
+     */
+    private static final long PRUNE_INTERVAL = 30_000L;
+    private static final String LOOPBACK_SECRET = "loopback";
+
+    private final String            nodeId;
+    private final Map<String, Long> received;
+
+    private volatile long lastPrune;
+
+    private MessageBus    bus;
+    private SocketBroker  broker;
+    private MessageSigner signer;
+
+    public SyncManager(@NotNull JobsPlugin plugin) {
+        super(plugin);
+        this.nodeId = UUID.randomUUID().toString();
+        this.received = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    protected void onLoad() {
+        BusType type = Config.SYNC_BUS_TYPE.get();
+        if (type == BusType.NONE) return;
+
+        String secret = Config.SYNC_BUS_SECRET.get();
+        if (secret.isBlank()) {
+            if (type == BusType.SOCKET) {
+                this.plugin.error("Sync bus secret is not set! Falling back to periodic sync.");
+                return;
+            }
+            // In-process bus can not be reached from outside.
+            secret = LOOPBACK_SECRET;
+        }
+        this.signer = new MessageSigner(secret);
+
+        String host = Config.SYNC_BUS_HOST.get();
+        int port = Config.SYNC_BUS_PORT.get();
+
+        try {
+            if (type == BusType.SOCKET && Config.SYNC_BUS_HOST_BROKER.get()) {
+                this.broker = new SocketBroker(this.plugin.getLogger(), this.signer, host, port);
+                this.broker.start();
+            }
+
+            MessageBus bus = type == BusType.SOCKET ? new SocketBus(this.plugin.getLogger(), host, port) : new LoopbackBus();
+            bus.start(this::receive, this::onConnect);
+            this.bus = bus;
+        }
+        catch (IOException exception) {
+            this.plugin.error("Could not start sync bus! Falling back to periodic sync.");
+            exception.printStackTrace();
+            this.onShutdown();
+        }
+    }
+
+    @Override
+    protected void onShutdown() {
+        if (this.bus != null) {
+            this.bus.close();
+            this.bus = null;
+        }
+        if (this.broker != null) {
+            this.broker.close();
+            this.broker = null;
+        }
+        this.received.clear();
+    }
+
+    /**
+     * Fetches rows changed since the last sync, as messages published while the bus was disconnected were dropped.
+     */
+    private void onConnect() {
+        this.plugin.runTaskAsync(task -> this.plugin.getDataHandler().catchUp());
+    }
+
+    /**
+     * @return True if changes are delivered by the bus, so periodic sync is not needed.
+     */
+    public boolean isConnected() {
+        return this.bus != null && this.bus.isConnected();
+    }
+
+    private void publish(@NotNull MessageType type, @NotNull JsonObject payload) {
+        MessageBus bus = this.bus;
+        if (bus == null) return;
+
+        bus.publish(this.signer.sign(new SyncMessage(type, this.nodeId, UUID.randomUUID().toString(), System.currentTimeMillis(), payload).serialize()));
+    }
+
+    /**
+     * Notifies that the user row was written.
+     * @param jobIds Ids of jobs that were changed.
+     * @param boosters Whether personal boosters were changed.
+     */
+    public void publishUser(@NotNull JobUser user, @NotNull Collection<String> jobIds, boolean boosters) {
+        this.publishUser(user.getId(), jobIds, boosters);
+    }
+
+    public void publishUser(@NotNull UUID userId, @NotNull Collection<String> jobIds, boolean boosters) {
+        if (jobIds.isEmpty() && !boosters) return;
+
+        JsonArray jobs = new JsonArray();
+        jobIds.forEach(jobs::add);
+
+        JsonObject payload = new JsonObject();
+        payload.addProperty("u", userId.toString());
+        payload.add("j", jobs);
+        payload.addProperty("b", boosters);
+        this.publish(MessageType.USER, payload);
+    }
+
+    public void publishLevel(@NotNull JobUser user, @NotNull JobData data) {
+        this.publishLevel(user.getId(), user.getName(), data);
+    }
+
+    public void publishLevel(@NotNull UUID userId, @NotNull String userName, @NotNull JobData data) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("u", userId.toString());
+        payload.addProperty("n", userName);
+        payload.addProperty("j", data.getJob().getId());
+        payload.addProperty("s", data.getState().name());
+        payload.addProperty("l", data.getLevel());
+        payload.addProperty("x", data.getXP());
+        payload.addProperty("ld", data.getLevelDate());
+        this.publish(MessageType.LEADERBOARD, payload);
+    }
+
+    /**
+     * @param booster Activated global booster, or null if it was removed.
+     */
+    public void publishGlobalBooster(@Nullable Booster booster) {
+        JsonObject payload = new JsonObject();
+        if (booster != null) payload.add("b", DataHandler.GSON.toJsonTree(booster, Booster.class));
+        this.publish(MessageType.GLOBAL_BOOSTER, payload);
+    }
+
+    private void receive(@NotNull String line) {
+        String signed = this.signer.verify(line);
+        if (signed == null) {
+            this.plugin.warn("Rejected sync message not signed with the bus secret.");
+            return;
+        }
+
+        SyncMessage message = SyncMessage.deserialize(signed);
+        if (message == null || message.sender().equals(this.nodeId)) return;
+
+        long now = System.currentTimeMillis();
+        if (Math.abs(now - message.date()) > MESSAGE_MAX_AGE) return;
+        if (this.received.putIfAbsent(message.id(), message.date()) != null) {
+            this.plugin.warn("Rejected replayed sync message " + message.id() + ".");
+            return;
+        }
+        if (now - this.lastPrune > PRUNE_INTERVAL) {
+            this.lastPrune = now;
+            this.received.values().removeIf(date -> now - date > MESSAGE_MAX_AGE);
+        }
+
+        try {
+            switch (message.type()) {
+                case USER -> this.receiveUser(message.payload());
+                case LEADERBOARD -> this.receiveLevel(message.payload());
+                case GLOBAL_BOOSTER -> this.receiveGlobalBooster(message.payload());
+            }
+        }
+        catch (RuntimeException exception) {
+            this.plugin.warn("Could not handle sync message: " + line);
+            exception.printStackTrace();
+        }
+    }
+
+    private void receiveUser(@NotNull JsonObject payload) {
+        JobUser user = this.plugin.getUserManager().getLoaded(UUID.fromString(payload.get("u").getAsString()));
+        if (user == null) return;
+
+        Set<String> jobIds = new HashSet<>();
+        payload.getAsJsonArray("j").forEach(element -> jobIds.add(element.getAsString()));
+        boolean boosters = payload.get("b").getAsBoolean();
+
+        this.plugin.runTaskAsync(task -> this.plugin.getDataHandler().refreshUser(user, jobIds, boosters));
+    }
+
+    private void receiveLevel(@NotNull JsonObject payload) {
+        StatsManager statsManager = this.plugin.getStatsManager();
+        if (statsManager == null) return;
+
+        JobState state = StringUtil.getEnum(payload.get("s").getAsString(), JobState.class).orElse(JobState.INACTIVE);
+        statsManager.updateLevelBoard(new JobProgress(
+            UUID.fromString(payload.get("u").getAsString()),
+            payload.get("n").getAsString(),
+            payload.get("j").getAsString(),
+            state,
+            payload.get("l").getAsInt(),
+            payload.get("x").getAsInt(),
+            payload.get("ld").getAsLong()
+        ));
+    }
+
+    private void receiveGlobalBooster(@NotNull JsonObject payload) {
+        BoosterManager boosterManager = this.plugin.getBoosterManager();
+        if (boosterManager == null) return;
+
+        JsonElement element = payload.get("b");
+        Booster booster = element == null ? null : DataHandler.GSON.fromJson(element, Booster.class);
+
+        this.plugin.runTask(task -> boosterManager.applyGlobalBooster(booster));
+    }
+}
@@ -0,0 +1,7 @@
+package su.nightexpress.excellentjobs.sync.bus;
+
+public enum BusType {
+    NONE,
+    LOOPBACK,
+    SOCKET
+}
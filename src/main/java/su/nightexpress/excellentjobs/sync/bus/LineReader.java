@@ -0,0 +1,60 @@
+package su.nightexpress.excellentjobs.sync.bus;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads newline separated UTF-8 lines of limited length, so a peer can not make the reader buffer a line of any size.
+ */
+public class LineReader {
+
+    private final InputStream           input;
+    private final int                   maxLength;
+    private final ByteArrayOutputStream buffer;
+
+    public LineReader(@NotNull InputStream input, int maxLength) {
+        this.input = new BufferedInputStream(input);
+        this.maxLength = maxLength;
+        this.buffer = new ByteArrayOutputStream();
+    }
+
+    /**
+     * @return Line without the line terminator, or null if the end of the stream is reached.
+     * @throws LineTooLongException If the line is longer than the max. length in bytes.
+     */
+    @Nullable
+    public String readLine() throws IOException {
+        this.buffer.reset();
+
+        int read;
+        while ((read = this.input.read()) != -1) {
+            if (read == '\n') return this.toLine();
+
+            if (this.buffer.size() >= this.maxLength) {
+                throw new LineTooLongException("Line exceeds " + this.maxLength + " bytes");
+            }
+            this.buffer.write(read);
+        }
+
+        return this.buffer.size() == 0 ? null : this.toLine();
+    }
+
+    @NotNull
+    private String toLine() {
+        String line = this.buffer.toString(StandardCharsets.UTF_8);
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    public static class LineTooLongException extends IOException {
+
+        public LineTooLongException(@NotNull String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package su.nightexpress.excellentjobs.sync.bus;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus that delivers messages to all loopback buses started in the same JVM, in the publishing thread.
+ * Used for single-server setups and to test several nodes in one process.
+ */
+public class LoopbackBus implements MessageBus {
+
+    private static final List<LoopbackBus> BUSES = new CopyOnWriteArrayList<>();
+
+    private Consumer<String> receiver;
+
+    @Override
+    public void start(@NotNull Consumer<String> receiver, @NotNull Runnable onConnect) {
+        this.receiver = receiver;
+        BUSES.add(this);
+        onConnect.run();
+    }
+
+    @Override
+    public void publish(@NotNull String message) {
+        BUSES.forEach(bus -> bus.receiver.accept(message));
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.receiver != null;
+    }
+
+    @Override
+    public void close() {
+        BUSES.remove(this);
+        this.receiver = null;
+    }
+}
@@ -0,0 +1,35 @@
+package su.nightexpress.excellentjobs.sync.bus;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Transport that delivers text messages to all nodes connected to the same bus.
+ */
+public interface MessageBus {
+
+    /**
+     * Max. length of a message line in bytes. Peers sending longer lines are disconnected before the line is verified.
+     */
+    int MAX_LINE_LENGTH = 64 * 1024;
+
+    /**
+     * Connects to the bus. Received messages are passed to the receiver from a transport thread, including own messages for some transports.
+     * @param onConnect Called from a transport thread each time the connection is established or restored.
+     */
+    void start(@NotNull Consumer<String> receiver, @NotNull Runnable onConnect) throws IOException;
+
+    /**
+     * Sends the message to all nodes. Messages sent while disconnected are dropped.
+     */
+    void publish(@NotNull String message);
+
+    /**
+     * @return True if messages can be delivered right now.
+     */
+    boolean isConnected();
+
+    void close();
+}
@@ -0,0 +1,117 @@
+package su.nightexpress.excellentjobs.sync.bus;
+
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.sync.impl.MessageSigner;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Minimal stand-in broker that relays every line received from a client to all other clients.
+ * It can be hosted by one of the servers, or run locally for tests.
+ * Clients sending a line not signed with the shared secret, or longer than {@link MessageBus#MAX_LINE_LENGTH}, are disconnected,
+ * so only nodes knowing it can publish.
+ */
+public class SocketBroker {
+
+    private final Logger        logger;
+    private final MessageSigner signer;
+    private final String        host;
+    private final int           port;
+
+    private final Map<Socket, PrintWriter> clients;
+
+    private volatile boolean running;
+    private ServerSocket     serverSocket;
+
+    public SocketBroker(@NotNull Logger logger, @NotNull MessageSigner signer, @NotNull String host, int port) {
+        this.logger = logger;
+        this.signer = signer;
+        this.host = host;
+        this.port = port;
+        this.clients = new ConcurrentHashMap<>();
+    }
+
+    public void start() throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(this.host, this.port));
+        this.running = true;
+
+        this.startThread("ExcellentJobs-SyncBroker", this::accept);
+        this.logger.info("Sync bus broker is listening on " + this.host + ":" + this.port + ".");
+    }
+
+    private void accept() {
+        while (this.running) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+                this.clients.put(socket, writer);
+                this.startThread("ExcellentJobs-SyncBroker-Client", () -> this.relay(socket));
+            }
+            catch (IOException exception) {
+                if (this.running) this.logger.warning("Sync bus broker could not accept connection: " + exception.getMessage());
+            }
+        }
+    }
+
+    private void relay(@NotNull Socket socket) {
+        try (socket) {
+            LineReader reader = new LineReader(socket.getInputStream(), MessageBus.MAX_LINE_LENGTH);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (this.signer.verify(line) == null) {
+                    this.logger.warning("Sync bus broker dropped client " + socket.getRemoteSocketAddress() + ": Message is not signed with the bus secret.");
+                    break;
+                }
+
+                String message = line;
+                this.clients.forEach((client, writer) -> {
+                    if (client == socket) return;
+
+                    synchronized (writer) {
+                        writer.println(message);
+                    }
+                });
+            }
+        }
+        catch (LineReader.LineTooLongException exception) {
+            this.logger.warning("Sync bus broker dropped client " + socket.getRemoteSocketAddress() + ": " + exception.getMessage() + ".");
+        }
+        catch (IOException ignored) {
+            // Client disconnected.
+        }
+        finally {
+            this.clients.remove(socket);
+        }
+    }
+
+    private void startThread(@NotNull String name, @NotNull Runnable runnable) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void close() {
+        this.running = false;
+
+        try {
+            if (this.serverSocket != null) this.serverSocket.close();
+        }
+        catch (IOException ignored) {}
+
+        this.clients.keySet().forEach(socket -> {
+            try {
+                socket.close();
+            }
+            catch (IOException ignored) {}
+        });
+        this.clients.clear();
+    }
+}
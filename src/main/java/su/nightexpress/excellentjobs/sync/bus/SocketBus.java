@@ -0,0 +1,126 @@
+package su.nightexpress.excellentjobs.sync.bus;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Bus client that exchanges newline separated messages with a {@link SocketBroker} over TCP. Connection is restored in background
+ * if it's lost, messages published in the meantime are dropped.
+ */
+public class SocketBus implements MessageBus {
+
+    private static final int  CONNECT_TIMEOUT = 5000;
+    private static final long RETRY_DELAY     = 5000L;
+
+    private final Logger logger;
+    private final String host;
+    private final int    port;
+
+    private volatile boolean     running;
+    private volatile Socket      socket;
+    private volatile PrintWriter writer;
+    private Thread               thread;
+
+    public SocketBus(@NotNull Logger logger, @NotNull String host, int port) {
+        this.logger = logger;
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public void start(@NotNull Consumer<String> receiver, @NotNull Runnable onConnect) {
+        this.running = true;
+        this.thread = new Thread(() -> this.run(receiver, onConnect), "ExcellentJobs-SyncBus");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Logs only changes of the connection state, so a bus that is down does not flood the log with retries.
+     */
+    private void run(@NotNull Consumer<String> receiver, @NotNull Runnable onConnect) {
+        boolean failing = false;
+
+        while (this.running) {
+            boolean connected = false;
+
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(this.host, this.port), CONNECT_TIMEOUT);
+                LineReader reader = new LineReader(socket.getInputStream(), MAX_LINE_LENGTH);
+
+                this.socket = socket;
+                this.writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+                connected = true;
+                failing = false;
+                this.logger.info("Connected to sync bus at " + this.host + ":" + this.port + ".");
+                onConnect.run();
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    receiver.accept(line);
+                }
+            }
+            catch (IOException exception) {
+                if (!this.running) break;
+
+                if (connected) {
+                    this.logger.warning("Lost connection to sync bus: " + exception.getMessage());
+                }
+                else if (!failing) {
+                    failing = true;
+                    this.logger.warning("Could not connect to sync bus at " + this.host + ":" + this.port + ": " + exception.getMessage()
+                        + ". Retrying every " + (RETRY_DELAY / 1000L) + " seconds.");
+                }
+            }
+            finally {
+                this.writer = null;
+                this.socket = null;
+            }
+
+            if (!this.running) break;
+
+            try {
+                Thread.sleep(RETRY_DELAY);
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void publish(@NotNull String message) {
+        PrintWriter writer = this.writer;
+        if (writer == null) return;
+
+        synchronized (writer) {
+            writer.println(message);
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.writer != null;
+    }
+
+    @Override
+    public void close() {
+        this.running = false;
+
+        Socket socket = this.socket;
+        if (socket != null) {
+            try {
+                socket.close();
+            }
+            catch (IOException ignored) {}
+        }
+        if (this.thread != null) this.thread.interrupt();
+    }
+}
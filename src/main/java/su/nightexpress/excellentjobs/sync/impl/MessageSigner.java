@@ -0,0 +1,63 @@
+package su.nightexpress.excellentjobs.sync.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Signs bus messages with HMAC-SHA256 of a secret shared by all nodes, so messages of clients that do not know it are rejected.
+ * Signed line is the hex signature followed by a space and the message.
+ */
+public class MessageSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public MessageSigner(@NotNull String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    @NotNull
+    public String sign(@NotNull String message) {
+        return HexFormat.of().formatHex(this.mac(message)) + " " + message;
+    }
+
+    /**
+     * @return Message of the signed line, or null if it's not signed with the same secret.
+     */
+    @Nullable
+    public String verify(@NotNull String line) {
+        int index = line.indexOf(' ');
+        if (index <= 0) return null;
+
+        byte[] signature;
+        try {
+            signature = HexFormat.of().parseHex(line, 0, index);
+        }
+        catch (IllegalArgumentException exception) {
+            return null;
+        }
+
+        String message = line.substring(index + 1);
+        return MessageDigest.isEqual(signature, this.mac(message)) ? message : null;
+    }
+
+    private byte[] mac(@NotNull String message) {
+        try {
+            // Mac instances are not thread-safe, messages are signed from several threads.
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(this.key);
+            return mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package su.nightexpress.excellentjobs.sync.impl;
+
+public enum MessageType {
+    /** User row was written, payload lists changed sections. */
+    USER,
+    /** Global booster was activated or removed. */
+    GLOBAL_BOOSTER,
+    /** Job level of a user was changed. */
+    LEADERBOARD
+}
@@ -0,0 +1,50 @@
+package su.nightexpress.excellentjobs.sync.impl;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import su.nightexpress.nightcore.util.StringUtil;
+
+/**
+ * Change notification sent between nodes. Encoded as a single line of JSON.
+ * @param id Random id of the message, so a message replayed by a client while it's still recent is rejected.
+ * @param date Time the message was sent, so old messages replayed by a client are rejected.
+ */
+public record SyncMessage(@NotNull MessageType type, @NotNull String sender, @NotNull String id, long date, @NotNull JsonObject payload) {
+
+    @NotNull
+    public String serialize() {
+        JsonObject object = new JsonObject();
+        object.addProperty("t", this.type.name());
+        object.addProperty("s", this.sender);
+        object.addProperty("i", this.id);
+        object.addProperty("d", this.date);
+        object.add("p", this.payload);
+        return object.toString();
+    }
+
+    /**
+     * @return Message, or null if it's malformed or of unknown type.
+     */
+    @Nullable
+    public static SyncMessage deserialize(@NotNull String line) {
+        try {
+            JsonElement element = JsonParser.parseString(line);
+            if (!element.isJsonObject()) return null;
+
+            JsonObject object = element.getAsJsonObject();
+            if (!object.has("t") || !object.has("s") || !object.has("i") || !object.has("d") || !object.has("p") || !object.get("p").isJsonObject()) return null;
+
+            MessageType type = StringUtil.getEnum(object.get("t").getAsString(), MessageType.class).orElse(null);
+            if (type == null) return null;
+
+            return new SyncMessage(type, object.get("s").getAsString(), object.get("i").getAsString(), object.get("d").getAsLong(), object.getAsJsonObject("p"));
+        }
+        catch (JsonParseException | IllegalStateException | UnsupportedOperationException | NumberFormatException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package su.nightexpress.excellentjobs.user;
+
+/**
+ * Size and latency of user save flushes since startup.
+ */
+public class FlushMetrics {
+
+    private long flushes;
+    private long users;
+    private long totalNanos;
+    private long maxNanos;
+    private int  lastUsers;
+    private long lastNanos;
+
+    public synchronized void record(int users, long nanos) {
+        this.flushes++;
+        this.users += users;
+        this.totalNanos += nanos;
+        this.maxNanos = Math.max(this.maxNanos, nanos);
+        this.lastUsers = users;
+        this.lastNanos = nanos;
+    }
+
+    public synchronized long getFlushes() {
+        return this.flushes;
+    }
+
+    public synchronized long getUsers() {
+        return this.users;
+    }
+
+    public synchronized double getAverageUsers() {
+        return this.flushes == 0 ? 0D : (double) this.users / this.flushes;
+    }
+
+    public synchronized double getAverageMillis() {
+        return this.flushes == 0 ? 0D : this.totalNanos / 1_000_000D / this.flushes;
+    }
+
+    public synchronized double getMaxMillis() {
+        return this.maxNanos / 1_000_000D;
+    }
+
+    public synchronized int getLastUsers() {
+        return this.lastUsers;
+    }
+
+    public synchronized double getLastMillis() {
+        return this.lastNanos / 1_000_000D;
+    }
+}
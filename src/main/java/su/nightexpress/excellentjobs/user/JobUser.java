@@ -8,8 +8,10 @@ import su.nightexpress.excellentjobs.data.impl.UserSettings;
 import su.nightexpress.excellentjobs.job.impl.Job;
 import su.nightexpress.excellentjobs.job.impl.JobState;
 import su.nightexpress.excellentjobs.stats.impl.JobStats;
+import su.nightexpress.excellentjobs.stats.impl.StatsCounters;
 import su.nightexpress.nightcore.db.AbstractUser;
 
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -23,6 +25,26 @@ public class JobUser extends AbstractUser {
     private final Map<String, JobStats> statsMap;
 
     private final UserSettings          settings;
+    private final StatsCounters         statsCounters;
+
+    /**
+     * Last written JSON of each job, so only changed jobs are serialized again.
+     */
+    private final Map<String, String> encodedJobs;
+
+    /**
+     * JSON of each job as it was last read from or written to the database. Local changes are measured against it to merge them
+     * into data written by other servers.
+     */
+    private final Map<String, String> syncedJobs;
+
+    private volatile long      lastUpdate;
+    private volatile long      version;
+    private volatile boolean   stored;
+    private volatile boolean   dataChanged;
+    private volatile boolean   boostersChanged;
+    private volatile boolean   statsLoaded;
+    private volatile LocalDate statsSince;
 
     @NotNull
     public static JobUser create(@NotNull UUID uuid, @NotNull String name) {
@@ -47,8 +69,98 @@ public class JobUser extends AbstractUser {
         super(uuid, name, dateCreated, lastOnline);
         this.dataMap = new HashMap<>(dataMap);
         this.boosterMap = new ConcurrentHashMap<>(boosterMap);
-        this.statsMap = new HashMap<>(statsMap);
+        this.statsMap = new ConcurrentHashMap<>(statsMap);
         this.settings = settings;
+        this.statsCounters = new StatsCounters();
+        this.encodedJobs = new ConcurrentHashMap<>();
+        this.syncedJobs = new ConcurrentHashMap<>();
+        this.dataChanged = true;
+        this.boostersChanged = true;
+    }
+
+    /**
+     * @return True if any data was modified since it was last written to the database.
+     */
+    public boolean hasChanges() {
+        return this.isDataChanged() || this.boostersChanged;
+    }
+
+    /**
+     * Marks all data as written to the database.
+     */
+    public void clearChanges() {
+        this.dataChanged = false;
+        this.boostersChanged = false;
+        this.getDatas().forEach(data -> data.setChanged(false));
+    }
+
+    /**
+     * @return True if data of any job was modified since it was last written to the database.
+     */
+    public boolean isDataChanged() {
+        return this.dataChanged || this.getDatas().stream().anyMatch(JobData::isChanged);
+    }
+
+    /**
+     * @return True if job data was not written as a whole yet, so all jobs must be written.
+     */
+    public boolean isDataMapChanged() {
+        return this.dataChanged;
+    }
+
+    public void setDataChanged(boolean dataChanged) {
+        this.dataChanged = dataChanged;
+    }
+
+    public boolean isBoostersChanged() {
+        return this.boostersChanged;
+    }
+
+    public void setBoostersChanged(boolean boostersChanged) {
+        this.boostersChanged = boostersChanged;
+    }
+
+    /**
+     * @return True if the user row exists in the database, so it's written only on top of the known version.
+     */
+    public boolean isStored() {
+        return this.stored;
+    }
+
+    public void setStored(boolean stored) {
+        this.stored = stored;
+    }
+
+    /**
+     * @return Time the user row was last written, by this or another server, as known to this server.
+     */
+    public long getLastUpdate() {
+        return this.lastUpdate;
+    }
+
+    public void setLastUpdate(long lastUpdate) {
+        this.lastUpdate = lastUpdate;
+    }
+
+    /**
+     * @return Version of the user row this data is based on. Row is written only if its version is still the same.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @NotNull
+    public Map<String, String> getEncodedJobs() {
+        return this.encodedJobs;
+    }
+
+    @NotNull
+    public Map<String, String> getSyncedJobs() {
+        return this.syncedJobs;
     }
 
     @NotNull
@@ -56,8 +168,41 @@ public class JobUser extends AbstractUser {
         return this.settings;
     }
 
+    public void loadStats(@NotNull Map<String, JobStats> statsMap, @NotNull LocalDate since) {
+        this.statsSince = since;
+        this.loadStats(statsMap);
+    }
+
     public void loadStats(@NotNull Map<String, JobStats> statsMap) {
-        this.statsMap.putAll(statsMap);
+        statsMap.forEach((jobId, stored) -> this.statsMap.merge(jobId, stored, (current, loaded) -> {
+            current.load(loaded);
+            return current;
+        }));
+        this.statsLoaded = true;
+    }
+
+    /**
+     * @return Oldest date of daily stats loaded from the database, or null if stats are not loaded.
+     */
+    @Nullable
+    public LocalDate getStatsSince() {
+        return this.statsSince;
+    }
+
+    public void setStatsSince(@NotNull LocalDate statsSince) {
+        this.statsSince = statsSince;
+    }
+
+    @NotNull
+    public StatsCounters getStatsCounters() {
+        return this.statsCounters;
+    }
+
+    /**
+     * @return True if stats were loaded from the database and new increments can be saved.
+     */
+    public boolean isStatsLoaded() {
+        return this.statsLoaded;
     }
 
     public int countTotalLevel() {
@@ -124,6 +269,7 @@ public class JobUser extends AbstractUser {
 
     public void addBooster(@NotNull String jobId, @NotNull Booster booster) {
         this.boosterMap.put(jobId.toLowerCase(), booster);
+        this.boostersChanged = true;
     }
 
     public void removeBooster(@NotNull Job job) {
@@ -131,7 +277,7 @@ public class JobUser extends AbstractUser {
     }
 
     public void removeBooster(@NotNull String jobId) {
-        this.boosterMap.remove(jobId.toLowerCase());
+        if (this.boosterMap.remove(jobId.toLowerCase()) != null) this.boostersChanged = true;
     }
 
     @NotNull
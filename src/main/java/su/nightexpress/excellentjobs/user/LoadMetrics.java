@@ -0,0 +1,38 @@
+package su.nightexpress.excellentjobs.user;
+
+/**
+ * Counts user data lookups that were not served from memory since startup.
+ */
+public class LoadMetrics {
+
+    private long blockingFetches;
+    private long loginFailures;
+    private long lastBlockingFetch;
+
+    public synchronized void recordBlockingFetch() {
+        this.blockingFetches++;
+        this.lastBlockingFetch = System.currentTimeMillis();
+    }
+
+    public synchronized void recordLoginFailure() {
+        this.loginFailures++;
+    }
+
+    /**
+     * @return Amount of times user data was fetched from the database on the main thread.
+     */
+    public synchronized long getBlockingFetches() {
+        return this.blockingFetches;
+    }
+
+    /**
+     * @return Amount of logins where user data was not loaded by the end of pre-login.
+     */
+    public synchronized long getLoginFailures() {
+        return this.loginFailures;
+    }
+
+    public synchronized long getLastBlockingFetch() {
+        return this.lastBlockingFetch;
+    }
+}
@@ -0,0 +1,5 @@
+package su.nightexpress.excellentjobs.user;
+
+public enum LoginFailurePolicy {
+    KICK, ALLOW
+}
@@ -1,16 +1,200 @@
 package su.nightexpress.excellentjobs.user;
 
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import su.nightexpress.excellentjobs.JobsPlugin;
+import su.nightexpress.excellentjobs.config.Config;
 import su.nightexpress.excellentjobs.data.DataHandler;
+import su.nightexpress.excellentjobs.data.impl.JobData;
+import su.nightexpress.excellentjobs.data.impl.JobProgress;
+import su.nightexpress.excellentjobs.data.impl.JobUpdate;
+import su.nightexpress.excellentjobs.job.impl.Job;
+import su.nightexpress.excellentjobs.stats.StatsManager;
+import su.nightexpress.excellentjobs.user.listener.UserListener;
 import su.nightexpress.nightcore.db.AbstractUserManager;
+import su.nightexpress.nightcore.util.text.NightMessage;
 
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class UserManager extends AbstractUserManager<JobsPlugin, JobUser> {
 
+    private static final int SHUTDOWN_FLUSH_ATTEMPTS = 5;
+
+    /**
+     * Users waiting to be written on next flush.
+     */
+    private final Map<UUID, JobUser> pendingSaves;
+    private final FlushMetrics       flushMetrics;
+    private final LoadMetrics        loadMetrics;
+
     public UserManager(@NotNull JobsPlugin plugin, @NotNull DataHandler dataHandler) {
         super(plugin, dataHandler);
+        this.pendingSaves = new ConcurrentHashMap<>();
+        this.flushMetrics = new FlushMetrics();
+        this.loadMetrics = new LoadMetrics();
+    }
+
+    @Override
+    protected void onLoad() {
+        super.onLoad();
+
+        this.addListener(new UserListener(this.plugin, this));
+        this.addAsyncTask(this::flushSaves, Config.DATA_SAVE_FLUSH_INTERVAL.get());
+    }
+
+    @Override
+    protected void onShutdown() {
+        this.getLoaded().forEach(this::save);
+        super.onShutdown();
+
+        // Flushes may queue users again after merging concurrent changes or a failed write.
+        for (int attempt = 0; attempt < SHUTDOWN_FLUSH_ATTEMPTS && !this.pendingSaves.isEmpty(); attempt++) {
+            this.flushSaves();
+        }
+        if (!this.pendingSaves.isEmpty()) {
+            this.plugin.error("Could not save data of " + this.pendingSaves.size() + " users on shutdown!");
+        }
+    }
+
+    @NotNull
+    public FlushMetrics getFlushMetrics() {
+        return this.flushMetrics;
+    }
+
+    @NotNull
+    public LoadMetrics getLoadMetrics() {
+        return this.loadMetrics;
+    }
+
+    /**
+     * Checks that user data was loaded during pre-login, so it's never fetched on the main thread after join.
+     * Login is denied if it was not, unless the failure policy allows it.
+     */
+    public void handlePreLogin(@NotNull AsyncPlayerPreLoginEvent event) {
+        if (this.getLoaded(event.getUniqueId()) != null) return;
+
+        this.loadMetrics.recordLoginFailure();
+
+        if (Config.DATA_LOGIN_FAILURE_POLICY.get() == LoginFailurePolicy.ALLOW) {
+            this.plugin.warn("Data of " + event.getName() + " was not loaded on login. It will be fetched on first access.");
+            return;
+        }
+
+        this.plugin.warn("Data of " + event.getName() + " was not loaded on login. Login denied.");
+        event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, NightMessage.asLegacy(Config.DATA_LOGIN_FAILURE_MESSAGE.get()));
+    }
+
+    /**
+     * Returns the user only if its data is in memory. Never touches the database, so it's safe to call on the main thread.
+     * @return Loaded user, or null if player's data is not loaded.
+     */
+    @Nullable
+    public JobUser getIfLoaded(@NotNull Player player) {
+        return this.getLoaded(player.getUniqueId());
+    }
+
+    /**
+     * Fetches data from the database if it's not loaded, which blocks the calling thread. Such fetches on the main thread are counted,
+     * so hot paths should use {@link #getIfLoaded(Player)} instead.
+     */
+    @Override
+    @NotNull
+    public JobUser getOrFetch(@NotNull Player player) {
+        JobUser user = this.getIfLoaded(player);
+        if (user != null) return user;
+
+        if (Bukkit.isPrimaryThread()) {
+            this.loadMetrics.recordBlockingFetch();
+            this.plugin.debug("Blocking fetch of " + player.getName() + " data on the main thread.");
+        }
+        return super.getOrFetch(player);
+    }
+
+    /**
+     * Queues the user to be written on next flush, so saves of many users are written together.
+     */
+    @Override
+    public void save(@NotNull JobUser user) {
+        this.pendingSaves.put(user.getId(), user);
+    }
+
+    /**
+     * Queues the user again after its write failed, unless a newer save of it is already queued.
+     */
+    public void retrySave(@NotNull JobUser user) {
+        this.pendingSaves.putIfAbsent(user.getId(), user);
+    }
+
+    /**
+     * Writes changed data of all queued users in a single transaction. Users that are not in the database yet are saved in full.
+     */
+    public synchronized void flushSaves() {
+        if (this.pendingSaves.isEmpty()) return;
+
+        List<JobUser> users = new ArrayList<>();
+        this.pendingSaves.forEach((uuid, user) -> {
+            if (this.pendingSaves.remove(uuid, user)) users.add(user);
+        });
+
+        long start = System.nanoTime();
+        DataHandler dataHandler = this.plugin.getDataHandler();
+        List<JobUser> fullSave = dataHandler.saveChanges(users, Math.max(1, Config.DATA_SAVE_BATCH_SIZE.get()));
+        dataHandler.saveUsers(fullSave).forEach(user -> {
+            user.setStored(true);
+            this.plugin.getSyncManager().publishUser(user, user.getDataMap().keySet(), true);
+        });
+        long nanos = System.nanoTime() - start;
+
+        this.flushMetrics.record(users.size(), nanos);
+        this.plugin.debug("Flushed saves of " + users.size() + " users in " + (nanos / 1_000_000L) + " ms.");
+    }
+
+    /**
+     * Changes a single job of a player who is not online on this server, without loading the whole user.
+     * A cached copy of the user and other servers are notified to pick up the change.
+     * @see DataHandler#updateJob(String, Job, Consumer)
+     * @return Future completed with changed job data, or null if there is no such user or it could not be written.
+     */
+    @NotNull
+    public CompletableFuture<JobUpdate> updateJobAsync(@NotNull String name, @NotNull Job job, @NotNull Consumer<JobData> mutator) {
+        // Plugin scheduler, so blocking database calls do not occupy the common pool shared with the server and other plugins.
+        CompletableFuture<JobUpdate> future = new CompletableFuture<>();
+        this.plugin.runTaskAsync(task -> {
+            try {
+                future.complete(this.updateJob(name, job, mutator));
+            }
+            catch (RuntimeException exception) {
+                future.completeExceptionally(exception);
+            }
+        });
+        return future;
+    }
+
+    @Nullable
+    private JobUpdate updateJob(@NotNull String name, @NotNull Job job, @NotNull Consumer<JobData> mutator) {
+        DataHandler dataHandler = this.plugin.getDataHandler();
+        JobUpdate update = dataHandler.updateJob(name, job, mutator);
+        if (update == null) return null;
+
+        Set<String> jobIds = Collections.singleton(job.getId());
+        JobUser cached = this.getLoaded(update.userId());
+        if (cached != null) dataHandler.refreshUser(cached, jobIds, false);
+
+        JobData data = update.data();
+        StatsManager statsManager = this.plugin.getStatsManager();
+        if (statsManager != null) {
+            statsManager.updateLevelBoard(new JobProgress(update.userId(), update.userName(), job.getId(), data.getState(), data.getLevel(), data.getXP(), data.getLevelDate()));
+        }
+
+        this.plugin.getSyncManager().publishLevel(update.userId(), update.userName(), data);
+        this.plugin.getSyncManager().publishUser(update.userId(), jobIds, false);
+        return update;
     }
 
     @Override
@@ -0,0 +1,27 @@
+package su.nightexpress.excellentjobs.user.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.JobsPlugin;
+import su.nightexpress.excellentjobs.user.UserManager;
+import su.nightexpress.nightcore.manager.AbstractListener;
+
+public class UserListener extends AbstractListener<JobsPlugin> {
+
+    private final UserManager manager;
+
+    public UserListener(@NotNull JobsPlugin plugin, @NotNull UserManager manager) {
+        super(plugin);
+        this.manager = manager;
+    }
+
+    // User data is loaded at LOWEST, check the result before other plugins see the login as allowed.
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        this.manager.handlePreLogin(event);
+    }
+}
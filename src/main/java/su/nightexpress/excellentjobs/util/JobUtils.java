@@ -68,4 +68,31 @@ public class JobUtils {
     public static int getMobLevel(@NotNull LivingEntity entity) {
         return hasLevelledMobs() ? LevelledMobsHook.getLevel(entity) : 0;
     }
+
+    public static long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static long getChunkKey(long blockKey) {
+        return getChunkKey(getBlockKeyX(blockKey) >> 4, getBlockKeyZ(blockKey) >> 4);
+    }
+
+    /**
+     * Packs block coordinates into a single long: 26 bits for X and Z, 12 bits for Y.
+     */
+    public static long getBlockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int getBlockKeyX(long blockKey) {
+        return (int) (blockKey >> 38);
+    }
+
+    public static int getBlockKeyY(long blockKey) {
+        return (int) (blockKey << 52 >> 52);
+    }
+
+    public static int getBlockKeyZ(long blockKey) {
+        return (int) (blockKey << 26 >> 38);
+    }
 }
@@ -8,6 +8,7 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.block.Action;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import su.nightexpress.excellentjobs.JobsPlugin;
@@ -49,6 +50,7 @@ public class ZoneManager extends AbstractManager<JobsPlugin> {
     private BlockListEditor    blockListEditor;
 
     private BlockHighlighter highlighter;
+    private BukkitTask       tickTask;
 
     public ZoneManager(@NotNull JobsPlugin plugin) {
         super(plugin);
@@ -67,10 +69,16 @@ public class ZoneManager extends AbstractManager<JobsPlugin> {
         this.addListener(new SelectionZoneListener(this.plugin, this));
 
         this.addTask(this::regenerateBlocks, Config.ZONES_REGENERATION_TASK_INTERVAL.get());
+        this.tickTask = this.plugin.getServer().getScheduler().runTaskTimer(this.plugin, this::tickZones, 1L, 1L);
     }
 
     @Override
     protected void onShutdown() {
+        if (this.tickTask != null) {
+            this.tickTask.cancel();
+            this.tickTask = null;
+        }
+
         this.regenerateBlocks(true);
 
         this.zoneListEditor.clear();
@@ -248,6 +256,45 @@ public class ZoneManager extends AbstractManager<JobsPlugin> {
         return this.getZoneByLocation(block.getLocation());
     }
 
+    /**
+     * Removes all blocks located in active zones from the given list.
+     * Zones are matched against the bounding box of all blocks first, so lists outside of any zone are left untouched.
+     */
+    public void removeZoneBlocks(@NotNull World world, @NotNull List<Block> blocks) {
+        if (blocks.isEmpty()) return;
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (Block block : blocks) {
+            int x = block.getX(), y = block.getY(), z = block.getZ();
+            if (x < minX) minX = x;
+            if (y < minY) minY = y;
+            if (z < minZ) minZ = z;
+            if (x > maxX) maxX = x;
+            if (y > maxY) maxY = y;
+            if (z > maxZ) maxZ = z;
+        }
+
+        List<Zone> zones = null;
+        for (Zone zone : this.zoneMap.values()) {
+            if (!zone.isActive() || zone.getWorld() != world) continue;
+            if (!zone.intersects(minX, minY, minZ, maxX, maxY, maxZ)) continue;
+
+            if (zones == null) zones = new ArrayList<>();
+            zones.add(zone);
+        }
+        if (zones == null) return;
+
+        List<Zone> affected = zones;
+        blocks.removeIf(block -> {
+            int x = block.getX(), y = block.getY(), z = block.getZ();
+            for (Zone zone : affected) {
+                if (zone.contains(x, y, z)) return true;
+            }
+            return false;
+        });
+    }
+
     public boolean isInZone(@NotNull Block block) {
         return this.getZone(block) != null;
     }
@@ -292,6 +339,27 @@ public class ZoneManager extends AbstractManager<JobsPlugin> {
         this.getActiveZones().forEach(zone -> zone.regenerateBlocks(force));
     }
 
+    public void tickZones() {
+        this.zoneMap.values().forEach(Zone::placeFallbackBlocks);
+        this.tickMines();
+    }
+
+    public void tickMines() {
+        int budget = Config.ZONES_MINE_RESET_BLOCKS_PER_TICK.get();
+
+        for (Zone zone : this.zoneMap.values()) {
+            if (budget <= 0) break;
+
+            budget = zone.tickMines(budget);
+        }
+    }
+
+    public void regenerateBlocks(@NotNull Chunk chunk) {
+        this.zoneMap.values().forEach(zone -> {
+            if (zone.hasDeferredBlocks()) zone.regenerateBlocks(chunk);
+        });
+    }
+
     @NotNull
     public ItemStack getCuboidWand(@Nullable Zone zone) {
         ItemStack item = new ItemStack(Config.ZONES_WAND_ITEM.get());
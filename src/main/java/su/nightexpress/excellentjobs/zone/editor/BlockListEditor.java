@@ -16,6 +16,7 @@ import su.nightexpress.nightcore.ui.menu.MenuViewer;
 import su.nightexpress.nightcore.ui.menu.item.MenuItem;
 import su.nightexpress.nightcore.ui.menu.type.LinkedMenu;
 import su.nightexpress.nightcore.util.BukkitThing;
+import su.nightexpress.nightcore.util.Lists;
 import su.nightexpress.nightcore.util.bukkit.NightItem;
 
 @SuppressWarnings("UnstableApiUsage")
@@ -71,6 +72,12 @@ public class BlockListEditor extends LinkedMenu<JobsPlugin, BlockListEditor.Data
             blockList.setDropItems(!blockList.isDropItems());
             this.save(viewer);
         });
+
+        this.addItem(Material.DIAMOND_PICKAXE, Lang.EDITOR_ZONE_BLOCK_LIST_RESET_MODE, 22, (viewer, event, data) -> {
+            BlockList blockList = data.blockList;
+            blockList.setResetMode(Lists.next(blockList.getResetMode()));
+            this.save(viewer);
+        });
     }
 
     public void open(@NotNull Player player, @NotNull Zone zone, @NotNull BlockList blockList) {
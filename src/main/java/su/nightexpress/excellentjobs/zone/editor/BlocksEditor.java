@@ -45,6 +45,7 @@ public class BlocksEditor extends LinkedMenu<JobsPlugin, Zone> implements Filled
                 if (zone.getBlockList(id) == null) {
                     BlockList blockList = new BlockList(id, Lists.newSet(), Material.STONE, 60, true);
                     zone.getBlockListMap().put(blockList.getId(), blockList);
+                    zone.save();
                 }
                 return true;
             }));
@@ -1,26 +1,36 @@
 package su.nightexpress.excellentjobs.zone.impl;
 
 import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
 import org.jetbrains.annotations.NotNull;
 import su.nightexpress.excellentjobs.Placeholders;
 import su.nightexpress.nightcore.config.FileConfig;
 import su.nightexpress.nightcore.config.Writeable;
 import su.nightexpress.nightcore.util.BukkitThing;
+import su.nightexpress.nightcore.util.StringUtil;
 
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 public class BlockList implements Writeable {
 
-    private Material fallbackMaterial;
+    private Material  fallbackMaterial;
+    private BlockData fallbackData;
     private int      resetTime;
     private boolean  dropItems;
 
-    private final String        id;
-    private final Set<Material> materials;
+    private ResetMode resetMode;
+    private int       mineResetInterval;
+    private double    mineResetThreshold;
+
+    private final String                id;
+    private final Set<Material>         materials;
+    private final Map<Material, Double> mineWeights;
+
+    private Material[] mineMaterials;
+    private double[]   mineCumulativeWeights;
 
     public BlockList(@NotNull String id,
                      @NotNull Set<Material> materials,
@@ -28,10 +38,16 @@ public class BlockList implements Writeable {
                      int resetTime,
                      boolean dropItems) {
         this.id = id.toLowerCase();
-        this.materials = new HashSet<>(materials);
+        this.materials = EnumSet.noneOf(Material.class);
+        this.materials.addAll(materials);
+        this.mineWeights = new HashMap<>();
         this.setFallbackMaterial(fallbackMaterial);
         this.setResetTime(resetTime);
         this.setDropItems(dropItems);
+        this.setResetMode(ResetMode.BLOCK);
+        this.setMineResetInterval(-1);
+        this.setMineResetThreshold(-1);
+        this.updateMineDistribution();
     }
 
     @NotNull
@@ -46,7 +62,18 @@ public class BlockList implements Writeable {
         int resetTime = config.getInt(path + ".Reset_Time");
         boolean dropItems = config.getBoolean(path + ".Drop_Items");
 
-        return new BlockList(id, materials, fallback, resetTime, dropItems);
+        BlockList blockList = new BlockList(id, materials, fallback, resetTime, dropItems);
+        blockList.setResetMode(StringUtil.getEnum(config.getString(path + ".Reset_Mode", ResetMode.BLOCK.name()), ResetMode.class).orElse(ResetMode.BLOCK));
+        blockList.setMineResetInterval(config.getInt(path + ".Mine.Reset_Interval", -1));
+        blockList.setMineResetThreshold(config.getDouble(path + ".Mine.Depletion_Threshold", -1));
+        config.getSection(path + ".Mine.Weights").forEach(sType -> {
+            Material material = BukkitThing.getMaterial(sType);
+            if (material == null) return;
+
+            blockList.getMineWeights().put(material, config.getDouble(path + ".Mine.Weights." + sType));
+        });
+
+        return blockList;
     }
 
     @Override
@@ -55,6 +82,11 @@ public class BlockList implements Writeable {
         config.set(path + ".Fallback_Material", BukkitThing.toString(this.fallbackMaterial));
         config.set(path + ".Reset_Time", this.resetTime);
         config.set(path + ".Drop_Items", this.dropItems);
+        config.set(path + ".Reset_Mode", this.resetMode.name());
+        config.set(path + ".Mine.Reset_Interval", this.mineResetInterval);
+        config.set(path + ".Mine.Depletion_Threshold", this.mineResetThreshold);
+        config.remove(path + ".Mine.Weights");
+        this.mineWeights.forEach((material, weight) -> config.set(path + ".Mine.Weights." + BukkitThing.toString(material), weight));
     }
 
     @NotNull
@@ -66,6 +98,47 @@ public class BlockList implements Writeable {
         return this.materials.contains(material);
     }
 
+    public boolean isMineMode() {
+        return this.resetMode == ResetMode.MINE;
+    }
+
+    /**
+     * Rebuilds cumulative weights used by mine resets. Called by zone on every load and save.
+     * Materials without explicit weight have weight of 1.
+     */
+    public void updateMineDistribution() {
+        List<Material> list = new ArrayList<>(this.materials);
+        Material[] mineMaterials = new Material[list.size()];
+        double[] cumulative = new double[list.size()];
+
+        double total = 0D;
+        int count = 0;
+        for (Material material : list) {
+            double weight = this.mineWeights.getOrDefault(material, 1D);
+            if (weight <= 0D) continue;
+
+            total += weight;
+            mineMaterials[count] = material;
+            cumulative[count] = total;
+            count++;
+        }
+
+        this.mineMaterials = Arrays.copyOf(mineMaterials, count);
+        this.mineCumulativeWeights = Arrays.copyOf(cumulative, count);
+    }
+
+    @NotNull
+    public Material pickMineMaterial() {
+        int count = this.mineMaterials.length;
+        if (count == 0) return this.fallbackMaterial;
+
+        double roll = ThreadLocalRandom.current().nextDouble() * this.mineCumulativeWeights[count - 1];
+        int index = Arrays.binarySearch(this.mineCumulativeWeights, roll);
+        if (index < 0) index = -index - 1;
+
+        return this.mineMaterials[Math.min(index, count - 1)];
+    }
+
     @NotNull
     public String getId() {
         return this.id;
@@ -83,6 +156,15 @@ public class BlockList implements Writeable {
 
     public void setFallbackMaterial(@NotNull Material fallbackMaterial) {
         this.fallbackMaterial = fallbackMaterial;
+        this.fallbackData = fallbackMaterial.createBlockData();
+    }
+
+    /**
+     * @return Shared (immutable once placed) block data of the fallback material.
+     */
+    @NotNull
+    public BlockData getFallbackData() {
+        return this.fallbackData;
     }
 
     public int getResetTime() {
@@ -100,4 +182,34 @@ public class BlockList implements Writeable {
     public void setDropItems(boolean dropItems) {
         this.dropItems = dropItems;
     }
+
+    @NotNull
+    public ResetMode getResetMode() {
+        return this.resetMode;
+    }
+
+    public void setResetMode(@NotNull ResetMode resetMode) {
+        this.resetMode = resetMode;
+    }
+
+    public int getMineResetInterval() {
+        return this.mineResetInterval;
+    }
+
+    public void setMineResetInterval(int mineResetInterval) {
+        this.mineResetInterval = mineResetInterval;
+    }
+
+    public double getMineResetThreshold() {
+        return this.mineResetThreshold;
+    }
+
+    public void setMineResetThreshold(double mineResetThreshold) {
+        this.mineResetThreshold = mineResetThreshold;
+    }
+
+    @NotNull
+    public Map<Material, Double> getMineWeights() {
+        return this.mineWeights;
+    }
 }
@@ -0,0 +1,355 @@
+package su.nightexpress.excellentjobs.zone.impl;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import su.nightexpress.excellentjobs.util.JobUtils;
+import su.nightexpress.nightcore.util.TimeUtil;
+import su.nightexpress.nightcore.util.geodata.Cuboid;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+public class MineReset {
+
+    private final BlockList blockList;
+
+    // Chunk columns skipped by the last reset as they were not loaded, and those of them loaded since then.
+    private final Set<Long>   deferredChunks;
+    private final Deque<Long> loadedChunks;
+
+    private long resetDate;
+    private int  totalBlocks;
+    private int  brokenBlocks;
+
+    private boolean running;
+    private boolean counting;
+    private boolean scanning;
+    private int     replaced;
+
+    // Highest layer of the mine: air at or below it is refilled, air above it is left as is.
+    private int surfaceY = Integer.MIN_VALUE;
+    private int scanY;
+    private int scanIndex;
+
+    // Cursor of the running reset or count: chunk column index and block index within that column.
+    private Cuboid cuboid;
+    private int minX, minY, minZ, maxX, maxY, maxZ;
+    private int minChunkX, minChunkZ, chunksX, chunksTotal;
+    private int chunkIndex;
+    private int blockIndex;
+    private int loadedIndex;
+
+    public MineReset(@NotNull BlockList blockList, @NotNull Cuboid cuboid) {
+        this.blockList = blockList;
+        this.deferredChunks = new HashSet<>();
+        this.loadedChunks = new ArrayDeque<>();
+        this.resetDate = TimeUtil.createFutureTimestamp(blockList.getMineResetInterval());
+        this.setBounds(cuboid);
+
+        // Mine blocks are counted by ticks before the depletion threshold is checked.
+        this.totalBlocks = -1;
+        this.counting = true;
+    }
+
+    private void setBounds(@NotNull Cuboid cuboid) {
+        this.cuboid = cuboid;
+        this.minX = Math.min(cuboid.getMin().getX(), cuboid.getMax().getX());
+        this.minY = Math.min(cuboid.getMin().getY(), cuboid.getMax().getY());
+        this.minZ = Math.min(cuboid.getMin().getZ(), cuboid.getMax().getZ());
+        this.maxX = Math.max(cuboid.getMin().getX(), cuboid.getMax().getX());
+        this.maxY = Math.max(cuboid.getMin().getY(), cuboid.getMax().getY());
+        this.maxZ = Math.max(cuboid.getMin().getZ(), cuboid.getMax().getZ());
+
+        this.minChunkX = this.minX >> 4;
+        this.minChunkZ = this.minZ >> 4;
+        this.chunksX = (this.maxX >> 4) - this.minChunkX + 1;
+        this.chunksTotal = this.chunksX * ((this.maxZ >> 4) - this.minChunkZ + 1);
+
+        this.chunkIndex = 0;
+        this.blockIndex = 0;
+    }
+
+    public void onBlockBreak(int y) {
+        this.brokenBlocks++;
+        this.surfaceY = Math.max(this.surfaceY, y);
+    }
+
+    /**
+     * Queues a chunk column skipped by the last reset, so it's refilled by next ticks.
+     */
+    public void onChunkLoad(int chunkX, int chunkZ) {
+        long chunkKey = JobUtils.getChunkKey(chunkX, chunkZ);
+        if (this.deferredChunks.remove(chunkKey)) {
+            this.loadedChunks.add(chunkKey);
+        }
+    }
+
+    public boolean hasDeferredChunks() {
+        return !this.deferredChunks.isEmpty();
+    }
+
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    public boolean isResetTime() {
+        if (this.running) return false;
+
+        // Broken blocks are not counted across restarts, so scheduled resets do not depend on them.
+        if (this.blockList.getMineResetInterval() > 0 && TimeUtil.isPassed(this.resetDate)) return true;
+
+        double threshold = this.blockList.getMineResetThreshold();
+        if (threshold > 0 && this.totalBlocks > 0 && this.brokenBlocks > 0) {
+            return (double) this.brokenBlocks / (double) this.totalBlocks * 100D >= threshold;
+        }
+        return false;
+    }
+
+    /**
+     * @return True if any chunk of the mine is loaded. Resets of mines nobody is near are postponed, so they don't load chunks.
+     */
+    public boolean isLoaded(@NotNull World world) {
+        for (int index = 0; index < this.chunksTotal; index++) {
+            if (world.isChunkLoaded(this.minChunkX + index % this.chunksX, this.minChunkZ + index / this.chunksX)) return true;
+        }
+        return false;
+    }
+
+    public void start(@NotNull Cuboid cuboid) {
+        this.setBounds(cuboid);
+
+        this.deferredChunks.clear();
+        this.loadedChunks.clear();
+        this.loadedIndex = 0;
+        this.surfaceY = Math.min(this.surfaceY, this.maxY);
+        this.scanY = this.maxY;
+        this.scanIndex = 0;
+        this.replaced = 0;
+        this.brokenBlocks = 0;
+        this.counting = false;
+        this.scanning = true;
+        this.running = true;
+    }
+
+    /**
+     * Continues the running reset until the budget is spent: finds the mine surface first,
+     * then moves players out of the mine and refills it chunk by chunk. Chunks that are not loaded are skipped
+     * and refilled once they're loaded. Mine blocks are counted the same way before the first reset.
+     * @return Unused budget.
+     */
+    public int tick(@NotNull World world, int budget) {
+        budget = this.fillLoadedChunks(world, budget);
+
+        if (this.counting) return this.isLoaded(world) ? this.countBlocks(world, budget) : budget;
+        if (!this.running) return budget;
+
+        if (this.scanning) {
+            budget = this.scanSurface(world, budget);
+            if (this.scanning) return budget;
+        }
+
+        this.movePlayers(world);
+
+        while (budget > 0 && this.chunkIndex < this.chunksTotal) {
+            int chunkX = this.minChunkX + this.chunkIndex % this.chunksX;
+            int chunkZ = this.minChunkZ + this.chunkIndex / this.chunksX;
+
+            if (this.blockIndex == 0 && !world.isChunkLoaded(chunkX, chunkZ)) {
+                this.deferredChunks.add(JobUtils.getChunkKey(chunkX, chunkZ));
+                this.chunkIndex++;
+                continue;
+            }
+
+            int columnSize = this.getColumnSize(chunkX, chunkZ);
+            int amount = Math.min(budget, columnSize - this.blockIndex);
+            this.fillColumn(world, chunkX, chunkZ, this.blockIndex, this.blockIndex + amount);
+            this.blockIndex += amount;
+            budget -= amount;
+
+            if (this.blockIndex >= columnSize) {
+                this.chunkIndex++;
+                this.blockIndex = 0;
+            }
+        }
+
+        if (this.chunkIndex >= this.chunksTotal) {
+            this.running = false;
+            this.totalBlocks = this.replaced;
+            this.resetDate = TimeUtil.createFutureTimestamp(this.blockList.getMineResetInterval());
+        }
+        return budget;
+    }
+
+    private int fillLoadedChunks(@NotNull World world, int budget) {
+        while (budget > 0 && !this.loadedChunks.isEmpty()) {
+            long chunkKey = this.loadedChunks.peek();
+            int chunkX = (int) (chunkKey >> 32);
+            int chunkZ = (int) chunkKey;
+
+            // Unloaded again meanwhile.
+            if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                this.loadedChunks.poll();
+                this.deferredChunks.add(chunkKey);
+                this.loadedIndex = 0;
+                continue;
+            }
+
+            int columnSize = this.getColumnSize(chunkX, chunkZ);
+            int amount = Math.min(budget, columnSize - this.loadedIndex);
+            this.fillColumn(world, chunkX, chunkZ, this.loadedIndex, this.loadedIndex + amount);
+            this.loadedIndex += amount;
+            budget -= amount;
+
+            if (this.loadedIndex >= columnSize) {
+                this.loadedChunks.poll();
+                this.loadedIndex = 0;
+            }
+            if (!this.running) this.totalBlocks = this.replaced;
+        }
+        return budget;
+    }
+
+    private int getColumnSize(int chunkX, int chunkZ) {
+        int sizeX = Math.min(this.maxX, (chunkX << 4) + 15) - Math.max(this.minX, chunkX << 4) + 1;
+        int sizeZ = Math.min(this.maxZ, (chunkZ << 4) + 15) - Math.max(this.minZ, chunkZ << 4) + 1;
+        return sizeX * sizeZ * (this.maxY - this.minY + 1);
+    }
+
+    /**
+     * Refills blocks of the chunk column in the given range of indexes, going layer by layer from the bottom.
+     */
+    private void fillColumn(@NotNull World world, int chunkX, int chunkZ, int from, int to) {
+        int fromX = Math.max(this.minX, chunkX << 4);
+        int fromZ = Math.max(this.minZ, chunkZ << 4);
+        int sizeX = Math.min(this.maxX, (chunkX << 4) + 15) - fromX + 1;
+        int sizeZ = Math.min(this.maxZ, (chunkZ << 4) + 15) - fromZ + 1;
+
+        for (int index = from; index < to; index++) {
+            int x = fromX + index % sizeX;
+            int z = fromZ + (index / sizeX) % sizeZ;
+            int y = this.minY + index / (sizeX * sizeZ);
+
+            Block block = world.getBlockAt(x, y, z);
+            Material type = block.getType();
+            if (this.blockList.contains(type) || (type.isAir() && y <= this.surfaceY)) {
+                block.setType(this.blockList.pickMineMaterial(), false);
+                this.replaced++;
+            }
+        }
+    }
+
+    /**
+     * Counts mine blocks in loaded chunks, so the depletion threshold is not compared against air of the cuboid.
+     * Blocks broken meanwhile are counted as mine blocks too.
+     */
+    private int countBlocks(@NotNull World world, int budget) {
+        while (budget > 0 && this.chunkIndex < this.chunksTotal) {
+            int chunkX = this.minChunkX + this.chunkIndex % this.chunksX;
+            int chunkZ = this.minChunkZ + this.chunkIndex / this.chunksX;
+
+            if (this.blockIndex == 0 && !world.isChunkLoaded(chunkX, chunkZ)) {
+                this.chunkIndex++;
+                continue;
+            }
+
+            int fromX = Math.max(this.minX, chunkX << 4);
+            int fromZ = Math.max(this.minZ, chunkZ << 4);
+            int sizeX = Math.min(this.maxX, (chunkX << 4) + 15) - fromX + 1;
+            int sizeZ = Math.min(this.maxZ, (chunkZ << 4) + 15) - fromZ + 1;
+            int columnSize = sizeX * sizeZ * (this.maxY - this.minY + 1);
+
+            while (budget > 0 && this.blockIndex < columnSize) {
+                int index = this.blockIndex++;
+                Material type = world.getBlockAt(fromX + index % sizeX, this.minY + index / (sizeX * sizeZ), fromZ + (index / sizeX) % sizeZ).getType();
+                if (this.blockList.contains(type)) this.replaced++;
+                budget--;
+            }
+
+            if (this.blockIndex >= columnSize) {
+                this.chunkIndex++;
+                this.blockIndex = 0;
+            }
+        }
+
+        if (this.chunkIndex >= this.chunksTotal) {
+            this.counting = false;
+            this.totalBlocks = this.replaced + this.brokenBlocks;
+            this.replaced = 0;
+            this.chunkIndex = 0;
+        }
+        return budget;
+    }
+
+    /**
+     * Goes down from the top of the cuboid until a layer containing mine blocks or the known surface is reached,
+     * so space above the mine is not filled and a mine mined out before restart is still refilled to its surface.
+     * Blocks in chunks that are not loaded are skipped.
+     */
+    private int scanSurface(@NotNull World world, int budget) {
+        int sizeX = this.maxX - this.minX + 1;
+        int layerSize = sizeX * (this.maxZ - this.minZ + 1);
+
+        while (budget > 0 && this.scanY > this.surfaceY && this.scanY >= this.minY) {
+            int index = this.scanIndex++;
+            int x = this.minX + index % sizeX;
+            int z = this.minZ + index / sizeX;
+
+            budget--;
+            if (world.isChunkLoaded(x >> 4, z >> 4)) {
+                if (this.blockList.contains(world.getBlockAt(x, this.scanY, z).getType())) {
+                    this.surfaceY = this.scanY;
+                    break;
+                }
+            }
+
+            if (this.scanIndex >= layerSize) {
+                this.scanY--;
+                this.scanIndex = 0;
+            }
+        }
+
+        if (budget <= 0 && this.scanY > this.surfaceY && this.scanY >= this.minY) return budget;
+
+        // No mine blocks at all, fill the whole cuboid as a new mine.
+        if (this.surfaceY < this.minY) this.surfaceY = this.maxY;
+        this.scanning = false;
+        return budget;
+    }
+
+    /**
+     * Moves players standing in the refilled part of the mine onto its surface, so they are not trapped in blocks.
+     */
+    private void movePlayers(@NotNull World world) {
+        for (Player player : world.getPlayers()) {
+            Location location = player.getLocation();
+            if (location.getBlockY() > this.surfaceY || !this.cuboid.contains(location)) continue;
+
+            Location surface = location.clone();
+            surface.setY(this.surfaceY + 1);
+            player.teleport(surface);
+        }
+    }
+
+    @NotNull
+    public BlockList getBlockList() {
+        return this.blockList;
+    }
+
+    public long getResetDate() {
+        return this.resetDate;
+    }
+
+    public int getTotalBlocks() {
+        return this.totalBlocks;
+    }
+
+    public int getBrokenBlocks() {
+        return this.brokenBlocks;
+    }
+}
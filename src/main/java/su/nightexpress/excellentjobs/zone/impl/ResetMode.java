@@ -0,0 +1,13 @@
+package su.nightexpress.excellentjobs.zone.impl;
+
+public enum ResetMode {
+
+    /**
+     * Every broken block is replaced with the fallback material and restored individually after the reset time.
+     */
+    BLOCK,
+    /**
+     * Broken blocks are not tracked, the whole zone cuboid is refilled on schedule or when depleted.
+     */
+    MINE
+}
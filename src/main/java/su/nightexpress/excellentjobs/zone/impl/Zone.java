@@ -1,5 +1,6 @@
 package su.nightexpress.excellentjobs.zone.impl;
 
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
@@ -19,6 +20,7 @@ import su.nightexpress.excellentjobs.user.JobUser;
 import su.nightexpress.excellentjobs.job.impl.Job;
 import su.nightexpress.excellentjobs.job.impl.JobState;
 import su.nightexpress.excellentjobs.util.Hours;
+import su.nightexpress.excellentjobs.util.JobUtils;
 import su.nightexpress.excellentjobs.util.Modifier;
 import su.nightexpress.nightcore.config.ConfigValue;
 import su.nightexpress.nightcore.config.FileConfig;
@@ -40,12 +42,17 @@ public class Zone extends AbstractFileData<JobsPlugin> {
 
     private final Map<DayOfWeek, Hours>     hoursByDayMap;
     private final Map<String, BlockList>    blockListMap;
+    private final Map<Material, BlockList>  blockListIndex;
     private final Map<String, Modifier>     paymentModifierMap;
-    private final Map<BlockPos, RenewBlock> renewBlocks;
+    private final Map<Long, RenewBlock>     renewBlocks;
+    private final Map<Long, Map<Long, RenewBlock>> deferredBlocks;
+    private final Map<Long, Map<Long, BlockData>>  fallbackBlocks;
+    private final Map<String, MineReset>    mineResets;
 
     private World  world;
     private String worldName;
     private Cuboid cuboid;
+    private int    minX, minY, minZ, maxX, maxY, maxZ;
 
     private String        name;
     private List<String>  description;
@@ -63,11 +70,15 @@ public class Zone extends AbstractFileData<JobsPlugin> {
         super(plugin, file);
         this.hoursByDayMap = new HashMap<>();
         this.blockListMap = new HashMap<>();
+        this.blockListIndex = new EnumMap<>(Material.class);
         this.paymentModifierMap = new HashMap<>();
         this.renewBlocks = new HashMap<>();
+        this.deferredBlocks = new HashMap<>();
+        this.fallbackBlocks = new HashMap<>();
+        this.mineResets = new HashMap<>();
 
         this.linkedJobs = new HashSet<>();
-        this.disabledInteractions = new HashSet<>();
+        this.disabledInteractions = EnumSet.noneOf(Material.class);
         this.xpModifier = Modifier.add(0, 0, 0);
         this.icon = new NightItem(Material.MAP);
     }
@@ -136,8 +147,10 @@ public class Zone extends AbstractFileData<JobsPlugin> {
 
         this.setXPModifier(Modifier.read(config, "XP_Modifier"));
 
-        this.disabledInteractions = Lists.modify(config.getStringSet("Disabled_Block_Interactions"), BukkitThing::getMaterial);
+        this.disabledInteractions = EnumSet.noneOf(Material.class);
+        config.getStringSet("Disabled_Block_Interactions").stream().map(BukkitThing::getMaterial).filter(Objects::nonNull).forEach(this.disabledInteractions::add);
 
+        this.updateBlockListIndex();
         return true;
     }
 
@@ -169,6 +182,19 @@ public class Zone extends AbstractFileData<JobsPlugin> {
             mod.write(config, "Payment_Modifier." + currencyId);
         });
         this.getXPModifier().write(config, "XP_Modifier");
+
+        this.updateBlockListIndex();
+    }
+
+    /**
+     * Rebuilds material lookup for block lists. Called on every load and save, so changes made by editors are applied.
+     */
+    public void updateBlockListIndex() {
+        this.blockListIndex.clear();
+        this.blockListMap.values().forEach(blockList -> {
+            blockList.updateMineDistribution();
+            blockList.getMaterials().forEach(material -> this.blockListIndex.putIfAbsent(material, blockList));
+        });
     }
 
     @NotNull
@@ -193,15 +219,33 @@ public class Zone extends AbstractFileData<JobsPlugin> {
             event.setDropItems(false);
         }
 
-        BlockData blockData = block.getBlockData();
-        BlockPos pos = BlockPos.from(block.getLocation());
+        if (blockList.isMineMode()) {
+            this.getMineReset(blockList).onBlockBreak(block.getY());
+            return true;
+        }
+
+        long blockKey = JobUtils.getBlockKey(block.getX(), block.getY(), block.getZ());
         long resetDate = TimeUtil.createFutureTimestamp(blockList.getResetTime());
 
-        this.renewBlocks.put(pos, new RenewBlock(blockData, resetDate));
-        this.plugin.runTask(task -> this.world.setBlockData(block.getLocation(), blockList.getFallbackMaterial().createBlockData()));
+        this.renewBlocks.put(blockKey, new RenewBlock(block.getBlockData(), resetDate));
+        this.fallbackBlocks.computeIfAbsent(JobUtils.getChunkKey(block.getX() >> 4, block.getZ() >> 4), k -> new HashMap<>()).put(blockKey, blockList.getFallbackData());
         return true;
     }
 
+    /**
+     * Places fallback blocks queued by broken blocks since the last call, chunk by chunk.
+     */
+    public void placeFallbackBlocks() {
+        if (this.fallbackBlocks.isEmpty()) return;
+
+        if (this.isActive()) {
+            this.fallbackBlocks.values().forEach(blocks -> blocks.forEach((blockKey, blockData) -> {
+                this.getBlock(blockKey).setBlockData(blockData);
+            }));
+        }
+        this.fallbackBlocks.clear();
+    }
+
     public void regenerateBlocks() {
         this.regenerateBlocks(false);
     }
@@ -209,28 +253,121 @@ public class Zone extends AbstractFileData<JobsPlugin> {
     public void regenerateBlocks(boolean force) {
         if (!this.isActive()) return;
 
+        if (force) {
+            this.fallbackBlocks.clear();
+        }
+
         this.renewBlocks.entrySet().removeIf(entry -> {
-            BlockPos pos = entry.getKey();
+            long blockKey = entry.getKey();
             RenewBlock renewBlock = entry.getValue();
 
             if (!force) {
                 if (!renewBlock.isReady()) return false;
-                if (!pos.isChunkLoaded(this.world)) return false;
-            }
 
-            BlockData blockData = renewBlock.getBlockData();
-            Location location = pos.toLocation(this.world);
-            this.world.setBlockData(location, blockData);
-            UniParticle.of(Particle.BLOCK, blockData).play(LocationUtil.setCenter3D(location), 0.35, 0.05, 60);
+                // Do not poll unloaded chunks every time, regenerate them once they are loaded instead.
+                if (!this.world.isChunkLoaded(JobUtils.getBlockKeyX(blockKey) >> 4, JobUtils.getBlockKeyZ(blockKey) >> 4)) {
+                    this.deferBlock(blockKey, renewBlock);
+                    return true;
+                }
+            }
 
+            this.renewBlock(blockKey, renewBlock, true);
             return true;
         });
+
+        if (force) {
+            this.mineResets.values().forEach(mineReset -> mineReset.tick(this.world, Integer.MAX_VALUE));
+        }
+
+        if (force && !this.deferredBlocks.isEmpty()) {
+            this.deferredBlocks.values().forEach(blocks -> blocks.forEach((pos, renewBlock) -> this.renewBlock(pos, renewBlock, false)));
+            this.deferredBlocks.clear();
+        }
+    }
+
+    public void regenerateBlocks(@NotNull Chunk chunk) {
+        if (!this.isActive() || chunk.getWorld() != this.world) return;
+
+        this.mineResets.values().forEach(mineReset -> mineReset.onChunkLoad(chunk.getX(), chunk.getZ()));
+        if (this.deferredBlocks.isEmpty()) return;
+
+        Map<Long, RenewBlock> blocks = this.deferredBlocks.remove(JobUtils.getChunkKey(chunk.getX(), chunk.getZ()));
+        if (blocks == null) return;
+
+        blocks.forEach((blockKey, renewBlock) -> this.renewBlock(blockKey, renewBlock, false));
+    }
+
+    private void deferBlock(long blockKey, @NotNull RenewBlock renewBlock) {
+        this.deferredBlocks.computeIfAbsent(JobUtils.getChunkKey(blockKey), k -> new HashMap<>()).put(blockKey, renewBlock);
+    }
+
+    private void renewBlock(long blockKey, @NotNull RenewBlock renewBlock, boolean effect) {
+        // Fallback block can still be in queue if reset time is very short.
+        Map<Long, BlockData> fallbacks = this.fallbackBlocks.get(JobUtils.getChunkKey(blockKey));
+        if (fallbacks != null) fallbacks.remove(blockKey);
+
+        BlockData blockData = renewBlock.getBlockData();
+        Block block = this.getBlock(blockKey);
+        block.setBlockData(blockData);
+
+        if (effect) {
+            UniParticle.of(Particle.BLOCK, blockData).play(LocationUtil.setCenter3D(block.getLocation()), 0.35, 0.05, 60);
+        }
+    }
+
+    @NotNull
+    private Block getBlock(long blockKey) {
+        return this.world.getBlockAt(JobUtils.getBlockKeyX(blockKey), JobUtils.getBlockKeyY(blockKey), JobUtils.getBlockKeyZ(blockKey));
+    }
+
+    @NotNull
+    public MineReset getMineReset(@NotNull BlockList blockList) {
+        return this.mineResets.computeIfAbsent(blockList.getId(), k -> new MineReset(blockList, this.cuboid));
+    }
+
+    /**
+     * Starts scheduled or depleted mine resets and continues running ones.
+     * @param budget Max. amount of blocks to process.
+     * @return Unused budget.
+     */
+    public int tickMines(int budget) {
+        if (!this.isActive()) return budget;
+
+        for (BlockList blockList : this.blockListMap.values()) {
+            if (budget <= 0) break;
+            if (!blockList.isMineMode()) continue;
+
+            MineReset mineReset = this.getMineReset(blockList);
+            if (mineReset.getBlockList() != blockList) {
+                this.mineResets.remove(blockList.getId());
+                mineReset = this.getMineReset(blockList);
+            }
+
+            if (mineReset.isResetTime() && mineReset.isLoaded(this.world)) {
+                mineReset.start(this.cuboid);
+            }
+            budget = mineReset.tick(this.world, budget);
+        }
+
+        return budget;
+    }
+
+    public boolean hasDeferredBlocks() {
+        return !this.deferredBlocks.isEmpty() || this.mineResets.values().stream().anyMatch(MineReset::hasDeferredChunks);
     }
 
     public boolean contains(@NotNull Location location) {
         return this.cuboid.contains(location);
     }
 
+    public boolean contains(int x, int y, int z) {
+        return x >= this.minX && x <= this.maxX && y >= this.minY && y <= this.maxY && z >= this.minZ && z <= this.maxZ;
+    }
+
+    public boolean intersects(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return minX <= this.maxX && maxX >= this.minX && minY <= this.maxY && maxY >= this.minY && minZ <= this.maxZ && maxZ >= this.minZ;
+    }
+
     public boolean isAvailable(@NotNull Player player) {
         if (!this.isActive()) return false;
         if (player.hasPermission(Perms.BYPASS_ZONE_ACCESS)) return true;
@@ -241,7 +378,8 @@ public class Zone extends AbstractFileData<JobsPlugin> {
     }
 
     public boolean hasAnyGoodJob(@NotNull Player player) {
-        JobUser user = this.plugin.getUserManager().getOrFetch(player);
+        JobUser user = this.plugin.getUserManager().getIfLoaded(player);
+        if (user == null) return false;
 
         return user.getDatas().stream().anyMatch(jobData -> jobData.getState() != JobState.INACTIVE && this.isGoodLevel(jobData.getLevel()));
     }
@@ -372,6 +510,13 @@ public class Zone extends AbstractFileData<JobsPlugin> {
 
     public void setCuboid(@NotNull Cuboid cuboid) {
         this.cuboid = cuboid;
+        this.minX = Math.min(cuboid.getMin().getX(), cuboid.getMax().getX());
+        this.minY = Math.min(cuboid.getMin().getY(), cuboid.getMax().getY());
+        this.minZ = Math.min(cuboid.getMin().getZ(), cuboid.getMax().getZ());
+        this.maxX = Math.max(cuboid.getMin().getX(), cuboid.getMax().getX());
+        this.maxY = Math.max(cuboid.getMin().getY(), cuboid.getMax().getY());
+        this.maxZ = Math.max(cuboid.getMin().getZ(), cuboid.getMax().getZ());
+        this.mineResets.clear();
     }
 
     @NotNull
@@ -482,9 +627,12 @@ public class Zone extends AbstractFileData<JobsPlugin> {
 
     @Nullable
     public BlockList getBlockList(@NotNull Block block) {
-        Material material = block.getType();
+        return this.getBlockList(block.getType());
+    }
 
-        return this.getBlockLists().stream().filter(blockList -> blockList.contains(material)).findFirst().orElse(null);
+    @Nullable
+    public BlockList getBlockList(@NotNull Material material) {
+        return this.blockListIndex.get(material);
     }
 
     @Nullable
@@ -16,6 +16,7 @@ import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.hanging.HangingBreakByEntityEvent;
 import org.bukkit.event.player.*;
+import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
 import org.jetbrains.annotations.NotNull;
@@ -53,6 +54,11 @@ public class GenericZoneListener extends AbstractListener<JobsPlugin> {
         this.manager.getZones(world).forEach(zone -> zone.deactivate(world));
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        this.manager.regenerateBlocks(event.getChunk());
+    }
+
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onZoneJobIncome(JobObjectiveIncomeEvent event) {
         Player player = event.getPlayer();
@@ -233,12 +239,12 @@ public class GenericZoneListener extends AbstractListener<JobsPlugin> {
 
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onBlockExplode(BlockExplodeEvent event) {
-        event.blockList().removeIf(block -> manager.getZone(block) != null);
+        this.manager.removeZoneBlocks(event.getBlock().getWorld(), event.blockList());
     }
 
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onEntityExplode(EntityExplodeEvent event) {
-        event.blockList().removeIf(block -> manager.getZone(block) != null);
+        this.manager.removeZoneBlocks(event.getEntity().getWorld(), event.blockList());
     }
 
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)